@@ -0,0 +1,73 @@
+package benchmark;
+
+import io.InputLoader;
+import models.Digraph;
+import models.SchedulingProblem;
+import org.graphstream.graph.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of looking up the weight and bottom level of every task, through the Digraph and through the
+ * indexed SchedulingProblem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigraphBenchmark {
+
+    @Param({"g4", "g11"})
+    private String graphName;
+
+    private Digraph digraph;
+    private List<Node> nodes;
+    private SchedulingProblem problem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        digraph = InputLoader.loadDotFile(graphName);
+        nodes = digraph.getAllNodes();
+        problem = digraph.getProblem();
+    }
+
+    @Benchmark
+    public double digraphBottomLevels() {
+        double sum = 0;
+        for (Node node : nodes) {
+            sum += digraph.getBottomLevel(node);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double digraphWeights() {
+        double sum = 0;
+        for (Node node : nodes) {
+            sum += digraph.getNodeWeightById(node.getId());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int problemBottomLevels() {
+        int sum = 0;
+        for (int task = 0; task < problem.getNumOfTasks(); task++) {
+            sum += problem.getBottomLevel(task);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int problemWeights() {
+        int sum = 0;
+        for (int task = 0; task < problem.getNumOfTasks(); task++) {
+            sum += problem.getWeight(task);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import algorithm.BucketOpenList;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.InputGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the open queue of A star, offering the partial solutions of the first levels of the solution tree of
+ * an example graph and polling them all again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenListBenchmark {
+
+    private static final int NUM_OF_STATES = 20000;
+
+    @Param({"g4", "g11"})
+    private String graphName;
+
+    // "bucket" for `BucketOpenList`, "heap" for the `PriorityQueue` A star used before it.
+    @Param({"bucket", "heap"})
+    private String openList;
+
+    private List<PartialSolution> states;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(4);
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+
+        // breadth first, so the states have a spread of cost functions and depths.
+        states = new ArrayList<>();
+        states.add(new PartialSolution());
+        for (int i = 0; states.size() < NUM_OF_STATES && i < states.size(); i++) {
+            states.addAll(states.get(i).getAllNextPartialSolution());
+        }
+    }
+
+    @Benchmark
+    public double offerAndPoll() {
+        Queue<PartialSolution> queue = openList.equals("bucket") ? new BucketOpenList()
+                : new PriorityQueue<>((x1, x2) -> (int) (x1.getCostFunction() - x2.getCostFunction()));
+        for (PartialSolution state : states) {
+            queue.offer(state);
+        }
+        double sum = 0;
+        PartialSolution state;
+        while ((state = queue.poll()) != null) {
+            sum += state.getCostFunction();
+        }
+        return sum;
+    }
+}
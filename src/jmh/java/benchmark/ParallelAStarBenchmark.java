@@ -0,0 +1,46 @@
+package benchmark;
+
+import algorithm.ParallelAStar;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the time used by the parallel A star scales with the number of threads, hash distributed or with a shared
+ * frontier. Thread counts above the available cores only measure the overhead of contention.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ParallelAStarBenchmark {
+
+    @Param({"g8", "g9", "g10", "g11"})
+    private String graphName;
+
+    @Param({"2", "4"})
+    private int numOfProcessors;
+
+    @Param({"1", "2", "4", "8"})
+    private int numOfThreads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+    }
+
+    @Benchmark
+    public PartialSolution hashDistributed() {
+        return new ParallelAStar(numOfThreads).build();
+    }
+
+    @Benchmark
+    public PartialSolution sharedFrontier() {
+        return new ParallelAStar(numOfThreads, true).build();
+    }
+}
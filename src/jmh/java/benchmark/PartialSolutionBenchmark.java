@@ -0,0 +1,94 @@
+package benchmark;
+
+import algorithm.ListScheduling;
+import algorithm.PartialSolution;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.InputGraph;
+import org.graphstream.graph.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the PartialSolution operations the searches carry out for every state, on a state half way down
+ * the solution tree of an example graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartialSolutionBenchmark {
+
+    @Param({"g4", "g11"})
+    private String graphName;
+
+    @Param({"2", "4"})
+    private int numOfProcessors;
+
+    private PartialSolution state;
+    private PartialSolution child;
+    private int task;
+    private int processorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        // without a guess cost, the cost function is always calculated in full.
+        InputGraph.setMinimumGuessCost(0);
+
+        // follow a list schedule half way down the solution tree.
+        List<Node> path = ListScheduling.byPriority(SolverContext.global(), ListScheduling.upwardRanks(SolverContext.global()), null).getNodesPath();
+        state = new PartialSolution();
+        for (int i = 0; i < path.size() / 2; i++) {
+            Node node = path.get(i);
+            state = new PartialSolution(state, node.getIndex(), 1 + i % numOfProcessors);
+        }
+        int[] available = state.getAvailableNextTasks();
+        task = available[available.length - 1];
+        processorId = numOfProcessors;
+        child = new PartialSolution(state, task, processorId);
+    }
+
+    @Benchmark
+    public PartialSolution createChild() {
+        return new PartialSolution(state, task, processorId);
+    }
+
+    @Benchmark
+    public double scheduleAndUnschedule() {
+        state.schedule(task, processorId);
+        double costFunction = state.getCostFunction();
+        state.unschedule();
+        return costFunction;
+    }
+
+    @Benchmark
+    public double calculateCostFunction() {
+        return child.calculateCostFunction(task, processorId);
+    }
+
+    @Benchmark
+    public List<Node> getAvailableNextNodes() {
+        return state.getAvailableNextNodes();
+    }
+
+    @Benchmark
+    public int[] getAvailableNextTasks() {
+        return state.getAvailableNextTasks();
+    }
+
+    @Benchmark
+    public long calculateFingerprint() {
+        return state.calculateFingerprint();
+    }
+
+    @Benchmark
+    public List<PartialSolution> getAllNextPartialSolution() {
+        return state.getAllNextPartialSolution();
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import algorithm.AStar;
+import algorithm.IDAStar;
+import algorithm.LowerBound;
+import algorithm.ParallelAStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import org.openjdk.jmh.annotations.*;
+import utils.GraphGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmarks of finding the optimal schedule with every search algorithm, on example graphs and on
+ * random graphs generated with a fixed seed (named "random-[number of tasks]-[seed]").
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+
+    @Param({"g3", "g8", "g9", "g10", "g11", "random-10-1", "random-12-2"})
+    private String graphName;
+
+    @Param({"2", "4"})
+    private int numOfProcessors;
+
+    // the lower bounds of the cost function, see `LowerBound`.
+    @Param({"idle,bl,drt", "idle,bl,fbl"})
+    private String lowerBounds;
+
+    private int numOfThreads;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (graphName.startsWith("random-")) {
+            String[] parts = graphName.split("-");
+            Path path = Files.createTempFile(graphName, ".dot");
+            GraphGenerator.writeLargeDAG(Integer.parseInt(parts[1]), 2, Long.parseLong(parts[2]), path);
+            InputLoader.loadDotFileFromPath(path.toString());
+            Files.delete(path);
+        } else {
+            InputLoader.loadDotFile(graphName);
+        }
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        LowerBound.setEnabled(LowerBound.parse(lowerBounds));
+        numOfThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Benchmark
+    public PartialSolution aStar() {
+        return new AStar().buildTree(new PartialSolution());
+    }
+
+    @Benchmark
+    public PartialSolution parallelAStar() {
+        return new ParallelAStar(numOfThreads).build();
+    }
+
+    @Benchmark
+    public PartialSolution parallelAStarMultiQueue() {
+        return new ParallelAStar(numOfThreads, true).build();
+    }
+
+    @Benchmark
+    public PartialSolution idaStar() {
+        return new IDAStar().build();
+    }
+
+    @Benchmark
+    public PartialSolution branchAndBound() {
+        return new ParallelDFS(numOfThreads).build();
+    }
+}
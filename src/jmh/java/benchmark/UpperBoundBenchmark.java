@@ -0,0 +1,49 @@
+package benchmark;
+
+import algorithm.AStarUtil;
+import algorithm.ListScheduling;
+import algorithm.PartialSolution;
+import algorithm.SolverContext;
+import io.InputLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of finding the upper bound before the search, as a whole and for single list scheduling heuristics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpperBoundBenchmark {
+
+    @Param({"g4", "g11"})
+    private String graphName;
+
+    @Param({"2", "4"})
+    private int numOfProcessors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+    }
+
+    @Benchmark
+    public PartialSolution aStarUtil() {
+        return new AStarUtil().getBestPartialSolution();
+    }
+
+    @Benchmark
+    public PartialSolution upwardRankListSchedule() {
+        return ListScheduling.byPriority(SolverContext.global(), ListScheduling.upwardRanks(SolverContext.global()), null);
+    }
+
+    @Benchmark
+    public PartialSolution earliestStartTimeListSchedule() {
+        return ListScheduling.earliestStartTime(SolverContext.global());
+    }
+}
@@ -1,67 +1,304 @@
 package algorithm;
 
-import models.InputGraph;
-import org.graphstream.graph.Node;
 
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 public class AStar {
 
-    private static PartialSolution currentSolution;
+    private final SolverContext context;
+    private final PartialSolution upperBoundSolution;
+    private final SearchLimit searchLimit;
+    private volatile SearchStatus status = SearchStatus.OPTIMAL;
+    private int closedSetCapacity = ClosedSet.DEFAULT_CAPACITY;
+    private boolean lossyClosedSet = false;
+    // the max size of the arena of every off-heap open queue, or 0 to keep the open queues on the heap.
+    private long offHeapOpenListSize = 0;
+    private final Queue<SpillingOpenList> offHeapOpenLists = new ConcurrentLinkedQueue<>();
+    // the metrics of the off-heap open queues already released.
+    private final LongAdder releasedOffHeapCapacityInBytes = new LongAdder();
+    private final LongAdder releasedOffHeapPeakUsedBytes = new LongAdder();
+    private final LongAdder numOfReleasedSpilledStates = new LongAdder();
+    private final LongAdder numOfDuplicates = new LongAdder();
+    private final LongAdder numOfFixedTaskOrderStates = new LongAdder();
+    private final LongAdder numOfExpandedStates = new LongAdder();
 
+    /**
+     * @return the partial solution being expanded by the search of the global context, for the visualisation
+     */
     public static PartialSolution getCurrentSolution() {
-        return currentSolution;
+        return SolverContext.global().getCurrentSolution();
     }
 
-    public static void setCurrentSolution(PartialSolution solution) {
-        currentSolution = solution;
+    protected void setCurrentSolution(PartialSolution solution) {
+        context.setCurrentSolution(solution);
     }
 
     public AStar() {
+        this(SearchLimit.none());
+    }
+
+    /**
+     * @param searchLimit the deadline and cancellation token checked by the search and by `AStarUtil` before it
+     */
+    public AStar(SearchLimit searchLimit) {
+        this(SolverContext.global(), searchLimit);
+    }
+
+    /**
+     * @param context     the problem to solve
+     * @param searchLimit the deadline and cancellation token checked by the search and by `AStarUtil` before it
+     */
+    public AStar(SolverContext context, SearchLimit searchLimit) {
+        this.context = context;
+        this.searchLimit = searchLimit;
         // add the root element of the solution tree - i.e. the empty schedule
-        new AStarUtil();
+        upperBoundSolution = new AStarUtil(context, searchLimit).getBestPartialSolution();
+    }
+
+    /**
+     * @return the problem this search solves
+     */
+    public SolverContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the deadline and cancellation token of the search
+     */
+    public SearchLimit getSearchLimit() {
+        return searchLimit;
+    }
+
+    /**
+     * @return OPTIMAL if the last search ran to the end, otherwise why it was stopped by the search limit
+     */
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @param status how the search ended
+     */
+    protected void setStatus(SearchStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the schedule found by `AStarUtil` before the search, whose finish time is the initial upper bound
+     */
+    public PartialSolution getUpperBoundSolution() {
+        return upperBoundSolution;
+    }
+
+    /**
+     * @param closedSetCapacity the max number of partial solution fingerprints each search remembers
+     * @param lossy             whether the closed set overwrites old fingerprints once the capacity is reached
+     */
+    public void setClosedSetCapacity(int closedSetCapacity, boolean lossy) {
+        this.closedSetCapacity = closedSetCapacity;
+        this.lossyClosedSet = lossy;
+    }
+
+    /**
+     * @return a new closed set configured by `setClosedSetCapacity`
+     */
+    protected ClosedSet createClosedSet() {
+        return new ClosedSet(closedSetCapacity, lossyClosedSet);
+    }
+
+    /**
+     * @param maxNumOfBytes the max size of the off-heap arena of each open queue, or 0 to keep the open queues on the
+     *                      heap
+     */
+    public void setOffHeapOpenListSize(long maxNumOfBytes) {
+        this.offHeapOpenListSize = maxNumOfBytes;
+    }
+
+    /**
+     * @return a new open queue that polls the partial solution with the lowest cost function first, a bucket queue by
+     * the cost function rounded up that polls the deepest partial solution first on ties, or a queue off the heap if
+     * configured by `setOffHeapOpenListSize`, which spills to the heap once its arena is full
+     */
+    protected Queue<PartialSolution> createOpenQueue() {
+        if (offHeapOpenListSize > 0) {
+            SpillingOpenList openList = new SpillingOpenList(new OffHeapOpenList(context, offHeapOpenListSize));
+            offHeapOpenLists.add(openList);
+            return openList;
+        }
+        return new BucketOpenList();
+    }
+
+    /**
+     * Release the arenas of the off-heap open queues once the search is done with them, so their direct memory can be
+     * reclaimed before the search object is. Their metrics are kept.
+     */
+    protected void releaseOffHeapOpenLists() {
+        SpillingOpenList openList;
+        while ((openList = offHeapOpenLists.poll()) != null) {
+            releasedOffHeapCapacityInBytes.add(openList.getOffHeapOpenList().getCapacityInBytes());
+            releasedOffHeapPeakUsedBytes.add(openList.getOffHeapOpenList().getPeakUsedBytes());
+            numOfReleasedSpilledStates.add(openList.getNumOfSpilled());
+            openList.release();
+        }
+    }
+
+    /**
+     * @return the number of bytes of direct memory allocated by the off-heap open queues of the searches so far
+     */
+    public long getOffHeapCapacityInBytes() {
+        long capacity = releasedOffHeapCapacityInBytes.sum();
+        for (SpillingOpenList openList : offHeapOpenLists) {
+            capacity += openList.getOffHeapOpenList().getCapacityInBytes();
+        }
+        return capacity;
+    }
+
+    /**
+     * @return the sum of the peak number of bytes used by each off-heap open queue of the searches so far
+     */
+    public long getOffHeapPeakUsedBytes() {
+        long usedBytes = releasedOffHeapPeakUsedBytes.sum();
+        for (SpillingOpenList openList : offHeapOpenLists) {
+            usedBytes += openList.getOffHeapOpenList().getPeakUsedBytes();
+        }
+        return usedBytes;
+    }
+
+    /**
+     * @return the number of partial solutions spilled to the heap by the off-heap open queues of the searches so far,
+     * because their arenas were full
+     */
+    public long getNumOfSpilledStates() {
+        long numOfSpilled = numOfReleasedSpilledStates.sum();
+        for (SpillingOpenList openList : offHeapOpenLists) {
+            numOfSpilled += openList.getNumOfSpilled();
+        }
+        return numOfSpilled;
+    }
+
+    /**
+     * @return the number of duplicate partial solutions dropped so far
+     */
+    public long getNumOfDuplicates() {
+        return numOfDuplicates.sum();
+    }
+
+    /**
+     * @return the number of partial solutions whose available tasks were expanded in a fixed task order so far
+     */
+    public long getNumOfFixedTaskOrderStates() {
+        return numOfFixedTaskOrderStates.sum();
+    }
+
+    /**
+     * @return the number of partial solutions expanded so far
+     */
+    public long getNumOfExpandedStates() {
+        return numOfExpandedStates.sum();
+    }
+
+    /**
+     * @param partialSolution the partial solution to expand
+     * @return the tasks to schedule next, i.e. just the first one if the available tasks have a fixed task order,
+     * all available tasks otherwise
+     */
+    protected int[] getTasksToExpand(PartialSolution partialSolution) {
+        int[] availableTasks = partialSolution.getAvailableNextTasks();
+        int fixedOrderTask = partialSolution.findFixedOrderTask(availableTasks);
+        if (fixedOrderTask == -1) {
+            return availableTasks;
+        }
+        numOfFixedTaskOrderStates.increment();
+        return new int[]{fixedOrderTask};
+    }
+
+    /**
+     * Offer the partial solution to the queue unless an identical partial schedule has been seen already.
+     *
+     * @param solutionQueue   the open queue
+     * @param closedSet       fingerprints of the partial solutions seen so far by this search
+     * @param partialSolution the partial solution to offer
+     */
+    protected void offerIfNotDuplicate(Queue<PartialSolution> solutionQueue, ClosedSet closedSet,
+                                       PartialSolution partialSolution) {
+        if (closedSet.add(partialSolution.calculateFingerprint())) {
+            solutionQueue.offer(partialSolution);
+        } else {
+            countDuplicate();
+        }
+    }
+
+    /**
+     * record that a partial solution has been expanded.
+     */
+    protected void countExpandedState() {
+        numOfExpandedStates.increment();
+    }
+
+    /**
+     * record that a duplicate partial solution has been dropped.
+     */
+    protected void countDuplicate() {
+        numOfDuplicates.increment();
     }
 
     /**
      * Calculate the best schedule from a certain node
      *
      * @param root where the calculation should start from
-     * @return the partial solution that contains the best schedule
+     * @return the partial solution that contains the best schedule, or the schedule from `AStarUtil` if the search
+     * limit stopped the search first or no schedule beats it
      */
     public PartialSolution buildTree(PartialSolution root) {
+        try {
+            return buildTree(root, createOpenQueue());
+        } finally {
+            releaseOffHeapOpenLists();
+        }
+    }
 
-        PriorityQueue<PartialSolution> solutionQueue = new PriorityQueue<>((x1, x2) -> {
-            // compare the cost function between 2 solutions.
-            return (int) (x1.getCostFunction() - x2.getCostFunction());
-        });
-
-        solutionQueue.offer(root);
+    private PartialSolution buildTree(PartialSolution root, Queue<PartialSolution> solutionQueue) {
+        status = SearchStatus.OPTIMAL;
+        ClosedSet closedSet = createClosedSet();
+        offerIfNotDuplicate(solutionQueue, closedSet, root);
 
+        long numOfExpansions = 0;
         while (!solutionQueue.isEmpty()) {
+            if (searchLimit.isReached(++numOfExpansions)) {
+                status = searchLimit.getStopStatus();
+                return upperBoundSolution;
+            }
             // poll the first element from the Priority queue.
             PartialSolution prev = solutionQueue.poll();
+            // the goal is tested when a schedule is polled rather than generated, the cost function of a complete
+            // schedule is its finish time, so it is optimal once it is the lowest in the queue, whichever lower bounds
+            // are used.
+            if (prev.getNumOfScheduledTasks() == context.getProblem().getNumOfTasks()) {
+                return prev;
+            }
             setCurrentSolution(prev);
+            countExpandedState();
 
-            // get available next nodes from the current partial solution.
-            List<Node> availableNextNodes = prev.getAvailableNextNodes();
+            // get available next nodes from the current partial solution, only the first one of them if they
+            // have a fixed task order.
+            int[] availableNextNodes = getTasksToExpand(prev);
 
-            for (Node node : availableNextNodes) {
+            for (int node : availableNextNodes) {
                 // when scheduling the starting nodes of the solution tree, remove the trivial
                 // situations since schedule these tasks on any processor is the same, keep one of the processor
                 // is sufficient for the starting node. Effectively pruning by removing the symmetric part of the
                 // solution tree.
                 List<PartialSolution> nextPartialSolution = prev.getNextPartialSolution(node);
                 for (PartialSolution partialSolution : nextPartialSolution) {
-                    if (partialSolution.getNodesPath().size() == InputGraph.get().getNodeCount()) {
-                        return partialSolution;
-                    } else {
-                        solutionQueue.offer(partialSolution);
-                    }
+                    offerIfNotDuplicate(solutionQueue, closedSet, partialSolution);
                 }
             }
         }
-        return null;
+        // every partial solution was pruned by the minimum guess cost, so nothing beats the upper bound.
+        return upperBoundSolution;
     }
 }
 
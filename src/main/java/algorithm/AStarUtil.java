@@ -1,24 +1,123 @@
 package algorithm;
 
-import io.InputLoader;
-import models.InputGraph;
-import org.graphstream.graph.Node;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Helper class to help A star algorithm to pre-calculate an upper bound
  * Save memory/ computing time.
+ * A portfolio of list scheduling heuristics is run in parallel first, each publishing its schedule as the minimum
+ * guess cost as soon as it finishes if it is the best so far, then a limited DFS tries to improve on the best one.
+ * Once a schedule as short as the lower bound is found, it is optimal and the rest is skipped.
  */
 public class AStarUtil {
 
+    private static final int NUM_OF_RANDOM_RESTARTS = 16;
+    // max relative change of a task's priority in the random restarts.
+    private static final double RANDOM_PRIORITY_NOISE = 0.1;
+    // the heuristics are short, so one thread per core is kept for them, for all the searches of the program.
+    private static final ExecutorService HEURISTIC_POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new SearchScope.DaemonThreadFactory("heuristic"));
+
     private int NUM_OF_SOLUTION_ROUTES = 7000;
     private int count;
     private PartialSolution bestPartialSolution;
+    // no schedule can be shorter, so a schedule with this makespan is optimal.
+    private final int lowerBound;
+    private final SolverContext context;
+    private final SearchLimit searchLimit;
+    private long numOfVisited;
+    private SearchScope scope;
 
     public AStarUtil() {
-        DFSFindOneSolution(new PartialSolution());
-        findMinCost(new PartialSolution());
+        this(SolverContext.global(), SearchLimit.none());
+    }
+
+    /**
+     * @param context     the problem to find an upper bound of, its minimum guess cost is set to it
+     * @param searchLimit the limited DFS stops early once it is reached, after the heuristics have found a schedule
+     */
+    public AStarUtil(SolverContext context, SearchLimit searchLimit) {
+        this.context = context;
+        this.searchLimit = searchLimit;
+        // the guess cost left over from the previous graph means nothing for this one.
+        context.setMinimumGuessCost(Integer.MAX_VALUE);
+        lowerBound = context.getProblem().getLowerBound(context.getNumOfProcessors());
+        runHeuristicPortfolio();
+        if (!isOptimal()) {
+            findMinCost(new PartialSolution(context));
+        }
+    }
+
+    /**
+     * @return whether the best schedule so far is as short as the lower bound
+     */
+    private synchronized boolean isOptimal() {
+        return bestPartialSolution != null && bestPartialSolution.calculateEndScheduleTime() <= lowerBound;
+    }
+
+    /**
+     * Run every list scheduling heuristic, plus the greedy `DFSFindOneSolution`, in a scope on the heuristic pool,
+     * the ones that have not started are skipped once an optimal schedule is found.
+     */
+    private void runHeuristicPortfolio() {
+        List<Callable<PartialSolution>> heuristics = new ArrayList<>();
+        heuristics.add(() -> ListScheduling.byPriority(context, ListScheduling.upwardRanks(context), null));
+        heuristics.add(() -> ListScheduling.byPriority(context, ListScheduling.criticalPathPriorities(context), null));
+        heuristics.add(() -> ListScheduling.byPriority(context, ListScheduling.bottomLevels(context), null));
+        heuristics.add(() -> ListScheduling.earliestStartTime(context));
+        for (int i = 0; i < NUM_OF_RANDOM_RESTARTS; i++) {
+            Random random = new Random(i);
+            heuristics.add(() -> {
+                double[] priorities = ListScheduling.upwardRanks(context);
+                for (int task = 0; task < priorities.length; task++) {
+                    priorities[task] *= 1 + RANDOM_PRIORITY_NOISE * (2 * random.nextDouble() - 1);
+                }
+                return ListScheduling.byPriority(context, priorities, random);
+            });
+        }
+
+        try (SearchScope scope = new SearchScope(HEURISTIC_POOL)) {
+            this.scope = scope;
+            scope.fork(() -> DFSFindOneSolution(new PartialSolution(context)));
+            for (Callable<PartialSolution> heuristic : heuristics) {
+                scope.fork(() -> {
+                    publishSolution(heuristic.call());
+                    return null;
+                });
+            }
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("upper bound heuristics were interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("upper bound heuristic failed", e.getCause());
+        } finally {
+            scope = null;
+        }
+    }
+
+    /**
+     * Save the complete schedule as the best one and its finish time as the minimum guess cost, if it is
+     * better than the best one so far.
+     *
+     * @param solution a complete schedule
+     */
+    private synchronized void publishSolution(PartialSolution solution) {
+        int makespan = solution.calculateEndScheduleTime();
+        if (bestPartialSolution == null || makespan < bestPartialSolution.calculateEndScheduleTime()) {
+            setBestPartialSolution(solution);
+            context.setMinimumGuessCost(makespan);
+            if (makespan <= lowerBound && scope != null) {
+                scope.shutdown();
+            }
+        }
     }
 
     public PartialSolution getBestPartialSolution() {
@@ -39,14 +138,14 @@ public class AStarUtil {
     public boolean DFSFindOneSolution(PartialSolution prev) {
 
         // if we are at the leaf node of the solution tree.
-        if (prev.getNodesPath().size() == InputGraph.get().getNodeCount()) {
+        if (prev.getNumOfScheduledTasks() == context.getProblem().getNumOfTasks()) {
             // set the minimum guess cost as the result solution cost (Last finish Time among all processors)
-            InputGraph.setMinimumGuessCost(prev.calculateEndScheduleTime());
+            publishSolution(prev);
             return true;
         }
 
         // get the next available nodes onroute.
-        List<Node> availableNextNodes = prev.getAvailableNextNodes();
+        int[] availableNextNodes = prev.getAvailableNextTasks();
 
         // placeholders
         PartialSolution minPartialSolution = null;
@@ -54,10 +153,10 @@ public class AStarUtil {
 
         // find the minimum Cost Function of all possible Partial Solutions of the current Partial Solution's available nodes
         // and on different Processors.
-        for (Node node : availableNextNodes) {
-            for (int i = 1; i <= InputLoader.getNumOfProcessors(); i++) {
+        for (int node : availableNextNodes) {
+            for (int i = 1; i <= prev.getMaxCanonicalProcessor(); i++) {
                 PartialSolution current = new PartialSolution(prev, node, i);
-                double v = current.calculateCostFunction(node, i);
+                double v = current.getCostFunction();
                 if (v < minCostFunction) {
                     minCostFunction = v;
                     minPartialSolution = current;
@@ -76,22 +175,25 @@ public class AStarUtil {
      * Use the `DFSFindOneSolution` method as a benchmark, carry out limited number of DFS search to get
      * an estimate as close as possible to optimal solution cost. This will be used as upper-limit for carrying out
      * A star Algorithm later to reduce Memory / increase search time.
+     * The search also terminates once the search limit is reached.
      *
      * @param prev the node to calculate the min cost
      */
     public boolean findMinCost(PartialSolution prev) {
+        if (searchLimit.isReached(++numOfVisited)) {
+            return true;
+        }
 
         // if we are at the leaf node of the solution tree.
-        if (prev.getNodesPath().size() == InputGraph.get().getNodeCount()) {
+        if (prev.getNumOfScheduledTasks() == context.getProblem().getNumOfTasks()) {
             // number of iterations so far.
             count++;
             // branch and bound operation
-            if (prev.calculateEndScheduleTime() > InputGraph.getMinimumGuessCost()) {
+            if (prev.calculateEndScheduleTime() > context.getMinimumGuessCost()) {
                 return false;
             }
             // if we found a lower finish time of a full solution, set the new Minimum Guess Cost.
-            InputGraph.setMinimumGuessCost(prev.calculateEndScheduleTime());
-            setBestPartialSolution(prev);
+            publishSolution(prev);
             // after a number of attempts for full solutions, terminate the search.
             if (count >= NUM_OF_SOLUTION_ROUTES) {
                 return true;
@@ -102,14 +204,19 @@ public class AStarUtil {
         } else {
 
             // branch and bound operation
-            if (prev.getCostFunction() > InputGraph.getMinimumGuessCost()) {
+            if (prev.getCostFunction() > context.getMinimumGuessCost()) {
                 return false;
             }
             // find the minimum Cost Function of all possible Partial Solutions of the current Partial Solution's available nodes
             // and on different Processors.
-            List<Node> availableNextNodes = prev.getAvailableNextNodes();
-            for (Node node : availableNextNodes) {
-                for (int i = 1; i <= InputLoader.getNumOfProcessors(); i++) {
+            int[] availableNextNodes = prev.getAvailableNextTasks();
+            // if the available tasks have a fixed task order, only the first one needs to be tried.
+            int fixedOrderTask = prev.findFixedOrderTask(availableNextNodes);
+            if (fixedOrderTask != -1) {
+                availableNextNodes = new int[]{fixedOrderTask};
+            }
+            for (int node : availableNextNodes) {
+                for (int i = 1; i <= prev.getMaxCanonicalProcessor(); i++) {
                     PartialSolution current = new PartialSolution(prev, node, i);
                     // recursively find next node of the solution tree.
                     if (findMinCost(current)) {
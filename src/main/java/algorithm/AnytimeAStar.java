@@ -0,0 +1,223 @@
+package algorithm;
+
+
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Anytime weighted A star. Every round is a best first search ordered by g + w * h, where g is the finish time of a
+ * partial schedule and h the rest of its cost function, so a larger weight w heads for complete schedules sooner.
+ * Each complete schedule that beats the incumbent is handed to the listener as soon as it is found, and partial
+ * solutions that can not beat the incumbent are dropped. A round ends once the incumbent is no worse than the
+ * smallest weighted cost left in the open queue, then the search restarts with a smaller weight, down to plain
+ * A star (w = 1), which proves the incumbent optimal.
+ * The search stops once its search limit is reached, returning the incumbent and the best lower bound of the optimal
+ * finish time proven so far.
+ */
+public class AnytimeAStar extends AStar {
+
+    // the weight of h in every round, the last round must be plain A star.
+    private static final double[] WEIGHTS = {3.0, 2.0, 1.5, 1.25, 1.1, 1.0};
+
+    /**
+     * Gets the schedules found by the search, in the order they were found.
+     */
+    public interface SolutionListener {
+        /**
+         * @param solution   a complete schedule that is better than all schedules before it
+         * @param lowerBound the lower bound of the optimal finish time proven when the schedule was found
+         */
+        void onImprovedSolution(PartialSolution solution, int lowerBound);
+    }
+
+    private final SolutionListener listener;
+    private PartialSolution incumbent;
+    private int lowerBound;
+
+    /**
+     * @param searchLimit the deadline and cancellation token checked by the search, `SearchLimit.none()` to run
+     *                    until the schedule is proven optimal
+     * @param listener    gets every improved schedule, may be null
+     */
+    public AnytimeAStar(SearchLimit searchLimit, SolutionListener listener) {
+        this(SolverContext.global(), searchLimit, listener);
+    }
+
+    /**
+     * @param context     the problem to solve
+     * @param searchLimit the deadline and cancellation token checked by the search, `SearchLimit.none()` to run
+     *                    until the schedule is proven optimal
+     * @param listener    gets every improved schedule, may be null
+     */
+    public AnytimeAStar(SolverContext context, SearchLimit searchLimit, SolutionListener listener) {
+        super(context, searchLimit);
+        this.listener = listener;
+    }
+
+    /**
+     * @return the best lower bound of the optimal finish time proven by the last search
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @return whether the schedule found by the last search is proven optimal
+     */
+    public boolean isOptimal() {
+        return incumbent != null && lowerBound >= incumbent.calculateEndScheduleTime();
+    }
+
+    /**
+     * Run the rounds of weighted A star until the incumbent is proven optimal or the search limit is reached, see
+     * `getStatus`.
+     *
+     * @return the best schedule found
+     */
+    public PartialSolution build() {
+        PartialSolution root = new PartialSolution(getContext());
+        int numOfTasks = getContext().getProblem().getNumOfTasks();
+        setStatus(SearchStatus.OPTIMAL);
+        incumbent = null;
+        if (numOfTasks == 0) {
+            lowerBound = 0;
+            return root;
+        }
+        // no schedule can be shorter than the critical path, or than all the work spread evenly.
+        lowerBound = getContext().getProblem().getLowerBound(getContext().getNumOfProcessors());
+        offerCompleteSolution(getUpperBoundSolution());
+
+        for (double weight : WEIGHTS) {
+            if (isOptimal() || !search(root, weight)) {
+                break;
+            }
+        }
+        return incumbent;
+    }
+
+    /**
+     * One round of weighted A star.
+     *
+     * @param root   the empty schedule
+     * @param weight the weight of h
+     * @return false if the search limit has been reached
+     */
+    private boolean search(PartialSolution root, double weight) {
+        int numOfTasks = getContext().getProblem().getNumOfTasks();
+        PriorityQueue<OpenEntry> solutionQueue = new PriorityQueue<>();
+        // the number of partial solutions in the queue with every (rounded up) cost function, so the smallest one
+        // is known, it is a lower bound of the optimal finish time.
+        TreeMap<Integer, Integer> costFunctions = new TreeMap<>();
+        ClosedSet closedSet = createClosedSet();
+        closedSet.add(root.calculateFingerprint());
+        push(solutionQueue, costFunctions, new OpenEntry(root, weight));
+
+        long numOfExpansions = 0;
+        while (!solutionQueue.isEmpty()) {
+            if (getSearchLimit().isReached(++numOfExpansions)) {
+                updateLowerBound(costFunctions);
+                setStatus(getSearchLimit().getStopStatus());
+                return false;
+            }
+            updateLowerBound(costFunctions);
+            OpenEntry entry = solutionQueue.peek();
+            // every schedule left in the queue is at most a factor w better than the incumbent.
+            if (incumbent.calculateEndScheduleTime() <= entry.weightedCost) {
+                return true;
+            }
+            solutionQueue.poll();
+            remove(costFunctions, entry.costFunction);
+            if (entry.costFunction >= incumbent.calculateEndScheduleTime()) {
+                continue;
+            }
+
+            PartialSolution prev = entry.partialSolution;
+            setCurrentSolution(prev);
+            countExpandedState();
+            for (int task : getTasksToExpand(prev)) {
+                for (PartialSolution partialSolution : prev.getNextPartialSolution(task)) {
+                    if (partialSolution.getNumOfScheduledTasks() == numOfTasks) {
+                        offerCompleteSolution(partialSolution);
+                    } else if (partialSolution.getCostFunction() < incumbent.calculateEndScheduleTime()) {
+                        if (closedSet.add(partialSolution.calculateFingerprint())) {
+                            push(solutionQueue, costFunctions, new OpenEntry(partialSolution, weight));
+                        } else {
+                            countDuplicate();
+                        }
+                    }
+                }
+            }
+        }
+        // every partial solution that could beat the incumbent has been expanded.
+        lowerBound = incumbent.calculateEndScheduleTime();
+        return true;
+    }
+
+    /**
+     * Replace the incumbent with the complete schedule if it is better, and tell the listener.
+     *
+     * @param solution a complete schedule
+     */
+    private void offerCompleteSolution(PartialSolution solution) {
+        if (incumbent != null && solution.calculateEndScheduleTime() >= incumbent.calculateEndScheduleTime()) {
+            return;
+        }
+        incumbent = solution;
+        // let `getNextPartialSolution` prune against the new incumbent as well.
+        getContext().setMinimumGuessCost(solution.calculateEndScheduleTime());
+        if (listener != null) {
+            listener.onImprovedSolution(solution, Math.min(lowerBound, solution.calculateEndScheduleTime()));
+        }
+    }
+
+    /**
+     * Raise the lower bound to the smallest cost function in the queue, as every schedule that beats the incumbent
+     * descends from one of the partial solutions in it.
+     */
+    private void updateLowerBound(TreeMap<Integer, Integer> costFunctions) {
+        int bound = costFunctions.isEmpty() ? incumbent.calculateEndScheduleTime()
+                : Math.min(costFunctions.firstKey(), incumbent.calculateEndScheduleTime());
+        lowerBound = Math.max(lowerBound, bound);
+    }
+
+    private void push(PriorityQueue<OpenEntry> solutionQueue, TreeMap<Integer, Integer> costFunctions,
+                      OpenEntry entry) {
+        solutionQueue.offer(entry);
+        costFunctions.merge(entry.costFunction, 1, Integer::sum);
+    }
+
+    private void remove(TreeMap<Integer, Integer> costFunctions, int costFunction) {
+        int count = costFunctions.get(costFunction);
+        if (count == 1) {
+            costFunctions.remove(costFunction);
+        } else {
+            costFunctions.put(costFunction, count - 1);
+        }
+    }
+
+    /**
+     * A partial solution in the open queue, with its weighted cost g + w * h.
+     */
+    private static class OpenEntry implements Comparable<OpenEntry> {
+
+        private final PartialSolution partialSolution;
+        // the cost function rounded up, finish times are whole numbers.
+        private final int costFunction;
+        private final double weightedCost;
+
+        OpenEntry(PartialSolution partialSolution, double weight) {
+            this.partialSolution = partialSolution;
+            this.costFunction = (int) Math.ceil(partialSolution.getCostFunction());
+            int finishTime = partialSolution.calculateEndScheduleTime();
+            this.weightedCost = finishTime + weight * Math.max(0, partialSolution.getCostFunction() - finishTime);
+        }
+
+        @Override
+        public int compareTo(OpenEntry other) {
+            int result = Double.compare(weightedCost, other.weightedCost);
+            // prefer the deeper partial solution, it is closer to a complete schedule.
+            return result != 0 ? result
+                    : other.partialSolution.getNumOfScheduledTasks() - partialSolution.getNumOfScheduledTasks();
+        }
+    }
+}
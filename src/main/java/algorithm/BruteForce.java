@@ -68,11 +68,11 @@ public class BruteForce extends Digraph {
      */
     public void build(PartialSolution prevPartialSolution) {
 
-        if (prevPartialSolution.getNodesPath().size() == InputGraph.get().getNodeCount()) {
+        if (prevPartialSolution.getNumOfScheduledTasks() == InputGraph.get().getNodeCount()) {
             int FinalFinishTime = 0;
             List<Node> nodes = prevPartialSolution.getNodesPath();
             for (Node node : nodes) {
-                FinalFinishTime = (int) Math.max(FinalFinishTime, prevPartialSolution.getNodeStates().get(node).getStartingTime() + InputGraph.get().getNodeWeightById(node.getId()));
+                FinalFinishTime = (int) Math.max(FinalFinishTime, prevPartialSolution.getStartingTime(node.getIndex()) + InputGraph.get().getNodeWeightById(node.getId()));
             }
 
             minStartingTime = Math.min(minStartingTime, FinalFinishTime);
@@ -83,7 +83,7 @@ public class BruteForce extends Digraph {
         // for every available next Tasks.
         for (Node availableNextNode : availableNextNodes) {
             // for every processor
-            if (prevPartialSolution.getNodesPath().size() == 0) {
+            if (prevPartialSolution.getNumOfScheduledTasks() == 0) {
                 PartialSolution currentPartialSolution = new PartialSolution(prevPartialSolution,
                         availableNextNode, 1);
                 appendChildNodes(prevPartialSolution, currentPartialSolution);
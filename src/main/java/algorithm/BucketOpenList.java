@@ -0,0 +1,181 @@
+package algorithm;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An open queue of partial solutions in buckets by their cost function rounded up (a dial queue). Finish times are
+ * whole numbers, so a partial solution can only lead to a schedule of finish time f if its cost function rounded up
+ * is at most f, and polling by the rounded cost function expands the same partial solutions as polling by the exact
+ * one, except for the order among those with the same rounded value.
+ * Within a bucket, the partial solution with the most scheduled tasks is polled first, as it is closest to a complete
+ * schedule, and among those the last one offered. Offering is O(1), and polling is O(1) plus the number of empty
+ * buckets and depths skipped, which are bounded by the finish time and the number of tasks.
+ * Not thread safe, every worker of `ParallelAStar` has its own.
+ */
+public class BucketOpenList extends AbstractQueue<PartialSolution> {
+
+    private static final int INITIAL_NUM_OF_BUCKETS = 64;
+
+    private Bucket[] buckets = new Bucket[INITIAL_NUM_OF_BUCKETS];
+    // the lowest cost function that may have a non-empty bucket.
+    private int minCostFunction = Integer.MAX_VALUE;
+    private int size;
+
+    /**
+     * @param partialSolution the partial solution to add, its cost function must not be negative
+     * @return true
+     */
+    @Override
+    public boolean offer(PartialSolution partialSolution) {
+        int costFunction = bucketOf(partialSolution);
+        if (costFunction >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(buckets.length << 1, costFunction + 1));
+        }
+        if (buckets[costFunction] == null) {
+            buckets[costFunction] = new Bucket();
+        }
+        buckets[costFunction].push(partialSolution);
+        minCostFunction = Math.min(minCostFunction, costFunction);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the partial solution with the lowest rounded cost function and then the most scheduled tasks, removed
+     * from the queue, or null if it is empty
+     */
+    @Override
+    public PartialSolution poll() {
+        Bucket bucket = findLowestBucket();
+        if (bucket == null) {
+            return null;
+        }
+        size--;
+        return bucket.pop();
+    }
+
+    /**
+     * @return the partial solution that `poll` would return, or null if the queue is empty
+     */
+    @Override
+    public PartialSolution peek() {
+        Bucket bucket = findLowestBucket();
+        return bucket == null ? null : bucket.peek();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buckets, null);
+        minCostFunction = Integer.MAX_VALUE;
+        size = 0;
+    }
+
+    /**
+     * @return an iterator over the partial solutions in no particular order, it does not support removal
+     */
+    @Override
+    public Iterator<PartialSolution> iterator() {
+        return Arrays.stream(buckets)
+                .filter(bucket -> bucket != null && bucket.size > 0)
+                .flatMap(bucket -> Arrays.stream(bucket.stacks, 0, bucket.maxDepth + 1)
+                        .filter(stack -> stack != null)
+                        .flatMap(stack -> Arrays.stream(stack.partialSolutions, 0, stack.size)))
+                .iterator();
+    }
+
+    /**
+     * @return the rounded cost function of the partial solution, which is the index of its bucket
+     */
+    private static int bucketOf(PartialSolution partialSolution) {
+        return (int) Math.ceil(partialSolution.getCostFunction());
+    }
+
+    /**
+     * @return the non-empty bucket with the lowest cost function, or null if the queue is empty
+     */
+    private Bucket findLowestBucket() {
+        if (size == 0) {
+            return null;
+        }
+        while (buckets[minCostFunction] == null || buckets[minCostFunction].size == 0) {
+            minCostFunction++;
+        }
+        return buckets[minCostFunction];
+    }
+
+    /**
+     * The partial solutions with the same rounded cost function, in a stack for every number of scheduled tasks.
+     */
+    private static class Bucket {
+
+        private DepthStack[] stacks = new DepthStack[0];
+        // the highest number of scheduled tasks that may have a non-empty stack.
+        private int maxDepth = -1;
+        private int size;
+
+        void push(PartialSolution partialSolution) {
+            int depth = partialSolution.getNumOfScheduledTasks();
+            if (depth >= stacks.length) {
+                stacks = Arrays.copyOf(stacks, depth + 1);
+            }
+            if (stacks[depth] == null) {
+                stacks[depth] = new DepthStack();
+            }
+            stacks[depth].push(partialSolution);
+            maxDepth = Math.max(maxDepth, depth);
+            size++;
+        }
+
+        PartialSolution pop() {
+            DepthStack stack = findDeepestStack();
+            size--;
+            return stack.pop();
+        }
+
+        PartialSolution peek() {
+            DepthStack stack = findDeepestStack();
+            return stack.partialSolutions[stack.size - 1];
+        }
+
+        private DepthStack findDeepestStack() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            while (stacks[maxDepth] == null || stacks[maxDepth].size == 0) {
+                maxDepth--;
+            }
+            return stacks[maxDepth];
+        }
+    }
+
+    /**
+     * A growable array of partial solutions.
+     */
+    private static class DepthStack {
+
+        private PartialSolution[] partialSolutions = new PartialSolution[16];
+        private int size;
+
+        void push(PartialSolution partialSolution) {
+            if (size == partialSolutions.length) {
+                partialSolutions = Arrays.copyOf(partialSolutions, size << 1);
+            }
+            partialSolutions[size++] = partialSolution;
+        }
+
+        PartialSolution pop() {
+            PartialSolution partialSolution = partialSolutions[--size];
+            // let the partial solution be garbage collected once it is expanded.
+            partialSolutions[size] = null;
+            return partialSolution;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package algorithm;
+
+/**
+ * A set of partial solution fingerprints (see `PartialSolution.calculateFingerprint()`) that have already been seen
+ * by the search, used to drop duplicate partial schedules before they enter the open queue.
+ * The fingerprints are kept in an open-addressing table of primitive longs which grows up to a fixed capacity.
+ * Once the capacity is reached, an exact set stops remembering new fingerprints, while a lossy set overwrites older
+ * ones, so memory use is bounded either way. Neither mode ever drops a state that has not been seen before
+ * (barring a 64-bit fingerprint collision).
+ */
+public class ClosedSet {
+
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] table;
+    private int size;
+    private final int maxCapacity;
+    private final boolean lossy;
+    private long numOfDuplicates;
+
+    /**
+     * @param maxCapacity the max number of fingerprints the table can hold, rounded up to a power of 2.
+     * @param lossy       whether to overwrite old fingerprints once the table is full.
+     */
+    public ClosedSet(int maxCapacity, boolean lossy) {
+        this.maxCapacity = Integer.highestOneBit(Math.max(maxCapacity - 1, 1)) << 1;
+        this.lossy = lossy;
+        this.table = new long[Math.min(INITIAL_CAPACITY, this.maxCapacity)];
+    }
+
+    public ClosedSet() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Add the fingerprint to the set.
+     *
+     * @param fingerprint fingerprint of a partial solution
+     * @return true if the fingerprint has not been seen before, false if it is a duplicate.
+     */
+    public boolean add(long fingerprint) {
+        // 0 marks an empty slot.
+        if (fingerprint == 0) {
+            fingerprint = 1;
+        }
+
+        int mask = table.length - 1;
+        int home = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        for (int i = home; ; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                numOfDuplicates++;
+                return false;
+            }
+            if (table[i] == 0) {
+                if (isFull()) {
+                    if (table.length < maxCapacity) {
+                        resize();
+                        return add(fingerprint);
+                    }
+                    // only overwrite an occupied slot, filling an empty one would grow the table past its load factor.
+                    if (lossy && i != home) {
+                        table[home] = fingerprint;
+                    }
+                    return true;
+                }
+                table[i] = fingerprint;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param fingerprint fingerprint of a partial solution
+     * @return whether the fingerprint is in the set, without adding it.
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == 0) {
+            fingerprint = 1;
+        }
+
+        int mask = table.length - 1;
+        for (int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the table has reached its max load factor of 0.75.
+     */
+    private boolean isFull() {
+        return size >= table.length - (table.length >> 2);
+    }
+
+    /**
+     * helper method to double the size of the table and rehash all fingerprints.
+     */
+    private void resize() {
+        long[] oldTable = table;
+        table = new long[oldTable.length << 1];
+        int mask = table.length - 1;
+        for (long fingerprint : oldTable) {
+            if (fingerprint == 0) {
+                continue;
+            }
+            int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = fingerprint;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of duplicate fingerprints that have been rejected by `add`.
+     */
+    public long getNumOfDuplicates() {
+        return numOfDuplicates;
+    }
+}
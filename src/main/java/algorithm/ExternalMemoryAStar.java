@@ -0,0 +1,311 @@
+package algorithm;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * External memory (bucketed) A star, for searches whose frontier does not fit in memory. The open partial solutions
+ * are kept in buckets by their cost function rounded up, as finish times are whole numbers, and by their number of
+ * scheduled tasks. Every bucket is a list of memory mapped segment files of fixed size records (see
+ * `PartialSolution.writeTo`) in a temporary directory, which the operating system writes out to disk as memory runs
+ * low. The buckets are read back in order of their cost function, the deepest one first, so the search heads for
+ * complete schedules within a cost function, and every segment is deleted once it has been read.
+ * Children get at least the cost function of their parent (pathmax), so no bucket below the current one is filled
+ * again, and the search stops at the first bucket whose cost function is not lower than the best complete schedule.
+ * Duplicates are detected per bucket, against the fingerprints of the partial solutions expanded from it, so only
+ * the fingerprints of one cost function are held in memory at a time.
+ */
+public class ExternalMemoryAStar extends AStar {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 23;
+
+    private final Path tempDirectory;
+    private final int segmentSize;
+    private Path spillDirectory;
+    private int recordSize;
+    private int recordsPerSegment;
+    private int nextSegmentId;
+    // buckets of every cost function, by number of scheduled tasks.
+    private TreeMap<Integer, Bucket[]> buckets;
+    private PartialSolution incumbent;
+    private long numOfSpilledBytes;
+    private long numOfSegments;
+    private long numOfExpansions;
+
+    /**
+     * @param tempDirectory the directory to create the segment files in, in a directory of their own
+     */
+    public ExternalMemoryAStar(Path tempDirectory) {
+        this(tempDirectory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param tempDirectory the directory to create the segment files in, in a directory of their own
+     * @param segmentSize   the size of a segment file in bytes, it holds at least one partial solution
+     */
+    public ExternalMemoryAStar(Path tempDirectory, int segmentSize) {
+        this(SolverContext.global(), tempDirectory, segmentSize);
+    }
+
+    /**
+     * @param context       the problem to solve
+     * @param tempDirectory the directory to create the segment files in, in a directory of their own
+     * @param segmentSize   the size of a segment file in bytes, it holds at least one partial solution
+     */
+    public ExternalMemoryAStar(SolverContext context, Path tempDirectory, int segmentSize) {
+        this(context, tempDirectory, segmentSize, SearchLimit.none());
+    }
+
+    /**
+     * @param context       the problem to solve
+     * @param tempDirectory the directory to create the segment files in, in a directory of their own
+     * @param segmentSize   the size of a segment file in bytes, it holds at least one partial solution
+     * @param searchLimit   the deadline and cancellation token checked by the search and by `AStarUtil` before it
+     */
+    public ExternalMemoryAStar(SolverContext context, Path tempDirectory, int segmentSize, SearchLimit searchLimit) {
+        super(context, searchLimit);
+        this.tempDirectory = tempDirectory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return the number of bytes of partial solutions written to segment files by the last search
+     */
+    public long getNumOfSpilledBytes() {
+        return numOfSpilledBytes;
+    }
+
+    /**
+     * @return the number of segment files created by the last search
+     */
+    public long getNumOfSegments() {
+        return numOfSegments;
+    }
+
+    /**
+     * Find the optimal schedule, starting from the schedule of `AStarUtil` as the incumbent.
+     *
+     * @return the partial solution that contains the best schedule, or the best one found before the search limit
+     * was reached, see `getStatus`
+     * @throws UncheckedIOException if a segment file can not be written
+     */
+    public PartialSolution build() {
+        PartialSolution root = new PartialSolution(getContext());
+        int numOfTasks = getContext().getProblem().getNumOfTasks();
+        if (numOfTasks == 0) {
+            return root;
+        }
+        recordSize = PartialSolution.getRecordSize(getContext());
+        recordsPerSegment = Math.max(segmentSize / recordSize, 1);
+        numOfSpilledBytes = 0;
+        numOfSegments = 0;
+        numOfExpansions = 0;
+        setStatus(SearchStatus.OPTIMAL);
+        buckets = new TreeMap<>();
+        incumbent = getUpperBoundSolution();
+        getContext().setMinimumGuessCost(incumbent.calculateEndScheduleTime());
+
+        try {
+            spillDirectory = Files.createTempDirectory(tempDirectory, "frontier");
+            add(root, (int) Math.ceil(root.getCostFunction()));
+
+            while (!buckets.isEmpty() && getStatus() == SearchStatus.OPTIMAL) {
+                Map.Entry<Integer, Bucket[]> lowest = buckets.firstEntry();
+                if (lowest.getKey() >= incumbent.calculateEndScheduleTime()) {
+                    break;
+                }
+                Bucket bucket = findDeepestBucket(lowest.getValue());
+                if (bucket == null) {
+                    buckets.remove(lowest.getKey());
+                    continue;
+                }
+                expand(lowest.getKey(), bucket);
+            }
+            return incumbent;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteSpillDirectory();
+        }
+    }
+
+    /**
+     * Expand the partial solutions in the segments of the bucket, the ones added to it in the meantime are left for
+     * the next call. If the search limit is reached, the segments that have not been read are put back.
+     *
+     * @param costFunction the cost function of the bucket
+     * @param bucket       the bucket
+     */
+    private void expand(int costFunction, Bucket bucket) throws IOException {
+        List<Segment> segments = bucket.segments;
+        bucket.segments = new ArrayList<>();
+        for (int s = 0; s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            for (int i = 0; i < segment.numOfRecords; i++) {
+                // the incumbent may have improved since the partial solution was written.
+                if (costFunction >= incumbent.calculateEndScheduleTime()) {
+                    break;
+                }
+                if (getSearchLimit().isReached(++numOfExpansions)) {
+                    setStatus(getSearchLimit().getStopStatus());
+                    // so they are deleted with the rest of the spill directory.
+                    bucket.segments.addAll(segments.subList(s, segments.size()));
+                    return;
+                }
+                PartialSolution prev = PartialSolution.readFrom(getContext(), segment.buffer, i * recordSize);
+                if (!bucket.expanded.add(prev.calculateFingerprint())) {
+                    countDuplicate();
+                    continue;
+                }
+                setCurrentSolution(prev);
+                countExpandedState();
+                for (int task : getTasksToExpand(prev)) {
+                    for (PartialSolution partialSolution : prev.getNextPartialSolution(task)) {
+                        int childCostFunction = Math.max(costFunction,
+                                (int) Math.ceil(partialSolution.getCostFunction()));
+                        if (partialSolution.getNumOfScheduledTasks() == getContext().getProblem().getNumOfTasks()) {
+                            offerCompleteSolution(partialSolution);
+                        } else if (childCostFunction < incumbent.calculateEndScheduleTime()) {
+                            add(partialSolution, childCostFunction);
+                        }
+                    }
+                }
+            }
+            segment.delete();
+        }
+    }
+
+    /**
+     * Append the partial solution to the last segment of its bucket.
+     */
+    private void add(PartialSolution partialSolution, int costFunction) throws IOException {
+        Bucket[] bucketsByDepth = buckets.computeIfAbsent(costFunction,
+                key -> new Bucket[getContext().getProblem().getNumOfTasks()]);
+        int depth = partialSolution.getNumOfScheduledTasks();
+        if (bucketsByDepth[depth] == null) {
+            bucketsByDepth[depth] = new Bucket();
+        }
+        List<Segment> segments = bucketsByDepth[depth].segments;
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.numOfRecords == recordsPerSegment) {
+            segment = new Segment();
+            segments.add(segment);
+        }
+        partialSolution.writeTo(segment.buffer, segment.numOfRecords++ * recordSize);
+        numOfSpilledBytes += recordSize;
+    }
+
+    /**
+     * @return the bucket with the most scheduled tasks that has partial solutions, or null if there is none
+     */
+    private Bucket findDeepestBucket(Bucket[] bucketsByDepth) {
+        for (int depth = bucketsByDepth.length - 1; depth >= 0; depth--) {
+            if (bucketsByDepth[depth] != null && !bucketsByDepth[depth].segments.isEmpty()) {
+                return bucketsByDepth[depth];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace the incumbent with the complete schedule if it is better, and drop the buckets that can not beat it.
+     *
+     * @param solution a complete schedule
+     */
+    private void offerCompleteSolution(PartialSolution solution) {
+        if (solution.calculateEndScheduleTime() >= incumbent.calculateEndScheduleTime()) {
+            return;
+        }
+        incumbent = solution;
+        // let `getNextPartialSolution` prune against the new incumbent as well.
+        getContext().setMinimumGuessCost(solution.calculateEndScheduleTime());
+        Map<Integer, Bucket[]> worseBuckets = buckets.tailMap(solution.calculateEndScheduleTime(), true);
+        for (Bucket[] bucketsByDepth : worseBuckets.values()) {
+            deleteSegments(bucketsByDepth);
+        }
+        worseBuckets.clear();
+    }
+
+    private void deleteSegments(Bucket[] bucketsByDepth) {
+        for (Bucket bucket : bucketsByDepth) {
+            if (bucket != null) {
+                for (Segment segment : bucket.segments) {
+                    segment.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * helper method to delete the segment files left by the search and their directory.
+     */
+    private void deleteSpillDirectory() {
+        if (buckets != null) {
+            for (Bucket[] bucketsByDepth : buckets.values()) {
+                deleteSegments(bucketsByDepth);
+            }
+            buckets = null;
+        }
+        if (spillDirectory != null) {
+            try {
+                Files.deleteIfExists(spillDirectory);
+            } catch (IOException e) {
+                System.err.println(spillDirectory + ": " + e.getMessage());
+            }
+            spillDirectory = null;
+        }
+    }
+
+    /**
+     * The partial solutions with the same cost function and number of scheduled tasks.
+     */
+    private class Bucket {
+
+        private List<Segment> segments = new ArrayList<>();
+        // fingerprints of the partial solutions expanded from this bucket.
+        private final ClosedSet expanded = createClosedSet();
+    }
+
+    /**
+     * A memory mapped segment file of records.
+     */
+    private class Segment {
+
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int numOfRecords;
+
+        Segment() throws IOException {
+            file = spillDirectory.resolve("segment-" + nextSegmentId++);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the mapping stays valid after the channel is closed.
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * recordSize);
+            }
+            buffer.order(ByteOrder.nativeOrder());
+            numOfSegments++;
+        }
+
+        /**
+         * Delete the file, its disk space is freed once the mapping is garbage collected.
+         */
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println(file + ": " + e.getMessage());
+            }
+        }
+    }
+}
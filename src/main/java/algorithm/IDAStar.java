@@ -0,0 +1,186 @@
+package algorithm;
+
+import models.SchedulingProblem;
+
+/**
+ * Iterative deepening A star algorithm.
+ * It uses the same cost function as A star, but instead of keeping every partial solution in a priority queue it
+ * carries out depth first searches that only expand partial solutions whose cost function is within a threshold,
+ * raising the threshold after each iteration. A single partial solution is scheduled/unscheduled in place,
+ * so the memory used is O(number of tasks), plus an optional fixed-size transposition table that skips partial
+ * solutions which have already been searched in the current iteration.
+ * Complete schedules are only found in the last iteration, so a search stopped by its search limit returns the upper
+ * bound schedule.
+ */
+public class IDAStar {
+
+    public static final int DEFAULT_TRANSPOSITION_TABLE_CAPACITY = 1 << 20;
+
+    private int transpositionTableCapacity = DEFAULT_TRANSPOSITION_TABLE_CAPACITY;
+    private ClosedSet transpositionTable;
+    private PartialSolution state;
+    private PartialSolution bestPartialSolution;
+    private final PartialSolution upperBoundSolution;
+    private double nextThreshold;
+    private long numOfExpandedStates;
+    private long numOfFixedTaskOrderStates;
+
+    private final SolverContext context;
+    private final SearchLimit searchLimit;
+    private SearchStatus status = SearchStatus.OPTIMAL;
+
+    public IDAStar() {
+        this(SolverContext.global());
+    }
+
+    /**
+     * @param context the problem to solve
+     */
+    public IDAStar(SolverContext context) {
+        this(context, SearchLimit.none());
+    }
+
+    /**
+     * @param context     the problem to solve
+     * @param searchLimit the deadline and cancellation token checked by the search and by `AStarUtil` before it
+     */
+    public IDAStar(SolverContext context, SearchLimit searchLimit) {
+        this.context = context;
+        this.searchLimit = searchLimit;
+        // pre-calculate an upper bound, the same way as A star does.
+        upperBoundSolution = new AStarUtil(context, searchLimit).getBestPartialSolution();
+    }
+
+    /**
+     * @return OPTIMAL if the last search ran to the end, otherwise why it was stopped by the search limit
+     */
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    public long getNumOfExpandedStates() {
+        return numOfExpandedStates;
+    }
+
+    /**
+     * @return the number of partial solutions whose available tasks were expanded in a fixed task order
+     */
+    public long getNumOfFixedTaskOrderStates() {
+        return numOfFixedTaskOrderStates;
+    }
+
+    /**
+     * @param transpositionTableCapacity the max number of partial solution fingerprints remembered in each
+     *                                   iteration, 0 disables the transposition table
+     */
+    public void setTranspositionTableCapacity(int transpositionTableCapacity) {
+        this.transpositionTableCapacity = transpositionTableCapacity;
+    }
+
+    /**
+     * Find the optimal schedule by repeating the threshold-bounded depth first search, or the upper bound schedule
+     * if no schedule within the minimum guess cost is found or the search limit is reached first.
+     *
+     * @return the partial solution that contains the best schedule
+     */
+    public PartialSolution build() {
+        SchedulingProblem problem = context.getProblem();
+        state = new PartialSolution(context);
+        bestPartialSolution = null;
+        status = SearchStatus.OPTIMAL;
+        if (problem.getNumOfTasks() == 0) {
+            return state;
+        }
+
+        // the critical path and the perfect load balance are both lower bounds of any schedule.
+        double threshold = problem.getLowerBound(context.getNumOfProcessors());
+
+        while (true) {
+            nextThreshold = Double.MAX_VALUE;
+            // a partial solution that has been searched in this iteration can be skipped, but not in the next one.
+            transpositionTable = transpositionTableCapacity > 0 ? new ClosedSet(transpositionTableCapacity, true) : null;
+            if (search(threshold, false)) {
+                transpositionTable = null;
+                return bestPartialSolution;
+            }
+            transpositionTable = null;
+            if (status != SearchStatus.OPTIMAL) {
+                return upperBoundSolution;
+            }
+            // all schedules finish at an integer time, so the threshold can be rounded up.
+            threshold = Math.ceil(nextThreshold);
+            // partial solutions above the minimum guess cost are pruned whatever the threshold, so once it is
+            // exceeded no schedule beats the upper bound.
+            if (threshold > context.getMinimumGuessCost()) {
+                return upperBoundSolution;
+            }
+        }
+    }
+
+    /**
+     * Depth first search from the current state, only expanding partial solutions whose cost function
+     * is not greater than the threshold.
+     *
+     * @param threshold         the max cost function of the partial solutions to expand in this iteration
+     * @param commutingPruning  whether tasks that commute with the last task may be pruned, which is not the case
+     *                          if the tasks of the previous state were restricted to a fixed task order
+     * @return true if a complete schedule within the threshold has been found, and saved to bestPartialSolution,
+     * false if there is none or the search limit has been reached
+     */
+    private boolean search(double threshold, boolean commutingPruning) {
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        if (state.getNumOfScheduledTasks() == numOfTasks) {
+            // the cost function of a complete schedule is its finish time.
+            bestPartialSolution = state.copy();
+            return true;
+        }
+        if (searchLimit.isReached(++numOfExpandedStates)) {
+            status = searchLimit.getStopStatus();
+            return false;
+        }
+
+        SchedulingProblem problem = context.getProblem();
+        // scheduling the task on any of the empty processors is the same, so only try the first one.
+        int maxProcessor = state.getMaxCanonicalProcessor();
+        int lastTask = state.getNumOfScheduledTasks() == 0 || !commutingPruning ? -1 : state.getLastScheduledTask();
+        int lastProcessor = lastTask == -1 ? 0 : state.getProcessorId(lastTask);
+
+        int[] tasks = state.getAvailableNextTasks();
+        // if the available tasks have a fixed task order, only the first one needs to be searched.
+        int fixedOrderTask = state.findFixedOrderTask(tasks);
+        if (fixedOrderTask != -1) {
+            numOfFixedTaskOrderStates++;
+            tasks = new int[]{fixedOrderTask};
+        }
+        for (int task : tasks) {
+            // the task was already available before the last task was scheduled, unless it is a child of the last
+            // task. in that case, scheduling them on different processors in either order gives the same schedule,
+            // so only the order in which the task with the lower index comes first is searched.
+            boolean commutesWithLastTask = lastTask > task && problem.getEdgeCost(lastTask, task) == -1;
+            for (int p = 1; p <= maxProcessor; p++) {
+                if (commutesWithLastTask && p != lastProcessor) {
+                    continue;
+                }
+
+                state.schedule(task, p);
+                double costFunction = state.getCostFunction();
+                boolean found = false;
+                if (costFunction <= threshold && costFunction <= context.getMinimumGuessCost()) {
+                    if (transpositionTable == null || transpositionTable.add(state.calculateFingerprint())) {
+                        found = search(threshold, fixedOrderTask == -1);
+                    }
+                } else {
+                    nextThreshold = Math.min(nextThreshold, costFunction);
+                }
+                state.unschedule();
+                if (found) {
+                    return true;
+                }
+                if (status != SearchStatus.OPTIMAL) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+package algorithm;
+
+import models.SchedulingProblem;
+
+import java.util.Random;
+
+/**
+ * Constructive list scheduling heuristics, which build a single complete schedule in O(number of tasks^2) time.
+ * They are used to find a good upper bound quickly before the optimal search starts (see `AStarUtil`).
+ * Each heuristic repeatedly picks one of the tasks whose parents have all been scheduled and puts it on the processor
+ * where it can start the earliest, they only differ in the order the tasks are picked.
+ */
+public class ListScheduling {
+
+    /**
+     * Schedule the task with the highest priority first.
+     *
+     * @param context    the problem to schedule
+     * @param priorities priority of every task, indexed by task
+     * @param random     used to break ties between tasks and between processors randomly, or null to break ties
+     *                   by the lowest index
+     * @return the complete schedule
+     */
+    public static PartialSolution byPriority(SolverContext context, double[] priorities, Random random) {
+        PartialSolution state = new PartialSolution(context);
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        while (state.getNumOfScheduledTasks() < numOfTasks) {
+            int bestTask = -1;
+            int numOfTies = 0;
+            for (int task : state.getAvailableNextTasks()) {
+                if (bestTask == -1 || priorities[task] > priorities[bestTask]) {
+                    bestTask = task;
+                    numOfTies = 1;
+                } else if (priorities[task] == priorities[bestTask] && random != null
+                        && random.nextInt(++numOfTies) == 0) {
+                    bestTask = task;
+                }
+            }
+            state.schedule(bestTask, findEarliestProcessor(state, bestTask, random));
+        }
+        return state;
+    }
+
+    /**
+     * Earliest start time first, i.e. schedule the task that can start the earliest on any processor,
+     * breaking ties by the larger bottom level.
+     *
+     * @param context the problem to schedule
+     * @return the complete schedule
+     */
+    public static PartialSolution earliestStartTime(SolverContext context) {
+        SchedulingProblem problem = context.getProblem();
+        PartialSolution state = new PartialSolution(context);
+        int numOfTasks = problem.getNumOfTasks();
+        while (state.getNumOfScheduledTasks() < numOfTasks) {
+            int bestTask = -1;
+            int bestProcessor = 0;
+            int bestStartTime = Integer.MAX_VALUE;
+            for (int task : state.getAvailableNextTasks()) {
+                int processorId = findEarliestProcessor(state, task, null);
+                int startTime = state.calculateStartingTime(task, processorId);
+                if (startTime < bestStartTime || (startTime == bestStartTime
+                        && problem.getBottomLevel(task) > problem.getBottomLevel(bestTask))) {
+                    bestTask = task;
+                    bestProcessor = processorId;
+                    bestStartTime = startTime;
+                }
+            }
+            state.schedule(bestTask, bestProcessor);
+        }
+        return state;
+    }
+
+    /**
+     * helper method to find the processor the task can start the earliest on.
+     */
+    private static int findEarliestProcessor(PartialSolution state, int task, Random random) {
+        int bestProcessor = 0;
+        int bestStartTime = Integer.MAX_VALUE;
+        int numOfTies = 0;
+        for (int p = 1; p <= state.getMaxCanonicalProcessor(); p++) {
+            int startTime = state.calculateStartingTime(task, p);
+            if (startTime < bestStartTime) {
+                bestProcessor = p;
+                bestStartTime = startTime;
+                numOfTies = 1;
+            } else if (startTime == bestStartTime && random != null && random.nextInt(++numOfTies) == 0) {
+                bestProcessor = p;
+            }
+        }
+        return bestProcessor;
+    }
+
+    /**
+     * @param context the problem to schedule
+     * @return the bottom level of every task, ignoring communication costs
+     */
+    public static double[] bottomLevels(SolverContext context) {
+        SchedulingProblem problem = context.getProblem();
+        double[] result = new double[problem.getNumOfTasks()];
+        for (int task = 0; task < result.length; task++) {
+            result[task] = problem.getBottomLevel(task);
+        }
+        return result;
+    }
+
+    /**
+     * The upward rank of HEFT, i.e. the length of the longest path from the start of the task to the end of the
+     * graph, including communication costs.
+     *
+     * @param context the problem to schedule
+     * @return the upward rank of every task
+     */
+    public static double[] upwardRanks(SolverContext context) {
+        SchedulingProblem problem = context.getProblem();
+        int[] order = problem.getTopologicalOrder();
+        int[] children = problem.getChildren();
+        int[] childEdgeCosts = problem.getChildEdgeCosts();
+        double[] result = new double[problem.getNumOfTasks()];
+        for (int i = order.length - 1; i >= 0; i--) {
+            int task = order[i];
+            double maxChildRank = 0;
+            for (int j = problem.getChildrenStart(task); j < problem.getChildrenEnd(task); j++) {
+                maxChildRank = Math.max(maxChildRank, childEdgeCosts[j] + result[children[j]]);
+            }
+            result[task] = problem.getWeight(task) + maxChildRank;
+        }
+        return result;
+    }
+
+    /**
+     * Critical path first, tasks on the longest path through the graph (including communication costs) get the
+     * highest priority, i.e. the priority is the top level plus the upward rank of the task.
+     *
+     * @param context the problem to schedule
+     * @return the priority of every task
+     */
+    public static double[] criticalPathPriorities(SolverContext context) {
+        SchedulingProblem problem = context.getProblem();
+        int[] order = problem.getTopologicalOrder();
+        int[] parents = problem.getParents();
+        int[] parentEdgeCosts = problem.getParentEdgeCosts();
+        double[] result = upwardRanks(context);
+        double[] topLevels = new double[result.length];
+        for (int task : order) {
+            for (int j = problem.getParentsStart(task); j < problem.getParentsEnd(task); j++) {
+                int parent = parents[j];
+                topLevels[task] = Math.max(topLevels[task],
+                        topLevels[parent] + problem.getWeight(parent) + parentEdgeCosts[j]);
+            }
+        }
+        for (int task = 0; task < result.length; task++) {
+            result[task] += topLevels[task];
+        }
+        return result;
+    }
+}
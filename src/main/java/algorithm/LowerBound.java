@@ -0,0 +1,83 @@
+package algorithm;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The lower bounds of the makespan that `PartialSolution` takes the max of as its cost function.
+ * Which ones are used is a global setting, it has to be set before a search starts and must not change during it.
+ */
+public enum LowerBound {
+
+    // the sum of the weights plus the idle time so far, spread over all processors.
+    IDLE_TIME("idle"),
+    // the max starting time plus bottom level of the scheduled tasks.
+    BOTTOM_LEVEL("bl"),
+    // the bottom level plus starting time of the available task that can start the earliest.
+    FUTURE_BOTTOM_LEVEL("fbl"),
+    // the max over the available tasks of their earliest starting time on any processor plus their bottom level,
+    // this is never lower than FUTURE_BOTTOM_LEVEL, so the latter is not calculated when both are used.
+    DATA_READY_TIME("drt");
+
+    private static volatile EnumSet<LowerBound> enabled = EnumSet.of(IDLE_TIME, BOTTOM_LEVEL, DATA_READY_TIME);
+
+    private final String name;
+
+    LowerBound(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return whether the cost function uses this lower bound
+     */
+    public boolean isEnabled() {
+        return enabled.contains(this);
+    }
+
+    /**
+     * @param lowerBounds the lower bounds the cost function uses from now on
+     */
+    public static void setEnabled(Set<LowerBound> lowerBounds) {
+        EnumSet<LowerBound> result = EnumSet.noneOf(LowerBound.class);
+        result.addAll(lowerBounds);
+        enabled = result;
+    }
+
+    /**
+     * @return the lower bounds the cost function uses
+     */
+    public static Set<LowerBound> getEnabled() {
+        return EnumSet.copyOf(enabled);
+    }
+
+    /**
+     * @param names comma separated names of lower bounds, e.g. "idle,bl,drt"
+     * @return the lower bounds
+     * @throws IllegalArgumentException if a name is unknown
+     */
+    public static Set<LowerBound> parse(String names) {
+        Set<LowerBound> result = EnumSet.noneOf(LowerBound.class);
+        for (String name : names.split(",")) {
+            String trimmed = name.trim().toLowerCase();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            LowerBound lowerBound = null;
+            for (LowerBound candidate : values()) {
+                if (candidate.name.equals(trimmed)) {
+                    lowerBound = candidate;
+                }
+            }
+            if (lowerBound == null) {
+                throw new IllegalArgumentException("Unknown lower bound: " + trimmed);
+            }
+            result.add(lowerBound);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
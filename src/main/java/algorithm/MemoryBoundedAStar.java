@@ -0,0 +1,298 @@
+package algorithm;
+
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Memory bounded A star in the style of SMA star. The search tree is kept in memory with parent links, and once it
+ * holds more partial solutions than the budget, the leaf with the highest cost function is evicted. Its cost function
+ * is backed up to its parent, which keeps the cost function of every forgotten child and goes back into the open set
+ * with the lowest one, so the forgotten children are regenerated, with their backed up cost functions, once they are
+ * the most promising again. A parent whose
+ * children have all been forgotten becomes a leaf again, with the backed up cost function.
+ * Children get at least the cost function of their parent (pathmax), so the cost function of every leaf stays a lower
+ * bound of all schedules below it, and the first complete schedule taken from the open set is optimal.
+ * Duplicates are only dropped while the other copy is in memory, as the copy that is kept covers the same schedules.
+ * Partial solutions without children, because all of them were pruned or are covered by copies, are remembered in a
+ * lossy closed set, so they are not expanded again when another path leads to them.
+ */
+public class MemoryBoundedAStar extends AStar {
+
+    // a rough estimate of the memory used by a node besides its partial solution, i.e. the node itself and its entries
+    // in the open set, the leaf set and the fingerprint map.
+    private static final long NODE_OVERHEAD_BYTES = 200;
+    // the number of dead end fingerprints remembered per partial solution in the budget, a fingerprint is only a long.
+    private static final int DEAD_ENDS_PER_STATE = 4;
+
+    private final long maxNumOfStates;
+    private long numOfStates;
+    private long peakNumOfStates;
+    private long numOfEvictedStates;
+    private long nextNodeId;
+
+    // nodes with children to (re)generate, by the lowest cost function among them.
+    private TreeSet<SearchNode> openSet;
+    // nodes without children in memory, which are the ones that can be evicted.
+    private TreeSet<SearchNode> leaves;
+    private Map<Long, SearchNode> nodesInMemory;
+    private ClosedSet deadEnds;
+
+    /**
+     * @param maxNumOfStates the max number of partial solutions kept in memory, the search needs at least as many as
+     *                       one path from the root to a complete schedule plus the children of its partial solutions,
+     *                       it goes over the budget rather than failing if that is not the case
+     */
+    public MemoryBoundedAStar(long maxNumOfStates) {
+        this(SolverContext.global(), maxNumOfStates);
+    }
+
+    /**
+     * @param context        the problem to solve
+     * @param maxNumOfStates the max number of partial solutions kept in memory
+     */
+    public MemoryBoundedAStar(SolverContext context, long maxNumOfStates) {
+        this(context, maxNumOfStates, SearchLimit.none());
+    }
+
+    /**
+     * @param context        the problem to solve
+     * @param maxNumOfStates the max number of partial solutions kept in memory
+     * @param searchLimit    the deadline and cancellation token checked by the search and by `AStarUtil` before it
+     */
+    public MemoryBoundedAStar(SolverContext context, long maxNumOfStates, SearchLimit searchLimit) {
+        super(context, searchLimit);
+        this.maxNumOfStates = Math.max(maxNumOfStates, 1);
+    }
+
+    /**
+     * @param context       the problem to solve
+     * @param maxNumOfBytes the memory the partial solutions of the search may use
+     * @return the number of partial solutions of the graph that fit in the memory
+     */
+    public static long numOfStatesWithin(SolverContext context, long maxNumOfBytes) {
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        int numOfProcessors = context.getNumOfProcessors();
+        // path, starting times, in-degrees and data arrivals are ints, processor ids are shorts, plus object headers.
+        long bytesPerState = NODE_OVERHEAD_BYTES + 100 + numOfTasks * (4L + 4 + 4 + 2 + 12) + numOfProcessors * 4L;
+        return Math.max(maxNumOfBytes / bytesPerState, 1);
+    }
+
+    /**
+     * @return the max number of partial solutions that were in memory at the same time during the last search
+     */
+    public long getPeakNumOfStates() {
+        return peakNumOfStates;
+    }
+
+    /**
+     * @return the number of partial solutions evicted during the last search
+     */
+    public long getNumOfEvictedStates() {
+        return numOfEvictedStates;
+    }
+
+    /**
+     * Find the optimal schedule within the memory budget.
+     *
+     * @return the partial solution that contains the best schedule, or the schedule from `AStarUtil` if no schedule
+     * beats it or the search limit is reached first, see `getStatus`
+     */
+    public PartialSolution build() {
+        Comparator<SearchNode> byCostFunction = Comparator.comparingDouble((SearchNode node) -> node.openCostFunction)
+                // prefer the deeper node, it is closer to a complete schedule, so the shallower one is evicted first.
+                .thenComparing(node -> -node.partialSolution.getNumOfScheduledTasks())
+                .thenComparingLong(node -> node.id);
+        openSet = new TreeSet<>(byCostFunction);
+        leaves = new TreeSet<>(byCostFunction);
+        nodesInMemory = new HashMap<>();
+        deadEnds = new ClosedSet((int) Math.min(maxNumOfStates * DEAD_ENDS_PER_STATE, ClosedSet.DEFAULT_CAPACITY), true);
+        numOfStates = 0;
+        peakNumOfStates = 0;
+        numOfEvictedStates = 0;
+        setStatus(SearchStatus.OPTIMAL);
+
+        int numOfTasks = getContext().getProblem().getNumOfTasks();
+        PartialSolution root = new PartialSolution(getContext());
+        if (numOfTasks == 0) {
+            return root;
+        }
+        addLeaf(new SearchNode(root, null, root.calculateFingerprint(), 0));
+
+        long numOfExpansions = 0;
+        while (!openSet.isEmpty()) {
+            // the first complete schedule taken from the open set is the only one found, so there is no better
+            // incumbent than the upper bound.
+            if (getSearchLimit().isReached(++numOfExpansions)) {
+                setStatus(getSearchLimit().getStopStatus());
+                return getUpperBoundSolution();
+            }
+            SearchNode node = openSet.pollFirst();
+            if (node.partialSolution.getNumOfScheduledTasks() == numOfTasks) {
+                return node.partialSolution;
+            }
+            setCurrentSolution(node.partialSolution);
+            countExpandedState();
+            expand(node);
+            evictUntilWithinBudget();
+        }
+        // every partial solution was pruned by the minimum guess cost, so nothing beats the upper bound.
+        return getUpperBoundSolution();
+    }
+
+    /**
+     * (Re)generate the children of the node that are not in memory, its forgotten children are all regenerated.
+     */
+    private void expand(SearchNode node) {
+        leaves.remove(node);
+        Map<Long, Double> forgottenChildren = node.forgottenChildren;
+        node.forgottenChildren = null;
+        node.forgottenCostFunction = Double.POSITIVE_INFINITY;
+
+        int numOfTasks = getContext().getProblem().getNumOfTasks();
+        for (int task : getTasksToExpand(node.partialSolution)) {
+            for (PartialSolution partialSolution : node.partialSolution.getNextPartialSolution(task)) {
+                long fingerprint = partialSolution.calculateFingerprint();
+                SearchNode inMemory = nodesInMemory.get(fingerprint);
+                if (inMemory != null && inMemory.parent == node) {
+                    // a child that was not forgotten, regenerated along with the forgotten ones, it is no duplicate.
+                    continue;
+                }
+                if (inMemory != null || deadEnds.contains(fingerprint)) {
+                    countDuplicate();
+                    continue;
+                }
+                double costFunction;
+                if (partialSolution.getNumOfScheduledTasks() == numOfTasks) {
+                    costFunction = partialSolution.calculateEndScheduleTime();
+                } else {
+                    costFunction = Math.max(partialSolution.getCostFunction(), node.costFunction);
+                    if (forgottenChildren != null) {
+                        costFunction = Math.max(costFunction,
+                                forgottenChildren.getOrDefault(fingerprint, Double.NEGATIVE_INFINITY));
+                    }
+                }
+                node.numOfChildren++;
+                addLeaf(new SearchNode(partialSolution, node, fingerprint, costFunction));
+            }
+        }
+
+        if (node.numOfChildren == 0) {
+            // every child was pruned or is covered by a copy in memory.
+            removeDeadEnd(node);
+        }
+    }
+
+    /**
+     * Add a node that has not been expanded to memory.
+     */
+    private void addLeaf(SearchNode node) {
+        node.openCostFunction = node.costFunction;
+        openSet.add(node);
+        leaves.add(node);
+        nodesInMemory.put(node.fingerprint, node);
+        numOfStates++;
+        peakNumOfStates = Math.max(peakNumOfStates, numOfStates);
+    }
+
+    /**
+     * Remove a node without children in memory, nor forgotten ones, as well as its ancestors that are left without
+     * children because of it.
+     */
+    private void removeDeadEnd(SearchNode node) {
+        while (node != null) {
+            openSet.remove(node);
+            leaves.remove(node);
+            forget(node);
+            deadEnds.add(node.fingerprint);
+            SearchNode parent = node.parent;
+            if (parent == null || --parent.numOfChildren > 0) {
+                return;
+            }
+            if (parent.forgottenCostFunction != Double.POSITIVE_INFINITY) {
+                becomeLeaf(parent);
+                return;
+            }
+            node = parent;
+        }
+    }
+
+    /**
+     * Evict the worst leaves until the number of partial solutions in memory is within the budget.
+     */
+    private void evictUntilWithinBudget() {
+        while (numOfStates > maxNumOfStates) {
+            SearchNode worst = leaves.last();
+            // the root and the node that is expanded next have to stay.
+            if (worst.parent == null || worst == openSet.first()) {
+                return;
+            }
+            leaves.remove(worst);
+            openSet.remove(worst);
+            forget(worst);
+            numOfEvictedStates++;
+
+            SearchNode parent = worst.parent;
+            // the forgotten child is regenerated through its parent, so back its cost function up.
+            openSet.remove(parent);
+            if (parent.forgottenChildren == null) {
+                parent.forgottenChildren = new HashMap<>();
+            }
+            parent.forgottenChildren.put(worst.fingerprint, worst.costFunction);
+            parent.forgottenCostFunction = Math.min(parent.forgottenCostFunction, worst.costFunction);
+            if (--parent.numOfChildren == 0) {
+                becomeLeaf(parent);
+            } else {
+                parent.openCostFunction = parent.forgottenCostFunction;
+                openSet.add(parent);
+            }
+        }
+    }
+
+    /**
+     * Turn a node whose children have all been forgotten back into a leaf, with the lowest cost function among them,
+     * the cost functions of its forgotten children are kept until it is expanded again.
+     */
+    private void becomeLeaf(SearchNode node) {
+        openSet.remove(node);
+        node.costFunction = Math.max(node.costFunction, node.forgottenCostFunction);
+        node.forgottenCostFunction = Double.POSITIVE_INFINITY;
+        node.openCostFunction = node.costFunction;
+        openSet.add(node);
+        leaves.add(node);
+    }
+
+    private void forget(SearchNode node) {
+        nodesInMemory.remove(node.fingerprint, node);
+        numOfStates--;
+    }
+
+    /**
+     * A partial solution in the search tree.
+     */
+    private class SearchNode {
+
+        private final long id = nextNodeId++;
+        private final PartialSolution partialSolution;
+        private final SearchNode parent;
+        private final long fingerprint;
+        // lower bound of every schedule below this node.
+        private double costFunction;
+        // the lowest cost function of the children that have been evicted, infinity if there are none.
+        private double forgottenCostFunction = Double.POSITIVE_INFINITY;
+        // the cost functions of the children that have been evicted by their fingerprints, null if there are none.
+        private Map<Long, Double> forgottenChildren;
+        // the key of the node in the open set and the leaf set.
+        private double openCostFunction;
+        private int numOfChildren;
+
+        SearchNode(PartialSolution partialSolution, SearchNode parent, long fingerprint, double costFunction) {
+            this.partialSolution = partialSolution;
+            this.parent = parent;
+            this.fingerprint = fingerprint;
+            this.costFunction = costFunction;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A relaxed concurrent priority queue of partial solutions shared by all workers (a MultiQueue). It is made of a few
+ * sequential open queues per worker, each behind its own lock. A partial solution is offered to a random queue, and
+ * a poll takes the best of two random queues, judged by the cost function at the top of each, which is published
+ * so it can be read without locking. It is lock-based, not lock-free: every offer and poll holds the lock of one
+ * queue, but only takes it with `tryLock`, and a worker that finds a queue locked picks another one instead of
+ * waiting, so the workers rarely block each other, and the partial solutions polled are close to the best ones in the
+ * whole queue.
+ */
+public class MultiQueue {
+
+    // the number of sequential queues per worker, more queues mean less contention but a more relaxed order.
+    private static final int QUEUES_PER_THREAD = 2;
+    private static final long EMPTY = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+    private final List<Queue<PartialSolution>> queues;
+    private final ReentrantLock[] locks;
+    // the cost function at the top of every queue, infinity if it is empty.
+    private final AtomicLongArray topCostFunctions;
+
+    /**
+     * @param numOfThread the number of workers sharing the queue
+     * @param openQueues  creates the sequential queues, which poll the partial solution with the lowest cost
+     *                    function first
+     */
+    public MultiQueue(int numOfThread, Supplier<Queue<PartialSolution>> openQueues) {
+        int numOfQueues = Math.max(numOfThread, 1) * QUEUES_PER_THREAD;
+        queues = new ArrayList<>(numOfQueues);
+        locks = new ReentrantLock[numOfQueues];
+        topCostFunctions = new AtomicLongArray(numOfQueues);
+        for (int i = 0; i < numOfQueues; i++) {
+            queues.add(openQueues.get());
+            locks[i] = new ReentrantLock();
+            topCostFunctions.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Add the partial solution to a random queue that is not locked.
+     *
+     * @param partialSolution the partial solution to add
+     */
+    public void offer(PartialSolution partialSolution) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(queues.size());
+            if (locks[i].tryLock()) {
+                try {
+                    queues.get(i).offer(partialSolution);
+                    updateTop(i);
+                    return;
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove one of the best partial solutions, the better top of two random queues.
+     *
+     * @return the partial solution, or null if all queues are empty
+     */
+    public PartialSolution poll() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(queues.size());
+            int j = random.nextInt(queues.size());
+            if (topCostFunction(j) < topCostFunction(i)) {
+                i = j;
+            }
+            if (topCostFunctions.get(i) == EMPTY) {
+                // both are empty, look for any queue that is not.
+                i = findNonEmptyQueue();
+                if (i == -1) {
+                    return null;
+                }
+            }
+            if (locks[i].tryLock()) {
+                try {
+                    PartialSolution partialSolution = queues.get(i).poll();
+                    if (partialSolution != null) {
+                        updateTop(i);
+                        return partialSolution;
+                    }
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether all queues looked empty at the time they were checked
+     */
+    public boolean isEmpty() {
+        return findNonEmptyQueue() == -1;
+    }
+
+    private double topCostFunction(int i) {
+        return Double.longBitsToDouble(topCostFunctions.get(i));
+    }
+
+    /**
+     * @return the index of a queue that is not empty, or -1 if there is none
+     */
+    private int findNonEmptyQueue() {
+        for (int i = 0; i < queues.size(); i++) {
+            if (topCostFunctions.get(i) != EMPTY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Publish the cost function at the top of the queue, it must be locked by the current thread.
+     */
+    private void updateTop(int i) {
+        topCostFunctions.set(i, Double.doubleToLongBits(peekCostFunction(queues.get(i))));
+    }
+
+    /**
+     * @param queue a sequential open queue
+     * @return the cost function at the top of the queue, or infinity if it is empty. It is read from the index of a
+     * queue off the heap, so no partial solution is deserialized.
+     */
+    private static double peekCostFunction(Queue<PartialSolution> queue) {
+        if (queue instanceof SpillingOpenList) {
+            return ((SpillingOpenList) queue).peekCostFunction();
+        }
+        if (queue instanceof OffHeapOpenList) {
+            return ((OffHeapOpenList) queue).peekCostFunction();
+        }
+        PartialSolution top = queue.peek();
+        return top == null ? Double.POSITIVE_INFINITY : top.getCostFunction();
+    }
+}
@@ -0,0 +1,283 @@
+package algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An open queue that keeps its partial solutions off the Java heap, so a large frontier does not add to the work of
+ * the garbage collector. Every partial solution is serialized into a fixed size record (see
+ * `PartialSolution.writeTo`) in an arena of direct byte buffers, which are allocated in chunks as the queue grows, and
+ * the slots of polled records are reused. On top of the arena is a binary heap of primitive (cost function, slot)
+ * pairs, so a partial solution is only deserialized when it is polled.
+ * Partial solutions are polled in order of their exact cost function.
+ * Not thread safe, every worker of `ParallelAStar` has its own.
+ */
+public class OffHeapOpenList extends AbstractQueue<PartialSolution> {
+
+    // the size of a chunk of the arena, in bytes.
+    private static final int CHUNK_SIZE = 1 << 24;
+    private static final int INITIAL_HEAP_CAPACITY = 1 << 10;
+
+    private final SolverContext context;
+    private final int recordSize;
+    private final int recordsPerChunk;
+    private final long maxNumOfRecords;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    // the binary heap of the index, the cost function and the slot of every record in the queue.
+    private double[] costFunctions = new double[INITIAL_HEAP_CAPACITY];
+    private int[] slots = new int[INITIAL_HEAP_CAPACITY];
+    private int size;
+
+    // slots of polled records that can be reused, and the number of slots that have ever been used.
+    private int[] freeSlots = new int[INITIAL_HEAP_CAPACITY];
+    private int numOfFreeSlots;
+    private int numOfUsedSlots;
+    private int peakSize;
+    private long capacityInBytes;
+
+    /**
+     * @param maxNumOfBytes the max size of the arena, the queue refuses new partial solutions once it is full
+     */
+    public OffHeapOpenList(long maxNumOfBytes) {
+        this(SolverContext.global(), maxNumOfBytes);
+    }
+
+    /**
+     * @param context       the problem of the partial solutions in the queue
+     * @param maxNumOfBytes the max size of the arena, the queue refuses new partial solutions once it is full
+     */
+    public OffHeapOpenList(SolverContext context, long maxNumOfBytes) {
+        this.context = context;
+        recordSize = PartialSolution.getRecordSize(context);
+        recordsPerChunk = Math.max(CHUNK_SIZE / recordSize, 1);
+        maxNumOfRecords = Math.min(maxNumOfBytes / recordSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Serialize the partial solution into the arena and add it to the index.
+     *
+     * @param partialSolution the partial solution to add
+     * @return true, or false if the arena is full
+     */
+    @Override
+    public boolean offer(PartialSolution partialSolution) {
+        int slot = allocateSlot();
+        if (slot == -1) {
+            return false;
+        }
+        partialSolution.writeTo(chunks.get(slot / recordsPerChunk), (slot % recordsPerChunk) * recordSize);
+
+        if (size == costFunctions.length) {
+            costFunctions = Arrays.copyOf(costFunctions, size << 1);
+            slots = Arrays.copyOf(slots, size << 1);
+        }
+        siftUp(size++, partialSolution.getCostFunction(), slot);
+        peakSize = Math.max(peakSize, size);
+        return true;
+    }
+
+    /**
+     * @return the partial solution with the lowest cost function, removed from the queue, or null if it is empty
+     */
+    @Override
+    public PartialSolution poll() {
+        if (size == 0) {
+            return null;
+        }
+        int slot = slots[0];
+        PartialSolution partialSolution = read(slot);
+        freeSlot(slot);
+
+        size--;
+        if (size > 0) {
+            siftDown(0, costFunctions[size], slots[size]);
+        }
+        return partialSolution;
+    }
+
+    /**
+     * @return the partial solution with the lowest cost function, or null if the queue is empty
+     */
+    @Override
+    public PartialSolution peek() {
+        return size == 0 ? null : read(slots[0]);
+    }
+
+    /**
+     * @return the lowest cost function in the queue, without deserializing its partial solution, or infinity if the
+     * queue is empty
+     */
+    public double peekCostFunction() {
+        return size == 0 ? Double.POSITIVE_INFINITY : costFunctions[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all partial solutions, the arena is kept for reuse.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        numOfFreeSlots = 0;
+        numOfUsedSlots = 0;
+    }
+
+    /**
+     * Remove all partial solutions and let go of the arena and the index, so their memory can be reclaimed. The
+     * queue can still be used, the arena is allocated again as it grows.
+     */
+    public void release() {
+        clear();
+        chunks.clear();
+        costFunctions = new double[INITIAL_HEAP_CAPACITY];
+        slots = new int[INITIAL_HEAP_CAPACITY];
+        freeSlots = new int[INITIAL_HEAP_CAPACITY];
+    }
+
+    /**
+     * @return an iterator that deserializes the partial solutions in no particular order, it does not support removal
+     */
+    @Override
+    public Iterator<PartialSolution> iterator() {
+        return new Iterator<PartialSolution>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public PartialSolution next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return read(slots[index++]);
+            }
+        };
+    }
+
+    /**
+     * @return the size of a record in bytes
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * @return the number of bytes of direct memory allocated for the arena, including the chunks released since
+     */
+    public long getCapacityInBytes() {
+        return capacityInBytes;
+    }
+
+    /**
+     * @return the number of bytes of the arena used by the partial solutions in the queue
+     */
+    public long getUsedBytes() {
+        return (long) size * recordSize;
+    }
+
+    /**
+     * @return the fraction of the allocated arena used by the partial solutions in the queue, 0 if none is allocated
+     */
+    public double getOccupancy() {
+        long capacity = 0;
+        for (ByteBuffer chunk : chunks) {
+            capacity += chunk.capacity();
+        }
+        return capacity == 0 ? 0 : (double) getUsedBytes() / capacity;
+    }
+
+    /**
+     * @return the max number of partial solutions that were in the queue at the same time
+     */
+    public int getPeakSize() {
+        return peakSize;
+    }
+
+    /**
+     * @return the number of bytes of the arena used at the peak
+     */
+    public long getPeakUsedBytes() {
+        return (long) peakSize * recordSize;
+    }
+
+    private PartialSolution read(int slot) {
+        return PartialSolution.readFrom(context, chunks.get(slot / recordsPerChunk), (slot % recordsPerChunk) * recordSize);
+    }
+
+    /**
+     * @return a free slot of the arena, allocating a new chunk if all of them are used, or -1 if the arena is full
+     */
+    private int allocateSlot() {
+        if (numOfFreeSlots > 0) {
+            return freeSlots[--numOfFreeSlots];
+        }
+        if (numOfUsedSlots >= maxNumOfRecords) {
+            return -1;
+        }
+        if (numOfUsedSlots == chunks.size() * recordsPerChunk) {
+            int numOfRecords = (int) Math.min(recordsPerChunk, maxNumOfRecords - numOfUsedSlots);
+            chunks.add(ByteBuffer.allocateDirect(numOfRecords * recordSize).order(ByteOrder.nativeOrder()));
+            capacityInBytes += (long) numOfRecords * recordSize;
+        }
+        return numOfUsedSlots++;
+    }
+
+    private void freeSlot(int slot) {
+        if (numOfFreeSlots == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, numOfFreeSlots << 1);
+        }
+        freeSlots[numOfFreeSlots++] = slot;
+    }
+
+    /**
+     * helper method to move an entry up the heap from the index until its parent is not higher than it.
+     */
+    private void siftUp(int index, double costFunction, int slot) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (costFunctions[parent] <= costFunction) {
+                break;
+            }
+            costFunctions[index] = costFunctions[parent];
+            slots[index] = slots[parent];
+            index = parent;
+        }
+        costFunctions[index] = costFunction;
+        slots[index] = slot;
+    }
+
+    /**
+     * helper method to move an entry down the heap from the index until its children are not lower than it.
+     */
+    private void siftDown(int index, double costFunction, int slot) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            if (child + 1 < size && costFunctions[child + 1] < costFunctions[child]) {
+                child++;
+            }
+            if (costFunction <= costFunctions[child]) {
+                break;
+            }
+            costFunctions[index] = costFunctions[child];
+            slots[index] = slots[child];
+            index = child;
+        }
+        costFunctions[index] = costFunction;
+        slots[index] = slot;
+    }
+}
@@ -1,88 +1,321 @@
-package algorithm;
-
-import models.InputGraph;
-
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.concurrent.*;
-
-/**
- * The multi thread version of A star algorithm
- * This class is made to be a derived class of AStar
- */
-public class ParallelAStar extends AStar {
-
-    ExecutorService executorService;
-    CompletionService<PartialSolution> completionService;
-    private int numOfThread;
-
-    public ParallelAStar(int numOfThread) {
-        super();
-        this.numOfThread = numOfThread;
-    }
-
-    /**
-     * Use findBestPartialSolution method to find the best solution and return
-     * This method also initialise required fields and handling closing instance
-     *
-     * @return the optimal solution returned by findBestPartialSolution method
-     */
-    public PartialSolution build() {
-        //create the thread pool
-        executorService = Executors.newWorkStealingPool(numOfThread);
-        completionService = new ExecutorCompletionService<>(executorService);
-        PartialSolution res = findBestPartialSolution();
-        executorService.shutdown();
-        return res;
-    }
-
-    /**
-     * using parallel method to find the best PartialSolution
-     *
-     * @return a partial solution instance that represents the best scheduling
-     */
-    public PartialSolution findBestPartialSolution() {
-
-        PriorityQueue<PartialSolution> solutionQueue = new PriorityQueue<>((x1, x2) -> {
-            // compare the cost function between 2 solutions.
-            return (int) (x1.getCostFunction() - x2.getCostFunction());
-        });
-
-        solutionQueue.offer(new PartialSolution());
-
-        while (solutionQueue.size() < numOfThread * 100) {
-            PartialSolution prev = solutionQueue.poll();
-
-            //get all next partialSolution of current PartialSolution
-            List<PartialSolution> nextAllPartialSolution = prev.getAllNextPartialSolution();
-
-            for (PartialSolution p : nextAllPartialSolution) {
-                if (p.getNodesPath().size() == InputGraph.get().getNodeCount()) {
-                    return p;
-                }
-            }
-
-            solutionQueue.addAll(nextAllPartialSolution);
-        }
-
-        int size = solutionQueue.size();
-
-        while (!solutionQueue.isEmpty()) {
-            PartialSolution prev = solutionQueue.poll();
-            completionService.submit(() -> buildTree(prev));
-        }
-
-        try {
-            for (int i = 0; i < size; i++) {
-
-                // get the results of the first-finished thread
-                // if the result is not null, then the result must be an optimal solution
-                PartialSolution partialSolution = completionService.take().get();
-                if (partialSolution != null) {
-                    return partialSolution;
-                }
-            }
-        } catch (Exception ignored) {}
-        return null;
-    }
-}
+package algorithm;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The multi thread version of A star algorithm, using hash distributed A star (HDA star).
+ * Every worker thread owns an open queue and a closed set. Each new partial solution is sent to the worker
+ * chosen by its fingerprint, through a lock-free mailbox, so identical partial schedules always end up at the
+ * same worker and duplicates are still dropped without any shared table. The best complete schedule found so far
+ * (the incumbent) is shared by all workers, and partial solutions that can not beat it are discarded.
+ * The search finishes once no partial solution is left in any queue, mailbox or in the middle of being expanded,
+ * at which point the incumbent is optimal.
+ * With a shared frontier, the workers take their partial solutions from a `MultiQueue` instead, so they all expand
+ * about the best partial solutions of the whole search, rather than the best ones they own, and duplicates are
+ * dropped by closed sets striped by fingerprint.
+ * This class is made to be a derived class of AStar
+ */
+public class ParallelAStar extends AStar {
+
+    // the number of closed set stripes per worker with a shared frontier.
+    private static final int STRIPES_PER_THREAD = 4;
+
+    private int numOfThread;
+    private final boolean sharedFrontier;
+    private MultiQueue frontier;
+    private ClosedSet[] closedSetStripes;
+
+    private List<Queue<Message>> mailboxes;
+    // number of partial solutions that have been sent to a worker but not yet expanded or discarded.
+    private final AtomicLong numOfPendingSolutions = new AtomicLong();
+    // makespan of the incumbent, or the upper bound from `AStarUtil` before any schedule has been found.
+    private final AtomicInteger upperBound = new AtomicInteger();
+    private final AtomicReference<PartialSolution> bestPartialSolution = new AtomicReference<>();
+    private final AtomicLong numOfExpandedStates = new AtomicLong();
+    // no schedule can be shorter, so an incumbent with this makespan is optimal.
+    private int lowerBound;
+    // the scope of the workers of the current search.
+    private SearchScope scope;
+
+    public ParallelAStar(int numOfThread) {
+        this(numOfThread, false);
+    }
+
+    /**
+     * @param numOfThread    the number of workers
+     * @param sharedFrontier whether the workers share a `MultiQueue` rather than each owning the partial solutions
+     *                       with some fingerprints
+     */
+    public ParallelAStar(int numOfThread, boolean sharedFrontier) {
+        this(numOfThread, sharedFrontier, SearchLimit.none());
+    }
+
+    /**
+     * @param numOfThread    the number of workers
+     * @param sharedFrontier whether the workers share a `MultiQueue`
+     * @param searchLimit    the deadline and cancellation token checked by the workers
+     */
+    public ParallelAStar(int numOfThread, boolean sharedFrontier, SearchLimit searchLimit) {
+        this(SolverContext.global(), numOfThread, sharedFrontier, searchLimit);
+    }
+
+    /**
+     * @param context        the problem to solve
+     * @param numOfThread    the number of workers
+     * @param sharedFrontier whether the workers share a `MultiQueue`
+     * @param searchLimit    the deadline and cancellation token checked by the workers
+     */
+    public ParallelAStar(SolverContext context, int numOfThread, boolean sharedFrontier, SearchLimit searchLimit) {
+        super(context, searchLimit);
+        this.numOfThread = Math.max(numOfThread, 1);
+        this.sharedFrontier = sharedFrontier;
+    }
+
+    /**
+     * @return the number of partial solutions expanded by all workers in the last search
+     */
+    @Override
+    public long getNumOfExpandedStates() {
+        return numOfExpandedStates.get();
+    }
+
+    /**
+     * Use findBestPartialSolution method to find the best solution and return
+     *
+     * @return the optimal solution returned by findBestPartialSolution method
+     */
+    public PartialSolution build() {
+        return findBestPartialSolution();
+    }
+
+    /**
+     * using parallel method to find the best PartialSolution, the workers run in a `SearchScope` on threads shared
+     * with other searches. They all stop as soon as one of them fails, or finds a schedule as short as the lower
+     * bound, which is optimal, or the search limit is reached.
+     *
+     * @return a partial solution instance that represents the best scheduling
+     */
+    @SuppressWarnings("unchecked")
+    public PartialSolution findBestPartialSolution() {
+        PartialSolution root = new PartialSolution(getContext());
+        if (getContext().getProblem().getNumOfTasks() == 0) {
+            return root;
+        }
+
+        if (sharedFrontier) {
+            frontier = new MultiQueue(numOfThread, this::createOpenQueue);
+            closedSetStripes = new ClosedSet[numOfThread * STRIPES_PER_THREAD];
+            for (int i = 0; i < closedSetStripes.length; i++) {
+                closedSetStripes[i] = createClosedSet();
+            }
+        } else {
+            mailboxes = new ArrayList<>(numOfThread);
+            for (int i = 0; i < numOfThread; i++) {
+                mailboxes.add(new ConcurrentLinkedQueue<>());
+            }
+        }
+        numOfPendingSolutions.set(0);
+        upperBound.set(getContext().getMinimumGuessCost());
+        bestPartialSolution.set(null);
+        numOfExpandedStates.set(0);
+        setStatus(SearchStatus.OPTIMAL);
+        lowerBound = getContext().getProblem().getLowerBound(getContext().getNumOfProcessors());
+
+        send(root, root.calculateFingerprint());
+
+        try (SearchScope scope = new SearchScope()) {
+            this.scope = scope;
+            for (int i = 0; i < numOfThread; i++) {
+                scope.fork(new Worker(i));
+            }
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("parallel A star was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("parallel A star worker failed", e.getCause());
+        } finally {
+            scope = null;
+            // let go of what is left of the frontier, it is of no use once the search is over.
+            frontier = null;
+            closedSetStripes = null;
+            mailboxes = null;
+            releaseOffHeapOpenLists();
+        }
+        PartialSolution best = bestPartialSolution.get();
+        // stopped by the search limit before any schedule better than the upper bound was found.
+        return best == null ? getUpperBoundSolution() : best;
+    }
+
+    /**
+     * Send the partial solution to the mailbox of the worker that owns its fingerprint, or to the shared frontier
+     * unless it is a duplicate.
+     *
+     * @param partialSolution the partial solution to send
+     * @param fingerprint     fingerprint of the partial solution
+     */
+    private void send(PartialSolution partialSolution, long fingerprint) {
+        if (frontier != null) {
+            ClosedSet closedSet = closedSetStripes[(int) Math.floorMod(fingerprint >>> 32,
+                    (long) closedSetStripes.length)];
+            boolean isNew;
+            synchronized (closedSet) {
+                isNew = closedSet.add(fingerprint);
+            }
+            if (!isNew) {
+                countDuplicate();
+                return;
+            }
+            numOfPendingSolutions.incrementAndGet();
+            frontier.offer(partialSolution);
+            return;
+        }
+        // count it before it becomes visible, so the pending count never drops to 0 while there is still work.
+        numOfPendingSolutions.incrementAndGet();
+        mailboxes.get(owner(fingerprint)).offer(new Message(partialSolution, fingerprint));
+    }
+
+    /**
+     * @param fingerprint fingerprint of a partial solution
+     * @return the id of the worker that owns the partial solution
+     */
+    private int owner(long fingerprint) {
+        // the low bits of the fingerprint are used by the closed sets, so take the high ones here.
+        return (int) Math.floorMod(fingerprint >>> 32, (long) numOfThread);
+    }
+
+    /**
+     * @param costFunction cost function of a partial solution
+     * @return whether a partial solution with this cost function may still lead to a better schedule than the incumbent
+     */
+    private boolean canImprove(double costFunction) {
+        int bound = upperBound.get();
+        // without an incumbent, the bound is the makespan of a schedule we are still looking for.
+        return bestPartialSolution.get() == null ? costFunction <= bound : costFunction < bound;
+    }
+
+    /**
+     * Replace the incumbent with the complete schedule if it is better.
+     *
+     * @param solution a complete schedule
+     */
+    private void offerCompleteSolution(PartialSolution solution) {
+        int makespan = solution.calculateEndScheduleTime();
+        while (true) {
+            PartialSolution incumbent = bestPartialSolution.get();
+            if (incumbent == null ? makespan > upperBound.get() : makespan >= incumbent.calculateEndScheduleTime()) {
+                return;
+            }
+            if (bestPartialSolution.compareAndSet(incumbent, solution)) {
+                break;
+            }
+        }
+        upperBound.accumulateAndGet(makespan, Math::min);
+        // let `getNextPartialSolution` prune against the new incumbent as well.
+        getContext().setMinimumGuessCost(upperBound.get());
+        if (makespan <= lowerBound) {
+            // proven optimal, what is left in the queues can not beat it.
+            scope.shutdown();
+        }
+    }
+
+    /**
+     * A worker of the search, expanding the partial solutions that it owns in best first order.
+     */
+    private class Worker implements Callable<Void> {
+
+        private final int id;
+        // the partial solutions the worker owns, not used with a shared frontier.
+        private final Queue<PartialSolution> solutionQueue;
+        private final ClosedSet closedSet;
+
+        Worker(int id) {
+            this.id = id;
+            solutionQueue = frontier == null ? createOpenQueue() : null;
+            closedSet = frontier == null ? createClosedSet() : null;
+        }
+
+        @Override
+        public Void call() {
+            int numOfTasks = getContext().getProblem().getNumOfTasks();
+            SearchLimit searchLimit = getSearchLimit();
+            long numOfPolled = 0;
+            // the scope is shut down when another worker fails, the incumbent is proven optimal or the search limit
+            // is reached.
+            while (!scope.isShutdown()) {
+                if (searchLimit.isReached(++numOfPolled)) {
+                    setStatus(searchLimit.getStopStatus());
+                    scope.shutdown();
+                    return null;
+                }
+                PartialSolution prev;
+                if (frontier != null) {
+                    prev = frontier.poll();
+                } else {
+                    receive();
+                    prev = solutionQueue.poll();
+                }
+                if (prev == null) {
+                    // everything that was ever sent has been expanded or discarded, so the search is over.
+                    if (numOfPendingSolutions.get() == 0) {
+                        return null;
+                    }
+                    Thread.yield();
+                    continue;
+                }
+
+                if (canImprove(prev.getCostFunction())) {
+                    setCurrentSolution(prev);
+                    numOfExpandedStates.incrementAndGet();
+                    for (int task : getTasksToExpand(prev)) {
+                        for (PartialSolution partialSolution : prev.getNextPartialSolution(task)) {
+                            if (partialSolution.getNumOfScheduledTasks() == numOfTasks) {
+                                offerCompleteSolution(partialSolution);
+                            } else if (canImprove(partialSolution.getCostFunction())) {
+                                send(partialSolution, partialSolution.calculateFingerprint());
+                            }
+                        }
+                    }
+                }
+                numOfPendingSolutions.decrementAndGet();
+            }
+            return null;
+        }
+
+        /**
+         * Move the partial solutions in the mailbox into the open queue, dropping the duplicates.
+         */
+        private void receive() {
+            Message message;
+            while ((message = mailboxes.get(id).poll()) != null) {
+                if (closedSet.add(message.fingerprint)) {
+                    solutionQueue.offer(message.partialSolution);
+                } else {
+                    countDuplicate();
+                    numOfPendingSolutions.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * A partial solution in a mailbox, with the fingerprint the sender already calculated so the owner does not
+     * calculate it again.
+     */
+    private static class Message {
+        private final PartialSolution partialSolution;
+        private final long fingerprint;
+
+        private Message(PartialSolution partialSolution, long fingerprint) {
+            this.partialSolution = partialSolution;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
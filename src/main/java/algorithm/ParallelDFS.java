@@ -1,55 +1,115 @@
 package algorithm;
 
-import io.InputLoader;
-import models.InputGraph;
-import org.graphstream.graph.Node;
+import models.SchedulingProblem;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * This class uses multi thread version of DFS to calculate the best solution
- * The class is not used in milestone 2 release, as this was implemented as a comparison of A star
+ * This class uses multi thread version of DFS (depth first branch and bound) to calculate the best solution.
+ * Every fork join task searches a subtree on its own partial solution, scheduling/unscheduling tasks in place.
+ * A subtree is only handed out as a new fork join task when the worker running it has run out of queued work,
+ * so idle workers steal work on demand instead of the tree being split once at the top.
+ * The makespan of the best complete schedule so far is kept in an atomic integer that every worker reads
+ * without locking to prune partial solutions that can not beat it.
+ * The fork join pools are kept for the whole program, one per number of threads, so they are reused from one search
+ * to the next, and a search stops as soon as its incumbent is as short as the lower bound, or its search limit is
+ * reached.
  */
 public class ParallelDFS {
 
+    // a subtree is forked only while the current worker has fewer queued tasks than this.
+    private static final int SPLIT_THRESHOLD = 2;
+    // subtrees with fewer tasks left to schedule than this are always searched by the current worker.
+    private static final int MIN_TASKS_TO_SPLIT = 4;
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
 
+    private final SolverContext context;
     private int numOfThread;
-    private ExecutorService executorService;
-    private PartialSolution bestPartialSolution = new PartialSolution();
+    private final AtomicInteger upperBound = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicReference<PartialSolution> bestPartialSolution = new AtomicReference<>();
+    private final LongAdder numOfExpandedStates = new LongAdder();
+    private final LongAdder numOfFixedTaskOrderStates = new LongAdder();
+    // no schedule can be shorter, so an incumbent with this makespan is optimal.
+    private int lowerBound;
+    // set once the incumbent is proven optimal or the search limit is reached, so the workers stop searching.
+    private volatile boolean stopped;
+    private SearchLimit searchLimit = SearchLimit.none();
+    private volatile SearchStatus status = SearchStatus.OPTIMAL;
 
     public PartialSolution getBestPartialSolution() {
-        return bestPartialSolution;
+        return bestPartialSolution.get();
     }
 
     public void setBestPartialSolution(PartialSolution bestPartialSolution) {
-        this.bestPartialSolution = bestPartialSolution;
+        this.bestPartialSolution.set(bestPartialSolution);
+        upperBound.set(bestPartialSolution.calculateEndScheduleTime());
+    }
+
+    /**
+     * @return the number of partial solutions expanded by all workers in the last search
+     */
+    public long getNumOfExpandedStates() {
+        return numOfExpandedStates.sum();
+    }
+
+    /**
+     * @return the number of partial solutions whose available tasks were expanded in a fixed task order
+     */
+    public long getNumOfFixedTaskOrderStates() {
+        return numOfFixedTaskOrderStates.sum();
     }
 
     public ParallelDFS() {
+        this(1);
     }
 
     public ParallelDFS(int numOfThread) {
-        this.numOfThread = numOfThread;
-        DFSFindOneSolution(new PartialSolution());
+        this(SolverContext.global(), numOfThread);
+    }
+
+    /**
+     * @param context     the problem to solve
+     * @param numOfThread the number of threads of the fork join pool
+     */
+    public ParallelDFS(SolverContext context, int numOfThread) {
+        this.context = context;
+        this.numOfThread = Math.max(numOfThread, 1);
+    }
+
+    /**
+     * @param searchLimit the deadline and cancellation token checked by the workers
+     */
+    public void setSearchLimit(SearchLimit searchLimit) {
+        this.searchLimit = searchLimit;
+    }
+
+    /**
+     * @return OPTIMAL if the last search ran to the end, otherwise why it was stopped by the search limit
+     */
+    public SearchStatus getStatus() {
+        return status;
     }
 
     public boolean DFSFindOneSolution(PartialSolution prev) {
 
         // if we are at the leaf node of the solution tree.
-        if (prev.getNodesPath().size() == InputGraph.get().getNodeCount()) {
+        if (prev.getNumOfScheduledTasks() == context.getProblem().getNumOfTasks()) {
             // set the minimum guess cost as the result solution cost (Last finish Time among all processors)
-            InputGraph.setMinimumGuessCost(prev.calculateEndScheduleTime());
-            bestPartialSolution = prev;
+            context.setMinimumGuessCost(prev.calculateEndScheduleTime());
+            setBestPartialSolution(prev);
             return true;
         }
 
         // get the next available nodes onroute.
-        List<Node> availableNextNodes = prev.getAvailableNextNodes();
+        int[] availableNextNodes = prev.getAvailableNextTasks();
 
         // placeholders
         PartialSolution minPartialSolution = null;
@@ -57,10 +117,10 @@ public class ParallelDFS {
 
         // find the minimum Cost Function of all possible Partial Solutions of the current Partial Solution's available nodes
         // and on different Processors.
-        for (Node node : availableNextNodes) {
-            for (int i = 1; i <= InputLoader.getNumOfProcessors(); i++) {
+        for (int node : availableNextNodes) {
+            for (int i = 1; i <= prev.getMaxCanonicalProcessor(); i++) {
                 PartialSolution current = new PartialSolution(prev, node, i);
-                double v = current.calculateCostFunction(node, i);
+                double v = current.getCostFunction();
                 if (v < minCostFunction) {
                     minCostFunction = v;
                     minPartialSolution = current;
@@ -72,66 +132,149 @@ public class ParallelDFS {
         return DFSFindOneSolution(minPartialSolution);
     }
 
-    public void findBestPartial() {
-
-        PartialSolution root = new PartialSolution();
-        List<PartialSolution> list = new ArrayList<>();
+    /**
+     * Find the optimal schedule, starting from the greedy schedule of `DFSFindOneSolution` as the incumbent.
+     *
+     * @return the partial solution that contains the best schedule, the best one found so far if the search limit
+     * stopped the search
+     */
+    public PartialSolution build() {
+        numOfExpandedStates.reset();
+        numOfFixedTaskOrderStates.reset();
+        status = SearchStatus.OPTIMAL;
+        // the cost function below relies on the guess cost, so it has to be a real schedule and not a stale value.
+        DFSFindOneSolution(new PartialSolution(context));
+        lowerBound = context.getProblem().getLowerBound(context.getNumOfProcessors());
+        stopped = upperBound.get() <= lowerBound;
+        if (stopped) {
+            return getBestPartialSolution();
+        }
 
-        list.add(root);
+        // a failure in any fork join task is rethrown here.
+        POOLS.computeIfAbsent(numOfThread, ForkJoinPool::new).invoke(new SearchTask(new PartialSolution(context), false));
+        return getBestPartialSolution();
+    }
 
-        while (list.size() <= numOfThread / 2) {
-            List<PartialSolution> temp = new ArrayList<>();
-            for (PartialSolution p : list) {
-                temp.addAll(p.getAllNextPartialSolution());
+    /**
+     * Replace the incumbent with the complete schedule if it is better.
+     *
+     * @param solution a complete schedule
+     */
+    private void offerCompleteSolution(PartialSolution solution) {
+        int makespan = solution.calculateEndScheduleTime();
+        while (true) {
+            PartialSolution incumbent = bestPartialSolution.get();
+            if (incumbent != null && makespan >= incumbent.calculateEndScheduleTime()) {
+                return;
+            }
+            if (bestPartialSolution.compareAndSet(incumbent, solution)) {
+                break;
             }
-
-            list.clear();
-            list.addAll(temp);
         }
-
-        List<Callable<PartialSolution>> tasks = new ArrayList<>();
-
-        for (PartialSolution p : list) {
-            tasks.add(() -> DFS(p));
+        upperBound.accumulateAndGet(makespan, Math::min);
+        context.setMinimumGuessCost(upperBound.get());
+        if (makespan <= lowerBound) {
+            stopped = true;
         }
+    }
 
-        try {
-            executorService = Executors.newWorkStealingPool(numOfThread);
-            List<Future<PartialSolution>> futures = executorService.invokeAll(tasks);
-            for (Future<PartialSolution> f : futures) {
-                f.get();
-            }
-            executorService.shutdown();
-        } catch (Exception e) {
+    /**
+     * A fork join task that searches the subtree below its partial solution.
+     */
+    private class SearchTask extends RecursiveAction {
 
+        private final PartialSolution state;
+        private final boolean commutingPruning;
+        // the number of partial solutions expanded by this task, to check the search limit every few of them.
+        private long numOfExpansions;
+
+        SearchTask(PartialSolution state, boolean commutingPruning) {
+            this.state = state;
+            this.commutingPruning = commutingPruning;
         }
 
-    }
+        @Override
+        protected void compute() {
+            search(commutingPruning);
+        }
 
-    public PartialSolution DFS(PartialSolution root) {
-        if (root.getNodesPath().size() == InputGraph.get().getNodeCount()) {
-            if (root.calculateEndScheduleTime() >= InputGraph.getMinimumGuessCost()) {
-                return getBestPartialSolution();
+        /**
+         * Depth first search from the current state, pruning the partial solutions whose cost function is not
+         * lower than the makespan of the incumbent.
+         *
+         * @param commutingPruning whether tasks that commute with the last task may be pruned, which is not the case
+         *                         if the tasks of the previous state were restricted to a fixed task order
+         */
+        private void search(boolean commutingPruning) {
+            SchedulingProblem problem = context.getProblem();
+            int numOfTasks = problem.getNumOfTasks();
+            if (state.getNumOfScheduledTasks() == numOfTasks) {
+                // the cost function of a complete schedule is its finish time, which has been checked already.
+                offerCompleteSolution(state.copy());
+                return;
             }
-
-            synchronized (ParallelDFS.class) {
-                InputGraph.setMinimumGuessCost(Math.min(InputGraph.getMinimumGuessCost(), root.calculateEndScheduleTime()));
-                bestPartialSolution = root;
+            if (stopped) {
+                return;
+            }
+            if (searchLimit.isReached(numOfExpansions++)) {
+                status = searchLimit.getStopStatus();
+                stopped = true;
+                return;
+            }
+            numOfExpandedStates.increment();
+
+            List<SearchTask> forkedTasks = null;
+            // scheduling the task on any of the empty processors is the same, so only try the first one.
+            int maxProcessor = state.getMaxCanonicalProcessor();
+            int lastTask = state.getNumOfScheduledTasks() == 0 || !commutingPruning ? -1 : state.getLastScheduledTask();
+            int lastProcessor = lastTask == -1 ? 0 : state.getProcessorId(lastTask);
+
+            int[] tasks = state.getAvailableNextTasks();
+            // if the available tasks have a fixed task order, only the first one needs to be searched.
+            int fixedOrderTask = state.findFixedOrderTask(tasks);
+            if (fixedOrderTask != -1) {
+                numOfFixedTaskOrderStates.increment();
+                tasks = new int[]{fixedOrderTask};
+            }
+            for (int task : tasks) {
+                // scheduling two independent tasks on different processors in either order gives the same
+                // schedule, so only the order in which the task with the lower index comes first is searched.
+                boolean commutesWithLastTask = lastTask > task && problem.getEdgeCost(lastTask, task) == -1;
+                for (int p = 1; p <= maxProcessor; p++) {
+                    if (commutesWithLastTask && p != lastProcessor) {
+                        continue;
+                    }
+
+                    state.schedule(task, p);
+                    if (state.getCostFunction() < upperBound.get()) {
+                        if (shouldSplit(numOfTasks - state.getNumOfScheduledTasks())) {
+                            SearchTask subtask = new SearchTask(state.copy(), fixedOrderTask == -1);
+                            subtask.fork();
+                            if (forkedTasks == null) {
+                                forkedTasks = new ArrayList<>();
+                            }
+                            forkedTasks.add(subtask);
+                        } else {
+                            search(fixedOrderTask == -1);
+                        }
+                    }
+                    state.unschedule();
+                }
             }
-            return bestPartialSolution;
-        }
 
-        if (root.getCostFunction() > InputGraph.getMinimumGuessCost()) {
-            return bestPartialSolution;
+            if (forkedTasks != null) {
+                for (int i = forkedTasks.size() - 1; i >= 0; i--) {
+                    forkedTasks.get(i).join();
+                }
+            }
         }
 
-        List<PartialSolution> allNextPartialSolution = root.getAllNextPartialSolution();
-        for (PartialSolution p : allNextPartialSolution) {
-            DFS(p);
+        /**
+         * @param numOfTasksLeft number of tasks that still need to be scheduled below the subtree
+         * @return whether the subtree should be handed out as a separate fork join task
+         */
+        private boolean shouldSplit(int numOfTasksLeft) {
+            return numOfTasksLeft >= MIN_TASKS_TO_SPLIT && getSurplusQueuedTaskCount() < SPLIT_THRESHOLD;
         }
-
-        return bestPartialSolution;
     }
 }
-
-
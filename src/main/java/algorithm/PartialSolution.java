@@ -1,18 +1,46 @@
 package algorithm;
 
-import io.InputLoader;
 import models.NodeProperties;
-import models.InputGraph;
+import models.SchedulingProblem;
 import org.graphstream.graph.Node;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 public class PartialSolution {
 
-    private LinkedHashMap<Node, NodeProperties> nodeStates;
-    private List<Node> nodesPath;
+    private static final int UNDO_LOG_STRIDE = 4;
+    private static final int DATA_ARRIVALS_STRIDE = 3;
+
+    // processor id of every task (indexed by Node.getIndex()), 0 if the task has not been scheduled yet.
+    private short[] processorIds;
+    // starting time of every task (indexed by Node.getIndex()).
+    private int[] startingTimes;
+    // remaining in-degree of every task (indexed by Node.getIndex()), -1 once the task has been scheduled.
+    private int[] inDegrees;
+    // indices of the scheduled tasks in the order they were scheduled, only the first `pathSize` entries are valid.
+    private int[] path;
+    private int pathSize;
+    // finish time of the last task on every processor (indexed by processorId, index 0 is unused).
+    private int[] processorFinishTimes;
+    // max startingTime + bottomLevel among the scheduled tasks.
+    private int maxBottomLevel;
     private double costFunction;
     private int idleTime;
+    // highest processor id that holds a task, processors are labeled in the order they receive their first task.
+    private int numOfUsedProcessors;
+    // for the data ready time lower bound, only kept if it is enabled. for every available task (indexed by
+    // Node.getIndex()), the latest arrival time of the data of its parents from a processor it is not on, the arrival
+    // time on the processor that latest arrival comes from, and that processor (0 if the task has no parents).
+    // they are calculated once when the task becomes available, as its parents do not move after that.
+    private int[] dataArrivals;
+    // undo information for in-place scheduling (see `schedule` and `unschedule`), only allocated once used.
+    // for every position on the path, the finish time of the processor, the idle time, the max bottom level and the
+    // number of used processors before the task at that position was scheduled.
+    private int[] undoLog;
+    private double[] undoCostFunctions;
+    // the problem this partial solution is a schedule of, shared by the whole solution tree.
+    private final SolverContext context;
 
     /**
      * Constructor for any subsequent partial solution on the solution tree except the root of the solution tree.
@@ -22,46 +50,302 @@ public class PartialSolution {
      * @param processorId Which Processor is the current Task(node) is going to be scheduled on
      */
     public PartialSolution(PartialSolution prevPartial, Node currentNode, int processorId) {
+        this(prevPartial, currentNode.getIndex(), processorId);
+    }
 
+    /**
+     * Constructor for any subsequent partial solution on the solution tree except the root of the solution tree.
+     *
+     * @param prevPartial previous PartialSolution immediately prior to the current PartialSolution
+     * @param currentTask The index of the current Task that is going to be scheduled
+     * @param processorId Which Processor is the current Task is going to be scheduled on
+     */
+    public PartialSolution(PartialSolution prevPartial, int currentTask, int processorId) {
+        context = prevPartial.context;
         initializeFromPrevPartialSolution(prevPartial);
-        scheduleTask(currentNode, processorId);
-        updateCurrentPartialSolutionStatus(currentNode, processorId);
+        scheduleTask(currentTask, processorId);
+        updateCurrentPartialSolutionStatus(currentTask, processorId);
         //calculate Cost Function for this PartialSolution
-        costFunction = calculateCostFunction(currentNode, processorId);
+        costFunction = calculateCostFunction(currentTask, processorId);
     }
 
     /**
-     * Constructor for the root of the solution tree.
+     * Constructor for the root of the solution tree of the global context.
      */
     public PartialSolution() {
+        this(SolverContext.global());
+    }
+
+    /**
+     * Constructor for the root of the solution tree.
+     *
+     * @param context the problem to schedule
+     */
+    public PartialSolution(SolverContext context) {
+        this.context = context;
         initializeRootPartialSolution();
     }
 
     /**
-     * @return `List<Node>` a list of next available Tasks(nodes) that can be scheduled immediately.
+     * Copy constructor, the undo information of in-place scheduling is not copied.
+     *
+     * @param other the PartialSolution to copy
+     */
+    private PartialSolution(PartialSolution other) {
+        context = other.context;
+        initializeFromPrevPartialSolution(other);
+        costFunction = other.costFunction;
+    }
+
+    /**
+     * @return an independent copy of this partial solution, e.g. to keep a snapshot of a partial solution
+     * that is being scheduled in place.
+     */
+    public PartialSolution copy() {
+        return new PartialSolution(this);
+    }
+
+    /**
+     * Schedule the task on the processor by updating this partial solution in place rather than creating a child,
+     * so a depth first search only needs a single partial solution. Reverted by `unschedule()`.
+     *
+     * @param currentTask The index of the current Task that is going to be scheduled, it must be available
+     * @param processorId Which Processor is the current Task is going to be scheduled on
+     */
+    public void schedule(int currentTask, int processorId) {
+        if (undoLog == null) {
+            undoLog = new int[inDegrees.length * UNDO_LOG_STRIDE];
+            undoCostFunctions = new double[inDegrees.length];
+        }
+        undoLog[pathSize * UNDO_LOG_STRIDE] = processorFinishTimes[processorId];
+        undoLog[pathSize * UNDO_LOG_STRIDE + 1] = idleTime;
+        undoLog[pathSize * UNDO_LOG_STRIDE + 2] = maxBottomLevel;
+        undoLog[pathSize * UNDO_LOG_STRIDE + 3] = numOfUsedProcessors;
+        undoCostFunctions[pathSize] = costFunction;
+
+        scheduleTask(currentTask, processorId);
+        updateCurrentPartialSolutionStatus(currentTask, processorId);
+        costFunction = calculateCostFunction(currentTask, processorId);
+    }
+
+    /**
+     * Revert the last call of `schedule(int, int)`.
+     */
+    public void unschedule() {
+        int currentTask = path[--pathSize];
+        int processorId = processorIds[currentTask];
+
+        processorFinishTimes[processorId] = undoLog[pathSize * UNDO_LOG_STRIDE];
+        idleTime = undoLog[pathSize * UNDO_LOG_STRIDE + 1];
+        maxBottomLevel = undoLog[pathSize * UNDO_LOG_STRIDE + 2];
+        numOfUsedProcessors = undoLog[pathSize * UNDO_LOG_STRIDE + 3];
+        costFunction = undoCostFunctions[pathSize];
+
+        processorIds[currentTask] = 0;
+        startingTimes[currentTask] = 0;
+        inDegrees[currentTask] = 0;
+
+        SchedulingProblem problem = context.getProblem();
+        int[] children = problem.getChildren();
+        for (int i = problem.getChildrenStart(currentTask); i < problem.getChildrenEnd(currentTask); i++) {
+            inDegrees[children[i]]++;
+        }
+    }
+
+    /**
+     * @return `List<Node>` a list of next available Tasks(nodes) that can be scheduled immediately, including all
+     * equivalent tasks.
      */
     public List<Node> getAvailableNextNodes() {
         List<Node> availableNextNodes = new ArrayList<>();
-        for (Node node : nodeStates.keySet()) {
-            if (nodeStates.get(node).getInDegree() == 0) {
-                availableNextNodes.add(node);
+        for (int i = 0; i < inDegrees.length; i++) {
+            if (inDegrees[i] == 0) {
+                availableNextNodes.add(context.getGraph().getNode(i));
             }
         }
         return availableNextNodes;
     }
 
+    /**
+     * Of a group of equivalent tasks (see `SchedulingProblem.getPreviousEquivalentTask`), only the lowest-index
+     * unscheduled one is returned, as scheduling any of the others instead only leads to the same schedules with the
+     * tasks swapped.
+     *
+     * @return `int[]` indices of the next available Tasks that can be scheduled immediately.
+     */
+    public int[] getAvailableNextTasks() {
+        SchedulingProblem problem = context.getProblem();
+        int count = 0;
+        for (int i = 0; i < inDegrees.length; i++) {
+            if (isNextTask(problem, i)) {
+                count++;
+            }
+        }
+        int[] availableNextTasks = new int[count];
+        for (int i = 0, j = 0; j < count; i++) {
+            if (isNextTask(problem, i)) {
+                availableNextTasks[j++] = i;
+            }
+        }
+        return availableNextTasks;
+    }
+
+    /**
+     * helper method to check whether the task is available and the equivalent task before it is already scheduled.
+     */
+    private boolean isNextTask(SchedulingProblem problem, int task) {
+        if (inDegrees[task] != 0) {
+            return false;
+        }
+        // equivalent tasks have the same parents, so the previous one is available or scheduled as well.
+        int previousEquivalentTask = problem.getPreviousEquivalentTask(task);
+        return previousEquivalentTask == -1 || inDegrees[previousEquivalentTask] == -1;
+    }
+
+    /**
+     * Check whether the available tasks can be scheduled in a fixed task order (FTO), i.e. each of them has at most
+     * one parent and at most one child, the children are all the same task (a task without a child has a virtual
+     * sink as its child, so tasks with and without a child are never mixed), the parents are all on the same
+     * processor, and sorting the tasks by data ready time (breaking ties by the larger out edge cost first) also
+     * sorts their out edge costs from large to small. There is then an optimal schedule that schedules the tasks
+     * in this order, so only the first one needs to be expanded.
+     *
+     * @param availableTasks the available tasks, as returned by `getAvailableNextTasks()`
+     * @return the first task of the fixed task order, or -1 if the available tasks do not form one.
+     */
+    public int findFixedOrderTask(int[] availableTasks) {
+        if (availableTasks.length < 2) {
+            return -1;
+        }
+        SchedulingProblem problem = context.getProblem();
+        int[] parents = problem.getParents();
+        int[] parentEdgeCosts = problem.getParentEdgeCosts();
+        int[] children = problem.getChildren();
+        int[] childEdgeCosts = problem.getChildEdgeCosts();
+
+        // -1 until the first task is seen, the virtual sink is -2.
+        int commonChild = -1;
+        int commonParentProcessor = 0;
+        // data ready time in the high bits and the inverted out edge cost in the low bits, so sorting the keys
+        // sorts the tasks the way FTO needs.
+        long[] keys = new long[availableTasks.length];
+        for (int i = 0; i < availableTasks.length; i++) {
+            int task = availableTasks[i];
+            if (problem.getInDegree(task) > 1 || problem.getOutDegree(task) > 1) {
+                return -1;
+            }
+
+            int child = -2;
+            int outEdgeCost = 0;
+            if (problem.getOutDegree(task) == 1) {
+                child = children[problem.getChildrenStart(task)];
+                outEdgeCost = childEdgeCosts[problem.getChildrenStart(task)];
+            }
+            if (commonChild != -1 && commonChild != child) {
+                return -1;
+            }
+            commonChild = child;
+
+            int dataReadyTime = 0;
+            if (problem.getInDegree(task) == 1) {
+                int parent = parents[problem.getParentsStart(task)];
+                if (commonParentProcessor != 0 && commonParentProcessor != processorIds[parent]) {
+                    return -1;
+                }
+                commonParentProcessor = processorIds[parent];
+                dataReadyTime = startingTimes[parent] + problem.getWeight(parent)
+                        + parentEdgeCosts[problem.getParentsStart(task)];
+            }
+            keys[i] = ((long) dataReadyTime << 32) | (Integer.MAX_VALUE - outEdgeCost);
+        }
+
+        long[] sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        for (int i = 1; i < sortedKeys.length; i++) {
+            // the inverted out edge costs must not decrease.
+            if ((int) sortedKeys[i] < (int) sortedKeys[i - 1]) {
+                return -1;
+            }
+        }
+        // the first task in the order, the one with the lowest index if several tie.
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == sortedKeys[0]) {
+                return availableTasks[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a read-only view of the scheduled Tasks(nodes) in the order they were scheduled.
+     */
     public List<Node> getNodesPath() {
-        return nodesPath;
+        return new AbstractList<Node>() {
+            @Override
+            public Node get(int index) {
+                if (index < 0 || index >= pathSize) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + pathSize);
+                }
+                return context.getGraph().getNode(path[index]);
+            }
+
+            @Override
+            public int size() {
+                return pathSize;
+            }
+        };
     }
 
     public int getIdleTime() {
         return idleTime;
     }
 
+    /**
+     * Build a snapshot of the state of every Task(node) in the graph. The state is stored in primitive arrays
+     * internally, so this is only meant for consumers outside the search, e.g. output and visualisation.
+     *
+     * @return `LinkedHashMap<Node, NodeProperties>` state of every task, in the graph's node order.
+     */
     public LinkedHashMap<Node, NodeProperties> getNodeStates() {
+        LinkedHashMap<Node, NodeProperties> nodeStates = new LinkedHashMap<>();
+        for (int i = 0; i < inDegrees.length; i++) {
+            NodeProperties nodeProperties = new NodeProperties(processorIds[i], startingTimes[i]);
+            nodeProperties.setInDegree(inDegrees[i]);
+            nodeStates.put(context.getGraph().getNode(i), nodeProperties);
+        }
         return nodeStates;
     }
 
+    /**
+     * @param taskIndex index of the task, i.e. Node.getIndex()
+     * @return the processor the task is scheduled on, 0 if it is not scheduled.
+     */
+    public int getProcessorId(int taskIndex) {
+        return processorIds[taskIndex];
+    }
+
+    /**
+     * @param taskIndex index of the task, i.e. Node.getIndex()
+     * @return the starting time of the task.
+     */
+    public int getStartingTime(int taskIndex) {
+        return startingTimes[taskIndex];
+    }
+
+    /**
+     * @return the index of the task that was scheduled last.
+     */
+    public int getLastScheduledTask() {
+        return path[pathSize - 1];
+    }
+
+    /**
+     * @return the number of tasks scheduled so far.
+     */
+    public int getNumOfScheduledTasks() {
+        return pathSize;
+    }
+
     public double getCostFunction() {
         return costFunction;
     }
@@ -74,10 +358,11 @@ public class PartialSolution {
     public String getInfo() {
 
         StringBuffer sb = new StringBuffer();
-        for (Node node : nodesPath) {
-            sb.append("(").append(node.getId()).append(",");
-            sb.append(nodeStates.get(node).getProcessorId()).append(",");
-            sb.append(nodeStates.get(node).getStartingTime()).append(")");
+        for (int i = 0; i < pathSize; i++) {
+            int task = path[i];
+            sb.append("(").append(context.getProblem().getTaskId(task)).append(",");
+            sb.append(processorIds[task]).append(",");
+            sb.append(startingTimes[task]).append(")");
             sb.append(";");
         }
         sb.append(" Finishing Time: ");
@@ -92,56 +377,70 @@ public class PartialSolution {
      * @param prevPartial previous PartialSolution immediately prior to the current PartialSolution
      */
     private void initializeFromPrevPartialSolution(PartialSolution prevPartial) {
-        // copy nodePath from the previous solution
-        this.nodesPath = new ArrayList<>();
-        nodesPath.addAll(prevPartial.getNodesPath());
+        int numOfTasks = prevPartial.inDegrees.length;
 
-        // copy nodeStates from the previous solution
-        this.nodeStates = new LinkedHashMap<>();
-        for (Node node : prevPartial.getNodeStates().keySet()) {
-            NodeProperties nodeProperties = new NodeProperties();
+        // copy the path and the task states from the previous solution
+        this.path = new int[numOfTasks];
+        System.arraycopy(prevPartial.path, 0, path, 0, prevPartial.pathSize);
+        this.pathSize = prevPartial.pathSize;
 
-            NodeProperties prevNodeProperties = prevPartial.getNodeStates().get(node);
-            nodeProperties.setInDegree(prevNodeProperties.getInDegree());
-            nodeProperties.setProcessorId(prevNodeProperties.getProcessorId());
-            nodeProperties.setStartingTime(prevNodeProperties.getStartingTime());
+        this.processorIds = new short[numOfTasks];
+        System.arraycopy(prevPartial.processorIds, 0, processorIds, 0, numOfTasks);
+        this.startingTimes = new int[numOfTasks];
+        System.arraycopy(prevPartial.startingTimes, 0, startingTimes, 0, numOfTasks);
+        this.inDegrees = new int[numOfTasks];
+        System.arraycopy(prevPartial.inDegrees, 0, inDegrees, 0, numOfTasks);
 
-            nodeStates.put(node, nodeProperties);
+        this.processorFinishTimes = new int[prevPartial.processorFinishTimes.length];
+        System.arraycopy(prevPartial.processorFinishTimes, 0, processorFinishTimes, 0, processorFinishTimes.length);
+        if (prevPartial.dataArrivals != null) {
+            this.dataArrivals = new int[prevPartial.dataArrivals.length];
+            System.arraycopy(prevPartial.dataArrivals, 0, dataArrivals, 0, dataArrivals.length);
         }
 
+        maxBottomLevel = prevPartial.maxBottomLevel;
         idleTime = prevPartial.getIdleTime();
+        numOfUsedProcessors = prevPartial.numOfUsedProcessors;
     }
 
     /**
      * initialize fields for root partial solution of the solution tree.
      */
     private void initializeRootPartialSolution() {
-        this.nodesPath = new ArrayList<>();
-        this.nodeStates = new LinkedHashMap<>();
+        SchedulingProblem problem = context.getProblem();
+        int numOfTasks = problem.getNumOfTasks();
+        this.path = new int[numOfTasks];
+        this.pathSize = 0;
+        this.processorIds = new short[numOfTasks];
+        this.startingTimes = new int[numOfTasks];
+        this.inDegrees = new int[numOfTasks];
+        this.processorFinishTimes = new int[context.getNumOfProcessors() + 1];
+        maxBottomLevel = 0;
         idleTime = 0;
+        numOfUsedProcessors = 0;
+        // the data of tasks without parents is ready at time 0 on every processor, which is all 0 as well.
+        if (context.isEnabled(LowerBound.DATA_READY_TIME)) {
+            dataArrivals = new int[numOfTasks * DATA_ARRIVALS_STRIDE];
+        }
 
-        // initialize status for all nodes.
-        for (Node node : InputGraph.get().getAllNodes()) {
-            NodeProperties nodeProperties = new NodeProperties();
-            nodeProperties.setProcessorId(0);//processorId
-            nodeProperties.setInDegree(node.getInDegree());// inDegree
-            nodeProperties.setStartingTime(0);//startingTime
-            nodeStates.put(node, nodeProperties);
+        // initialize status for all tasks, processorId and startingTime are already 0.
+        for (int i = 0; i < numOfTasks; i++) {
+            inDegrees[i] = problem.getInDegree(i);
         }
 
     }
 
 
     /**
-     * logic for schedule task according to supplied task(Node) and processorId.
+     * logic for schedule task according to supplied task and processorId.
      *
-     * @param currentNode The current Task(node) that is going to be scheduled
-     * @param processorId Which Processor is the current Task(node) is going to be scheduled on
+     * @param currentTask The index of the current Task that is going to be scheduled
+     * @param processorId Which Processor is the current Task is going to be scheduled on
      */
-    private void scheduleTask(Node currentNode, int processorId) {
-        // set the starting time of the current node.
-        int earliestStartTime = calculateStartingTime(currentNode, processorId);
-        nodeStates.get(currentNode).setStartingTime(earliestStartTime);
+    private void scheduleTask(int currentTask, int processorId) {
+        // set the starting time of the current task.
+        int earliestStartTime = calculateStartingTime(currentTask, processorId);
+        startingTimes[currentTask] = earliestStartTime;
     }
 
     /**
@@ -152,29 +451,44 @@ public class PartialSolution {
      * @return int      starting time
      */
     public int calculateStartingTime(Node currentNode, int processorId) {
+        return calculateStartingTime(currentNode.getIndex(), processorId);
+    }
+
+    /**
+     * logic for calculating next available starting time for the task.
+     *
+     * @param currentTask The index of the current Task that is going to be scheduled
+     * @param processorId Which Processor is the current Task is going to be scheduled on
+     * @return int      starting time
+     */
+    public int calculateStartingTime(int currentTask, int processorId) {
         // make sure it's not the root partial solution of the solution tree before going to the next step.
-        if (!nodesPath.isEmpty()) {
-            // find the latest finishing time of previously direct parent(s) of the current node(Task) iteratively.
+        if (pathSize != 0) {
+            SchedulingProblem problem = context.getProblem();
+            int[] parents = problem.getParents();
+            int[] parentEdgeCosts = problem.getParentEdgeCosts();
+            // find the latest finishing time of previously scheduled direct parent(s) of the current task iteratively.
             int startTime = 0;
-            for (Node node : nodesPath) {
-                if (node.hasEdgeToward(currentNode)) {
-                    // if the current node is on the same processor with the selected its parent node.
-                    if (nodeStates.get(node).getProcessorId() == processorId) {
-                        // find the finishing time of the parent node of the current node and let it be the starting
-                        // time of the current node.
-                        startTime = (int) Math.max(startTime, nodeStates.get(node).getStartingTime() + InputGraph.get().getNodeWeightById(node.getId()));
-                        // if the current node is on the different processor with the selected its parent node.
-                    } else {
-                        // find the finishing time of the parent node of the current node and add communication cost,
-                        // then let it be the starting time of the current node.
-                        int communicationCost = InputGraph.get().getEdgeWeight(node.getId(), currentNode.getId()).intValue();
-                        startTime = (int) Math.max(startTime, nodeStates.get(node).getStartingTime() + InputGraph.get().getNodeWeightById(node.getId()) + communicationCost);
-                    }
+            for (int i = problem.getParentsStart(currentTask); i < problem.getParentsEnd(currentTask); i++) {
+                int parent = parents[i];
+                if (processorIds[parent] == 0) {
+                    continue;
+                }
+                // if the current task is on the same processor with the selected its parent task.
+                if (processorIds[parent] == processorId) {
+                    // find the finishing time of the parent task of the current task and let it be the starting
+                    // time of the current task.
+                    startTime = Math.max(startTime, startingTimes[parent] + problem.getWeight(parent));
+                    // if the current task is on the different processor with the selected its parent task.
+                } else {
+                    // find the finishing time of the parent task of the current task and add communication cost,
+                    // then let it be the starting time of the current task.
+                    startTime = Math.max(startTime, startingTimes[parent] + problem.getWeight(parent) + parentEdgeCosts[i]);
                 }
             }
             // check if the current scheduled processor that may have any Tasks may span over the finishing time of the parents of the
             // current node being calculated above. Select the max value between the two values as the starting time of the current node.
-            int finishTimePrev = findLastFinishTime(processorId);
+            int finishTimePrev = processorFinishTimes[processorId];
             return Math.max(startTime, finishTimePrev);
         }
         return 0;
@@ -186,14 +500,21 @@ public class PartialSolution {
      * @return int minimum bottom level.
      */
     private int futureMinBottomLevel() {
+        SchedulingProblem problem = context.getProblem();
         int MinStartingTime = Integer.MAX_VALUE;
         int bottomLevel = 0;
-        for (Node node : getAvailableNextNodes()) {
-            for (int p = 1; p <= InputLoader.getNumOfProcessors(); p++) {
-                int startingTime = calculateStartingTime(node, p);
+        int[] startingTimesOnProcessors = new int[processorFinishTimes.length];
+        int[] localArrivalTimes = new int[processorFinishTimes.length];
+        for (int task = 0; task < inDegrees.length; task++) {
+            if (inDegrees[task] != 0) {
+                continue;
+            }
+            calculateStartingTimes(task, startingTimesOnProcessors, localArrivalTimes);
+            for (int p = 1; p <= context.getNumOfProcessors(); p++) {
+                int startingTime = startingTimesOnProcessors[p];
                 if (startingTime < MinStartingTime) {
                     MinStartingTime = startingTime;
-                    bottomLevel = (int) (InputGraph.get().getBottomLevel(node) + startingTime);
+                    bottomLevel = problem.getBottomLevel(task) + startingTime;
                 }
             }
         }
@@ -201,6 +522,50 @@ public class PartialSolution {
         return bottomLevel;
     }
 
+    /**
+     * calculate the next available starting time of a task whose parents have all been scheduled, on every processor
+     * at once in O(in-degree + processors), i.e. the same values as `calculateStartingTime(task, p)` for each p.
+     *
+     * @param task              The index of the Task
+     * @param result            the starting time on processor p is written to result[p]
+     * @param localArrivalTimes scratch array of the same size as result, must be all 0, and is left all 0
+     */
+    private void calculateStartingTimes(int task, int[] result, int[] localArrivalTimes) {
+        SchedulingProblem problem = context.getProblem();
+        int[] parents = problem.getParents();
+        int[] parentEdgeCosts = problem.getParentEdgeCosts();
+
+        // the data of a parent arrives at its finish time on its own processor, and after the communication cost on
+        // the others. so the latest arrival on processor p is the max of the local arrivals on p and the remote
+        // arrivals from the parents on other processors, which is either the overall latest remote arrival, or the
+        // latest one from a different processor if the overall latest is on p.
+        int latestRemote = 0;
+        int latestRemoteProcessor = 0;
+        int secondLatestRemote = 0;
+        for (int i = problem.getParentsStart(task); i < problem.getParentsEnd(task); i++) {
+            int parent = parents[i];
+            int processorId = processorIds[parent];
+            int finishTime = startingTimes[parent] + problem.getWeight(parent);
+            int remoteArrival = finishTime + parentEdgeCosts[i];
+            localArrivalTimes[processorId] = Math.max(localArrivalTimes[processorId], finishTime);
+            if (remoteArrival > latestRemote) {
+                if (processorId != latestRemoteProcessor) {
+                    secondLatestRemote = latestRemote;
+                }
+                latestRemote = remoteArrival;
+                latestRemoteProcessor = processorId;
+            } else if (remoteArrival > secondLatestRemote && processorId != latestRemoteProcessor) {
+                secondLatestRemote = remoteArrival;
+            }
+        }
+
+        for (int p = 1; p < result.length; p++) {
+            int remote = p == latestRemoteProcessor ? secondLatestRemote : latestRemote;
+            result[p] = Math.max(Math.max(remote, localArrivalTimes[p]), processorFinishTimes[p]);
+            localArrivalTimes[p] = 0;
+        }
+    }
+
     /**
      * Get the last finish time of this processor
      *
@@ -208,39 +573,152 @@ public class PartialSolution {
      * @return last finish time of this processor
      */
     public int findLastFinishTime(int processorId) {
+        return processorFinishTimes[processorId];
+    }
 
-        int lastTime = 0;
-        for (Node node : nodesPath) {
-            if (nodeStates.get(node).getProcessorId() == processorId) {
-                String nodeId = node.getId();
-                lastTime = (int) Math.max(lastTime,
-                        nodeStates.get(node).getStartingTime() + InputGraph.get().getNodeWeightById(nodeId));
-            }
-        }
-        return lastTime;
+    /**
+     * The processors are homogeneous, so every schedule can be relabeled such that processors receive their first
+     * task in the order of their ids. Only processors up to the first unused one need to be tried for the next task,
+     * scheduling it on any later processor gives a schedule that is the same up to relabeling.
+     *
+     * @return the highest processor id that the next task needs to be tried on.
+     */
+    public int getMaxCanonicalProcessor() {
+        return Math.min(numOfUsedProcessors + 1, processorFinishTimes.length - 1);
     }
 
     /**
      * updating the current partial solution status and save it into fields.
      *
-     * @param currentNode The current Task(node) that is going to be scheduled
-     * @param processorId Which Processor is the current Task(node) is going to be scheduled on
+     * @param currentTask The index of the current Task that is going to be scheduled
+     * @param processorId Which Processor is the current Task is going to be scheduled on
      */
-    private void updateCurrentPartialSolutionStatus(Node currentNode, int processorId) {
+    private void updateCurrentPartialSolutionStatus(int currentTask, int processorId) {
+        SchedulingProblem problem = context.getProblem();
+
+        // the gap between the previous task on the processor and the current task is idle time.
+        idleTime += startingTimes[currentTask] - processorFinishTimes[processorId];
+        processorFinishTimes[processorId] = startingTimes[currentTask] + problem.getWeight(currentTask);
+        maxBottomLevel = Math.max(maxBottomLevel, startingTimes[currentTask] + problem.getBottomLevel(currentTask));
+        numOfUsedProcessors = Math.max(numOfUsedProcessors, processorId);
+
         // add this node to the solution path
-        nodesPath.add(currentNode);
+        path[pathSize++] = currentTask;
         // set current node's processor number.
-        nodeStates.get(currentNode).setProcessorId(processorId);
+        processorIds[currentTask] = (short) processorId;
         // set current node's indegree to -1 (all done.)
-        nodeStates.get(currentNode).setInDegree(-1);
+        inDegrees[currentTask] = -1;
 
         // decrease all direct children indegree by 1 (effectively get rid of the in edges from the current node to
         // all its children nodes).
-        List<Node> childrenNodes = InputGraph.get().getChildrenOfNode(currentNode);
-        for (Node childNode : childrenNodes) {
-            int currentInDegree = nodeStates.get(childNode).getInDegree();
-            nodeStates.get(childNode).setInDegree(currentInDegree - 1);
+        int[] children = problem.getChildren();
+        for (int i = problem.getChildrenStart(currentTask); i < problem.getChildrenEnd(currentTask); i++) {
+            if (--inDegrees[children[i]] == 0 && dataArrivals != null) {
+                calculateDataArrivals(children[i]);
+            }
+        }
+    }
+
+    /**
+     * calculate the data arrival times of a task that has just become available, see `dataArrivals`.
+     *
+     * @param task The index of the Task
+     */
+    private void calculateDataArrivals(int task) {
+        SchedulingProblem problem = context.getProblem();
+        int[] parents = problem.getParents();
+        int[] parentEdgeCosts = problem.getParentEdgeCosts();
+
+        // the same as in `calculateStartingTimes`, the data arrives at the latest remote arrival on every processor
+        // but the one that arrival comes from, and there at the latest of the local arrivals and the latest remote
+        // arrival from a different processor.
+        int latestRemote = 0;
+        int latestRemoteProcessor = 0;
+        int secondLatestRemote = 0;
+        for (int i = problem.getParentsStart(task); i < problem.getParentsEnd(task); i++) {
+            int parent = parents[i];
+            int processorId = processorIds[parent];
+            int remoteArrival = startingTimes[parent] + problem.getWeight(parent) + parentEdgeCosts[i];
+            if (remoteArrival > latestRemote) {
+                if (processorId != latestRemoteProcessor) {
+                    secondLatestRemote = latestRemote;
+                }
+                latestRemote = remoteArrival;
+                latestRemoteProcessor = processorId;
+            } else if (remoteArrival > secondLatestRemote && processorId != latestRemoteProcessor) {
+                secondLatestRemote = remoteArrival;
+            }
+        }
+        int arrivalOnLatestRemoteProcessor = secondLatestRemote;
+        for (int i = problem.getParentsStart(task); i < problem.getParentsEnd(task); i++) {
+            int parent = parents[i];
+            if (processorIds[parent] == latestRemoteProcessor) {
+                arrivalOnLatestRemoteProcessor = Math.max(arrivalOnLatestRemoteProcessor,
+                        startingTimes[parent] + problem.getWeight(parent));
+            }
         }
+
+        dataArrivals[task * DATA_ARRIVALS_STRIDE] = latestRemote;
+        dataArrivals[task * DATA_ARRIVALS_STRIDE + 1] = arrivalOnLatestRemoteProcessor;
+        dataArrivals[task * DATA_ARRIVALS_STRIDE + 2] = latestRemoteProcessor;
+    }
+
+    /**
+     * calculate the data ready time lower bound, i.e. the max over all available tasks of the earliest starting time
+     * on any processor plus the bottom level. Every available task still has to be scheduled after the tasks already
+     * on its processor, and after its data has arrived.
+     *
+     * @return int data ready time lower bound.
+     */
+    private int dataReadyTimeBound() {
+        SchedulingProblem problem = context.getProblem();
+        int numOfProcessors = processorFinishTimes.length - 1;
+
+        // the processor that is free the earliest, and the earliest time any other processor is free.
+        int earliestProcessor = 1;
+        int earliestFinishTime = processorFinishTimes[1];
+        int secondEarliestFinishTime = Integer.MAX_VALUE;
+        for (int p = 2; p <= numOfProcessors; p++) {
+            if (processorFinishTimes[p] < earliestFinishTime) {
+                secondEarliestFinishTime = earliestFinishTime;
+                earliestFinishTime = processorFinishTimes[p];
+                earliestProcessor = p;
+            } else if (processorFinishTimes[p] < secondEarliestFinishTime) {
+                secondEarliestFinishTime = processorFinishTimes[p];
+            }
+        }
+
+        int bound = 0;
+        int[] startingTimesOnProcessors = dataArrivals == null ? new int[processorFinishTimes.length] : null;
+        int[] localArrivalTimes = dataArrivals == null ? new int[processorFinishTimes.length] : null;
+        for (int task = 0; task < inDegrees.length; task++) {
+            if (inDegrees[task] != 0) {
+                continue;
+            }
+            int earliestStartTime;
+            if (dataArrivals != null) {
+                int latestRemote = dataArrivals[task * DATA_ARRIVALS_STRIDE];
+                int latestRemoteProcessor = dataArrivals[task * DATA_ARRIVALS_STRIDE + 2];
+                // on every processor but the latest remote one, the data is ready at the latest remote arrival.
+                int finishTimeElsewhere = earliestProcessor != latestRemoteProcessor
+                        ? earliestFinishTime : secondEarliestFinishTime;
+                earliestStartTime = finishTimeElsewhere == Integer.MAX_VALUE
+                        ? Integer.MAX_VALUE : Math.max(latestRemote, finishTimeElsewhere);
+                if (latestRemoteProcessor != 0) {
+                    earliestStartTime = Math.min(earliestStartTime, Math.max(
+                            dataArrivals[task * DATA_ARRIVALS_STRIDE + 1], processorFinishTimes[latestRemoteProcessor]));
+                }
+            } else {
+                // the bound was enabled after the search started, so the arrivals have to be calculated here.
+                calculateStartingTimes(task, startingTimesOnProcessors, localArrivalTimes);
+                earliestStartTime = Integer.MAX_VALUE;
+                for (int p = 1; p <= numOfProcessors; p++) {
+                    earliestStartTime = Math.min(earliestStartTime, startingTimesOnProcessors[p]);
+                }
+            }
+            bound = Math.max(bound, earliestStartTime + problem.getBottomLevel(task));
+        }
+        return bound;
     }
 
     /**
@@ -251,41 +729,220 @@ public class PartialSolution {
      * @return double       costFunction value of the current partial solution.
      */
     public double calculateCostFunction(Node currentNode, int processorId) {
+        return calculateCostFunction(currentNode.getIndex(), processorId);
+    }
+
+    /**
+     * calculate cost function value for the current partial solution.
+     *
+     * @param currentTask The index of the current Task that is going to be scheduled
+     * @param processorId Which Processor is the current Task is going to be scheduled on
+     * @return double       costFunction value of the current partial solution.
+     */
+    public double calculateCostFunction(int currentTask, int processorId) {
+        SchedulingProblem problem = context.getProblem();
 
-        // find idle time
-        idleTime += nodeStates.get(currentNode).getStartingTime() - findLastFinishTime(processorId);
+        // the cost function of a complete schedule is its finish time, whichever lower bounds are used.
+        if (pathSize == problem.getNumOfTasks()) {
+            return calculateEndScheduleTime();
+        }
 
-        // find the max bottomLevel + startingTime of scheduled node as of this partial solution.
-        double bottomLevel = 0;
-        for (Node node : nodesPath) {
-            bottomLevel = Math.max(bottomLevel,
-                    nodeStates.get(node).getStartingTime() + InputGraph.get().getBottomLevel(node));
+        // the max bottomLevel + startingTime of scheduled node as of this partial solution, and the idle time are
+        // both kept up to date as tasks are scheduled.
+        double costFunction = 0;
+        if (context.isEnabled(LowerBound.BOTTOM_LEVEL)) {
+            costFunction = maxBottomLevel;
         }
 
         // calculate the load balance of the current partial solution.
-        double loadBalance = (InputGraph.get().getSumWeightOfNodes() + idleTime) / (double) InputLoader.getNumOfProcessors();
+        if (context.isEnabled(LowerBound.IDLE_TIME)) {
+            double loadBalance = (problem.getSumOfWeights() + idleTime) / (double) context.getNumOfProcessors();
+            costFunction = Math.max(costFunction, loadBalance);
+        }
 
-        // Since the calculation of the futureMinBottomLevel is computer intensive, we pre-check that if the current
-        // bottom level and loadBalance is already greater than the Minimum Guess Cost, if so, there is no need to calculate
-        // the futureMinBottomLevel since we will be dropping this partial solution and all combination of its children
+        // Since the calculation of the lower bounds of the available tasks is computer intensive, we pre-check that if
+        // the current bottom level and loadBalance is already greater than the Minimum Guess Cost, if so, there is no
+        // need to calculate them since we will be dropping this partial solution and all combination of its children
         // from the solution tree.
-        if (InputGraph.getMinimumGuessCost() != 0 && Math.max(bottomLevel, loadBalance) > InputGraph.getMinimumGuessCost()) {
-            return Math.max(bottomLevel, loadBalance);
+        if (context.getMinimumGuessCost() != 0 && costFunction > context.getMinimumGuessCost()) {
+            return costFunction;
+        }
+        // return the MAX value from maxCurrentBottomLevel, currentLoadBalance, and the data ready time bound (or the
+        // futureMinBottomLevel it dominates) as the cost function value for the current partial solution.
+        if (context.isEnabled(LowerBound.DATA_READY_TIME)) {
+            costFunction = Math.max(costFunction, dataReadyTimeBound());
+        } else if (context.isEnabled(LowerBound.FUTURE_BOTTOM_LEVEL)) {
+            costFunction = Math.max(costFunction, futureMinBottomLevel());
+        }
+        return costFunction;
+    }
+
+    /**
+     * Calculate a 64-bit fingerprint of the (task -> processor, starting time) assignment of this partial solution.
+     * Processors are relabeled in the order of the lowest-index task they hold, so partial solutions that only differ
+     * by a permutation of the (homogeneous) processors have the same fingerprint, regardless of the order in which
+     * their tasks were scheduled. This is not the labeling of `getMaxCanonicalProcessor()`, which depends on the
+     * order the tasks were scheduled in, and two paths to the same partial schedule may label it differently.
+     *
+     * @return long     fingerprint of the partial solution.
+     */
+    public long calculateFingerprint() {
+        int[] canonicalIds = new int[context.getNumOfProcessors() + 1];
+        int nextCanonicalId = 0;
+        long fingerprint = pathSize;
+        for (int task = 0; task < processorIds.length; task++) {
+            int processorId = processorIds[task];
+            if (processorId == 0) {
+                continue;
+            }
+            if (canonicalIds[processorId] == 0) {
+                canonicalIds[processorId] = ++nextCanonicalId;
+            }
+            long entry = ((long) task << 40) ^ ((long) canonicalIds[processorId] << 32) ^ (startingTimes[task] & 0xFFFFFFFFL);
+            fingerprint = fingerprint * 0x9E3779B97F4A7C15L + mix(entry);
+        }
+        return mix(fingerprint);
+    }
+
+    /**
+     * helper method to scramble the bits of a long (the finalizer of MurmurHash3).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * @return the problem this partial solution is a schedule of
+     */
+    public SolverContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the number of bytes `writeTo` uses for a partial solution of the problem of the global context
+     */
+    public static int getRecordSize() {
+        return getRecordSize(SolverContext.global());
+    }
+
+    /**
+     * @param context the problem
+     * @return the number of bytes `writeTo` uses for a partial solution of the problem, rounded up to 8 bytes
+     * so records laid out one after another stay aligned.
+     */
+    public static int getRecordSize(SolverContext context) {
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        // cost function, path size, max bottom level, idle time and number of used processors.
+        int size = 8 + 4 * 4;
+        size += (context.getNumOfProcessors() + 1) * 4;
+        // path, processor ids, starting times and in-degrees.
+        size += numOfTasks * (4 + 2 + 4 + 4);
+        if (context.isEnabled(LowerBound.DATA_READY_TIME)) {
+            size += numOfTasks * DATA_ARRIVALS_STRIDE * 4;
+        }
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Serialize this partial solution into a record of `getRecordSize()` bytes, the undo information of in-place
+     * scheduling is not written.
+     *
+     * @param buffer the buffer to write to, its position is not changed
+     * @param offset the offset of the record in the buffer
+     */
+    public void writeTo(ByteBuffer buffer, int offset) {
+        ByteBuffer record = buffer.duplicate().order(buffer.order());
+        record.position(offset);
+        record.putDouble(costFunction).putInt(pathSize).putInt(maxBottomLevel).putInt(idleTime)
+                .putInt(numOfUsedProcessors);
+        record.asIntBuffer().put(processorFinishTimes);
+        record.position(record.position() + processorFinishTimes.length * 4);
+        record.asIntBuffer().put(path);
+        record.position(record.position() + path.length * 4);
+        record.asShortBuffer().put(processorIds);
+        record.position(record.position() + processorIds.length * 2);
+        record.asIntBuffer().put(startingTimes);
+        record.position(record.position() + startingTimes.length * 4);
+        record.asIntBuffer().put(inDegrees);
+        record.position(record.position() + inDegrees.length * 4);
+        if (dataArrivals != null) {
+            record.asIntBuffer().put(dataArrivals);
+        }
+    }
+
+    /**
+     * Deserialize a partial solution of the global context written by `writeTo`, the problem and the enabled lower
+     * bounds must not have changed in between.
+     *
+     * @param buffer the buffer to read from, its position is not changed
+     * @param offset the offset of the record in the buffer
+     * @return the partial solution
+     */
+    public static PartialSolution readFrom(ByteBuffer buffer, int offset) {
+        return readFrom(SolverContext.global(), buffer, offset);
+    }
+
+    /**
+     * Deserialize a partial solution written by `writeTo`.
+     *
+     * @param context the problem of the partial solution that was written
+     * @param buffer  the buffer to read from, its position is not changed
+     * @param offset  the offset of the record in the buffer
+     * @return the partial solution
+     */
+    public static PartialSolution readFrom(SolverContext context, ByteBuffer buffer, int offset) {
+        return new PartialSolution(context, buffer, offset);
+    }
+
+    /**
+     * Constructor for a partial solution read from a record, see `readFrom`.
+     */
+    private PartialSolution(SolverContext context, ByteBuffer buffer, int offset) {
+        this.context = context;
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        ByteBuffer record = buffer.duplicate().order(buffer.order());
+        record.position(offset);
+        costFunction = record.getDouble();
+        pathSize = record.getInt();
+        maxBottomLevel = record.getInt();
+        idleTime = record.getInt();
+        numOfUsedProcessors = record.getInt();
+        processorFinishTimes = new int[context.getNumOfProcessors() + 1];
+        record.asIntBuffer().get(processorFinishTimes);
+        record.position(record.position() + processorFinishTimes.length * 4);
+        path = new int[numOfTasks];
+        record.asIntBuffer().get(path);
+        record.position(record.position() + numOfTasks * 4);
+        processorIds = new short[numOfTasks];
+        record.asShortBuffer().get(processorIds);
+        record.position(record.position() + numOfTasks * 2);
+        startingTimes = new int[numOfTasks];
+        record.asIntBuffer().get(startingTimes);
+        record.position(record.position() + numOfTasks * 4);
+        inDegrees = new int[numOfTasks];
+        record.asIntBuffer().get(inDegrees);
+        record.position(record.position() + numOfTasks * 4);
+        if (context.isEnabled(LowerBound.DATA_READY_TIME)) {
+            dataArrivals = new int[numOfTasks * DATA_ARRIVALS_STRIDE];
+            record.asIntBuffer().get(dataArrivals);
         }
-        // return the MAX value from maxCurrentBottomLevel, currentLoadBalance, and futureMinBottomLevel
-        // as the cost function value for the current partial solution.
-        return Math.max(Math.max(bottomLevel, loadBalance), futureMinBottomLevel());
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (Node node : nodesPath) {
-            sb.append(node.getId()).append(": ");
-            sb.append(nodeStates.get(node).getProcessorId()).append(" ");
+        for (int i = 0; i < pathSize; i++) {
+            int task = path[i];
+            sb.append(context.getProblem().getTaskId(task)).append(": ");
+            sb.append(processorIds[task]).append(" ");
         }
         return "PartialSolution{" +
-                "nodesPath=" + nodesPath + " (" + sb + " )" +
+                "nodesPath=" + getNodesPath() + " (" + sb + " )" +
                 "endTime=" + this.calculateEndScheduleTime() +
                 '}';
     }
@@ -297,10 +954,8 @@ public class PartialSolution {
      */
     public int calculateEndScheduleTime() {
         int finishingTime = 0;
-        for (Node node : nodesPath) {
-            int weight = (int) InputGraph.get().getNodeWeightById(node.getId());
-            int startingTime = nodeStates.get(node).getStartingTime();
-            finishingTime = Math.max(finishingTime, weight + startingTime);
+        for (int finishTime : processorFinishTimes) {
+            finishingTime = Math.max(finishingTime, finishTime);
         }
         return finishingTime;
     }
@@ -313,87 +968,46 @@ public class PartialSolution {
      * @return List  contains all possible PartialSolution
      */
     public List<PartialSolution> getNextPartialSolution(Node node) {
+        return getNextPartialSolution(node.getIndex());
+    }
 
-        List<PartialSolution> nextPartialSolution = new ArrayList<>();
+    /**
+     * According to current task to find its all possible PartialSolution(not include pruning PartialSolution).
+     *
+     * @param node index of the current Task
+     * @return List  contains all possible PartialSolution
+     */
+    public List<PartialSolution> getNextPartialSolution(int node) {
 
-        PriorityQueue<PartialSolution> leafNodeQueue = new PriorityQueue<>((x1, x2) -> {
-            // compare the last node's starting time on the Node Path between 2 solutions.
-            return x1.getNodeStates().get(x1.getNodesPath().get(x1.getNodesPath().size() - 1)).getStartingTime()
-                    - x2.getNodeStates().get(x1.getNodesPath().get(x1.getNodesPath().size() - 1)).getStartingTime();
-        });
-
-        // if this node is the first node, then we just assign it to the first processor
-        if (this.getNodesPath().size() == 0) {
-            PartialSolution current = new PartialSolution(this, node, 1);
-            nextPartialSolution.add(current);
-            return nextPartialSolution;
-        } else {
-            List<Integer> emptyProcessorIds = new ArrayList<>();
-            List<Integer> notEmptyProcessorIds = new ArrayList<>();
-            // check for duplicate(homogeneous) empty processors
-            for (int i = 1; i <= InputLoader.getNumOfProcessors(); i++) {
-                if (this.findLastFinishTime(i) == 0) {
-                    emptyProcessorIds.add(i);
-                } else {
-                    notEmptyProcessorIds.add(i);
-                }
-            }
+        int numOfTasks = context.getProblem().getNumOfTasks();
+        List<PartialSolution> nextPartialSolution = new ArrayList<>();
+        PartialSolution bestLeafNode = null;
 
-            // if empty processor count is less or equal to 1, it means that there are no homogeneous
-            // empty processors, carry on with normal operations.
-            if (emptyProcessorIds.size() <= 1) {
-
-                for (int i = 1; i <= InputLoader.getNumOfProcessors(); i++) {
-                    PartialSolution current = new PartialSolution(this, node, i);
-                    // if we have reached leaf node of the solution tree, then return the
-                    // current partial solution as optimal solution, by determining the optimal processorId
-                    // that the leaf task node is being scheduled.
-                    if (current.getNodesPath().size() == InputGraph.get().getNodeCount()) {
-                        leafNodeQueue.offer(current);
-                        if (i == InputLoader.getNumOfProcessors()) {
-                            nextPartialSolution.add(leafNodeQueue.peek());
-                            return nextPartialSolution;
-                        }
-                    } else {
-                        // add to the solutionQueue, if the projected underestimate cost from the current node on the
-                        // solution tree is greater than the minimum guess cost we found from the `AStarUtil` methods,
-                        // effectively it means the minimum cost to reach the leaf node of the solution tree from the
-                        // current node is greater than the Projected Upper Limit of the cost. Therefore, we will discard
-                        // the current node and all of its children nodes on the solution tree. Otherwise, we will add
-                        // the current partial solution into the solution Priority queue.
-                        if (current.calculateCostFunction(node, i) <= InputGraph.getMinimumGuessCost()) {
-                            nextPartialSolution.add(current);
-                        }
-                    }
+        // processors after the first unused one would only repeat its schedules with the processors relabeled, so
+        // they are not tried. In particular the first task of the whole schedule always goes on processor 1.
+        for (int i = 1; i <= getMaxCanonicalProcessor(); i++) {
+            PartialSolution current = new PartialSolution(this, node, i);
+            // if we have reached leaf node of the solution tree, then only keep the processor that the leaf task
+            // starts the earliest on, it is the one with the lowest finishing time.
+            if (current.pathSize == numOfTasks) {
+                if (bestLeafNode == null || current.startingTimes[node] < bestLeafNode.startingTimes[node]) {
+                    bestLeafNode = current;
                 }
-
-                // if 2 or more empty processor before the current task being scheduled, we can arbitrarily choose
-                // which empty processor should the task be scheduled on, by convention, we choose the empty processor
-                // with the smallest lexicographically ordered processorID. As this would have the same effect if
-                // any other empty processor was chosen to schedule the current task on. By having this step, a lot of computation
-                // time would be saved if the task is being scheduled on a lot of processors.
             } else {
-
-                notEmptyProcessorIds.add(emptyProcessorIds.get(0));
-                for (int i = 0; i < notEmptyProcessorIds.size(); i++) {
-                    PartialSolution current = new PartialSolution(this, node, notEmptyProcessorIds.get(i));
-                    // if we have reached leaf node of the solution tree, then return the
-                    // current partial solution as optimal solution, by determining the optimal processorId
-                    // that the leaf task node is being scheduled.
-                    if (current.getNodesPath().size() == InputGraph.get().getNodeCount()) {
-                        leafNodeQueue.offer(current);
-                        if (i == notEmptyProcessorIds.size() - 1) {
-                            nextPartialSolution.add(leafNodeQueue.peek());
-                            return nextPartialSolution;
-                        }
-                    } else {
-                        if (current.calculateCostFunction(node, notEmptyProcessorIds.get(i)) <= InputGraph.getMinimumGuessCost()) {
-                            nextPartialSolution.add(current);
-                        }
-                    }
+                // add to the solutionQueue, if the projected underestimate cost from the current node on the
+                // solution tree is greater than the minimum guess cost we found from the `AStarUtil` methods,
+                // effectively it means the minimum cost to reach the leaf node of the solution tree from the
+                // current node is greater than the Projected Upper Limit of the cost. Therefore, we will discard
+                // the current node and all of its children nodes on the solution tree. Otherwise, we will add
+                // the current partial solution into the solution Priority queue.
+                if (current.getCostFunction() <= context.getMinimumGuessCost()) {
+                    nextPartialSolution.add(current);
                 }
             }
         }
+        if (bestLeafNode != null) {
+            nextPartialSolution.add(bestLeafNode);
+        }
         return nextPartialSolution;
     }
 
@@ -406,8 +1020,8 @@ public class PartialSolution {
 
         List<PartialSolution> res = new ArrayList<>();
 
-        for (Node node : getAvailableNextNodes()) {
-            res.addAll(getNextPartialSolution(node));
+        for (int task : getAvailableNextTasks()) {
+            res.addAll(getNextPartialSolution(task));
         }
         return res;
     }
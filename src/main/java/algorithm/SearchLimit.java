@@ -0,0 +1,83 @@
+package algorithm;
+
+/**
+ * A deadline and a cancellation token shared by the searches of one solve. The searches check it every few
+ * expansions, so a cancellation or a passed deadline is noticed soon without reading the clock all the time, and then
+ * return the best schedule they have found so far.
+ */
+public class SearchLimit {
+
+    // the limit is checked every this many expansions.
+    private static final int CHECK_INTERVAL = 64;
+
+    private final long deadline;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+
+    /**
+     * @param deadline the value of `System.nanoTime()` at which the searches stop
+     */
+    public SearchLimit(long deadline) {
+        this(deadline, true);
+    }
+
+    private SearchLimit(long deadline, boolean hasDeadline) {
+        this.deadline = deadline;
+        this.hasDeadline = hasDeadline;
+    }
+
+    /**
+     * @return a limit without deadline, which only stops the searches if it is cancelled
+     */
+    public static SearchLimit none() {
+        return new SearchLimit(0, false);
+    }
+
+    /**
+     * @param seconds the time the searches may take from now
+     * @return a limit with a deadline that many seconds from now
+     */
+    public static SearchLimit ofSeconds(double seconds) {
+        return new SearchLimit(System.nanoTime() + (long) (seconds * 1e9));
+    }
+
+    /**
+     * Stop the searches, they return their best schedule so far the next time they check the limit.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return whether the deadline has passed
+     */
+    public boolean isTimedOut() {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return whether the searches should stop now
+     */
+    public boolean isReached() {
+        return cancelled || isTimedOut();
+    }
+
+    /**
+     * @param numOfExpansions the number of expansions of the caller so far
+     * @return whether the searches should stop, only checked every `CHECK_INTERVAL` expansions
+     */
+    public boolean isReached(long numOfExpansions) {
+        return numOfExpansions % CHECK_INTERVAL == 0 && isReached();
+    }
+
+    /**
+     * @return the status of a search stopped by this limit, CANCELLED if it was cancelled, TIMEOUT otherwise
+     */
+    public SearchStatus getStopStatus() {
+        return cancelled ? SearchStatus.CANCELLED : SearchStatus.TIMEOUT;
+    }
+}
@@ -0,0 +1,155 @@
+package algorithm;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A scope for the tasks of one search, in the spirit of structured concurrency (`StructuredTaskScope` of later JDKs)
+ * on Java 11. The tasks forked in a scope run on a pool of threads shared by all searches, so threads are reused from
+ * one solve to the next, and none of them outlives the scope: `join` waits for all of them to finish.
+ * The first task that fails shuts the scope down and its failure is rethrown by `join`, and a search shuts its scope
+ * down itself once it has its result, e.g. when it is proven optimal, so the other tasks stop rather than keep
+ * searching. Shutting down interrupts the tasks, but as they rarely block, they are expected to check `isShutdown()`.
+ */
+public class SearchScope implements AutoCloseable {
+
+    private static final ExecutorService SHARED_POOL = Executors.newCachedThreadPool(new DaemonThreadFactory("search"));
+
+    private final ExecutorService executorService;
+    // registered once per unfinished task, and once for the owner of the scope, which stays registered when it arrives
+    // so it can join again.
+    private final Phaser phaser = new Phaser(1);
+    private final Set<Thread> runningThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean shutdown;
+
+    /**
+     * Create a scope whose tasks run on the pool shared by all searches, which has a thread for every task that is
+     * running, so tasks that run for the whole search do not wait for each other.
+     */
+    public SearchScope() {
+        this(SHARED_POOL);
+    }
+
+    /**
+     * @param executorService the pool to run the tasks on, it is not shut down with the scope
+     */
+    public SearchScope(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Start the task in this scope, it does not start at all if the scope has been shut down before it runs.
+     *
+     * @param task the task to run
+     */
+    public void fork(Callable<?> task) {
+        phaser.register();
+        try {
+            executorService.execute(() -> run(task));
+        } catch (RuntimeException e) {
+            phaser.arriveAndDeregister();
+            throw e;
+        }
+    }
+
+    private void run(Callable<?> task) {
+        Thread thread = Thread.currentThread();
+        runningThreads.add(thread);
+        try {
+            if (!shutdown) {
+                task.call();
+            }
+        } catch (Throwable e) {
+            // a task that was interrupted by the shut down has not failed.
+            if (!shutdown || !(e instanceof InterruptedException)) {
+                failure.compareAndSet(null, e);
+            }
+            shutdown();
+        } finally {
+            runningThreads.remove(thread);
+            // do not let the interrupt of the shut down leak into the next task of the pool.
+            Thread.interrupted();
+            phaser.arriveAndDeregister();
+        }
+    }
+
+    /**
+     * Stop the tasks of this scope, those that have not started will not, and the running ones are interrupted.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Thread thread : runningThreads) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return whether the scope has been shut down, the tasks should stop as soon as they can
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Wait for all tasks of this scope to finish.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting, the scope is shut down and the
+     *                              tasks are waited for once more before it is thrown
+     * @throws ExecutionException   with the failure of the first task that failed
+     */
+    public void join() throws InterruptedException, ExecutionException {
+        int phase = phaser.arrive();
+        try {
+            phaser.awaitAdvanceInterruptibly(phase);
+        } catch (InterruptedException e) {
+            shutdown();
+            phaser.awaitAdvance(phase);
+            throw e;
+        }
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new ExecutionException(cause);
+        }
+    }
+
+    /**
+     * Shut the scope down and wait for its tasks, so none of them outlives it.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        phaser.awaitAdvance(phaser.arrive());
+    }
+
+    /**
+     * Creates the daemon threads of the pools kept for the whole program, so an idle pool does not keep it running.
+     */
+    static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger nextId = new AtomicInteger();
+
+        /**
+         * @param name the name of the threads, followed by their number
+         */
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + nextId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package algorithm;
+
+/**
+ * How a search ended.
+ */
+public enum SearchStatus {
+    // the search ran to the end, so its schedule is optimal.
+    OPTIMAL,
+    // the deadline of the search limit passed, the schedule is the best one found so far.
+    TIMEOUT,
+    // the search limit was cancelled, the schedule is the best one found so far.
+    CANCELLED
+}
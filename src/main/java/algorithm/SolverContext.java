@@ -0,0 +1,149 @@
+package algorithm;
+
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import models.SchedulingProblem;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Everything a solve needs to know about the problem it is solving: the graph, the number of processors, the lower
+ * bounds of the cost function, and the best makespan found so far (the minimum guess cost), which every partial
+ * solution of the solve is pruned against. Every partial solution and search belongs to one context, so independent
+ * solves with their own contexts can run at the same time in one program.
+ * The global context is the one of the program's input, it reads `InputGraph`, `InputLoader` and `LowerBound` every
+ * time, and is used wherever no context is given.
+ */
+public class SolverContext {
+
+    private static final SolverContext GLOBAL = new GlobalContext();
+
+    private final Digraph graph;
+    private final SchedulingProblem problem;
+    private final int numOfProcessors;
+    private final EnumSet<LowerBound> lowerBounds;
+    private volatile int minimumGuessCost;
+    // the partial solution being expanded, for the visualisation.
+    private volatile PartialSolution currentSolution;
+
+    /**
+     * @param graph           the graph to schedule, `Digraph.getProblem()` has to be built already
+     * @param numOfProcessors the number of processors
+     */
+    public SolverContext(Digraph graph, int numOfProcessors) {
+        this(graph, numOfProcessors, LowerBound.getEnabled());
+    }
+
+    /**
+     * @param graph           the graph to schedule
+     * @param numOfProcessors the number of processors
+     * @param lowerBounds     the lower bounds the cost function uses
+     */
+    public SolverContext(Digraph graph, int numOfProcessors, Set<LowerBound> lowerBounds) {
+        this.graph = graph;
+        this.problem = graph == null ? null : graph.getProblem();
+        this.numOfProcessors = numOfProcessors;
+        this.lowerBounds = EnumSet.noneOf(LowerBound.class);
+        this.lowerBounds.addAll(lowerBounds);
+    }
+
+    /**
+     * @return the context of the program's input, see `InputGraph` and `InputLoader`
+     */
+    public static SolverContext global() {
+        return GLOBAL;
+    }
+
+    public Digraph getGraph() {
+        return graph;
+    }
+
+    public SchedulingProblem getProblem() {
+        return problem;
+    }
+
+    public int getNumOfProcessors() {
+        return numOfProcessors;
+    }
+
+    /**
+     * @param lowerBound a lower bound of the cost function
+     * @return whether the cost function uses it
+     */
+    public boolean isEnabled(LowerBound lowerBound) {
+        return lowerBounds.contains(lowerBound);
+    }
+
+    /**
+     * @return the lower bounds the cost function uses
+     */
+    public Set<LowerBound> getLowerBounds() {
+        return EnumSet.copyOf(lowerBounds);
+    }
+
+    /**
+     * @return the makespan of the best schedule so far, partial solutions with a higher cost function are pruned
+     */
+    public int getMinimumGuessCost() {
+        return minimumGuessCost;
+    }
+
+    public void setMinimumGuessCost(int minimumGuessCost) {
+        this.minimumGuessCost = minimumGuessCost;
+    }
+
+    public PartialSolution getCurrentSolution() {
+        return currentSolution;
+    }
+
+    public void setCurrentSolution(PartialSolution currentSolution) {
+        this.currentSolution = currentSolution;
+    }
+
+    /**
+     * The context of the program's input, which may be replaced at any time by loading another graph.
+     */
+    private static class GlobalContext extends SolverContext {
+
+        GlobalContext() {
+            super(null, 0, EnumSet.noneOf(LowerBound.class));
+        }
+
+        @Override
+        public Digraph getGraph() {
+            return InputGraph.get();
+        }
+
+        @Override
+        public SchedulingProblem getProblem() {
+            return InputGraph.getProblem();
+        }
+
+        @Override
+        public int getNumOfProcessors() {
+            return InputLoader.getNumOfProcessors();
+        }
+
+        @Override
+        public boolean isEnabled(LowerBound lowerBound) {
+            return lowerBound.isEnabled();
+        }
+
+        @Override
+        public Set<LowerBound> getLowerBounds() {
+            return LowerBound.getEnabled();
+        }
+
+        @Override
+        public int getMinimumGuessCost() {
+            return InputGraph.getMinimumGuessCost();
+        }
+
+        @Override
+        public void setMinimumGuessCost(int minimumGuessCost) {
+            InputGraph.setMinimumGuessCost(minimumGuessCost);
+        }
+    }
+}
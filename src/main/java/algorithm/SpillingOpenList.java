@@ -0,0 +1,129 @@
+package algorithm;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * An open queue that keeps its partial solutions in an `OffHeapOpenList`, and spills them to a `BucketOpenList` on
+ * the heap once the arena is full, so a search with a small arena still finishes, just with more work for the garbage
+ * collector. A poll takes the lower cost function of the tops of the two queues.
+ * Not thread safe, every worker of `ParallelAStar` has its own.
+ */
+public class SpillingOpenList extends AbstractQueue<PartialSolution> {
+
+    private final OffHeapOpenList offHeapOpenList;
+    private final Queue<PartialSolution> spilled = new BucketOpenList();
+    private long numOfSpilled;
+
+    /**
+     * @param offHeapOpenList the queue to keep the partial solutions in while its arena has room
+     */
+    public SpillingOpenList(OffHeapOpenList offHeapOpenList) {
+        this.offHeapOpenList = offHeapOpenList;
+    }
+
+    /**
+     * @param partialSolution the partial solution to add, to the heap if the arena is full
+     * @return true
+     */
+    @Override
+    public boolean offer(PartialSolution partialSolution) {
+        if (!offHeapOpenList.offer(partialSolution)) {
+            spilled.offer(partialSolution);
+            numOfSpilled++;
+        }
+        return true;
+    }
+
+    @Override
+    public PartialSolution poll() {
+        return isOffHeapFirst() ? offHeapOpenList.poll() : spilled.poll();
+    }
+
+    @Override
+    public PartialSolution peek() {
+        return isOffHeapFirst() ? offHeapOpenList.peek() : spilled.peek();
+    }
+
+    /**
+     * @return the lower cost function of the tops of the two queues, without deserializing a partial solution, or
+     * infinity if both are empty
+     */
+    public double peekCostFunction() {
+        PartialSolution top = spilled.peek();
+        double costFunction = offHeapOpenList.peekCostFunction();
+        return top == null ? costFunction : Math.min(costFunction, top.getCostFunction());
+    }
+
+    @Override
+    public int size() {
+        return offHeapOpenList.size() + spilled.size();
+    }
+
+    @Override
+    public void clear() {
+        offHeapOpenList.clear();
+        spilled.clear();
+    }
+
+    /**
+     * Remove all partial solutions and let go of the arena, see `OffHeapOpenList.release`.
+     */
+    public void release() {
+        offHeapOpenList.release();
+        spilled.clear();
+    }
+
+    /**
+     * @return an iterator over the partial solutions off the heap and then the spilled ones, in no particular order,
+     * it does not support removal
+     */
+    @Override
+    public Iterator<PartialSolution> iterator() {
+        return new Iterator<PartialSolution>() {
+            private final Iterator<PartialSolution> offHeap = offHeapOpenList.iterator();
+            private final Iterator<PartialSolution> onHeap = spilled.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return offHeap.hasNext() || onHeap.hasNext();
+            }
+
+            @Override
+            public PartialSolution next() {
+                if (offHeap.hasNext()) {
+                    return offHeap.next();
+                }
+                if (onHeap.hasNext()) {
+                    return onHeap.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    /**
+     * @return the queue off the heap
+     */
+    public OffHeapOpenList getOffHeapOpenList() {
+        return offHeapOpenList;
+    }
+
+    /**
+     * @return the number of partial solutions spilled to the heap so far
+     */
+    public long getNumOfSpilled() {
+        return numOfSpilled;
+    }
+
+    /**
+     * @return whether the next partial solution comes from the queue off the heap, its top is only deserialized when
+     * it is polled
+     */
+    private boolean isOffHeapFirst() {
+        PartialSolution top = spilled.peek();
+        return top == null || offHeapOpenList.peekCostFunction() <= top.getCostFunction();
+    }
+}
@@ -0,0 +1,439 @@
+package io;
+
+import models.SchedulingProblem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single pass parser for the subset of the DOT language used for task graphs, i.e. a digraph whose nodes and edges
+ * have a "Weight" attribute. The file is memory mapped and tokenised byte by byte, and the tasks and edges go
+ * straight into the arrays of a `SchedulingProblem`, without building a GraphStream graph first.
+ * Tasks are indexed in the order they first appear, which is the same order GraphStream's DOT reader adds nodes in.
+ * Other attributes, default attribute statements (graph/node/edge [...]), subgraphs and comments are skipped.
+ */
+public class DotParser {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ByteBuffer buffer;
+    private int line = 1;
+
+    // the text of the last token read by `nextToken`
+    private String token;
+    private boolean isQuoted;
+    // start of the last token in the buffer, so it can be pushed back
+    private int tokenStart;
+    private int tokenLine;
+
+    private final Map<String, Integer> taskIndices = new HashMap<>();
+    private String[] taskIds = new String[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int numOfTasks;
+
+    private int[] edgeSources = new int[INITIAL_CAPACITY];
+    private int[] edgeTargets = new int[INITIAL_CAPACITY];
+    private int[] edgeCosts = new int[INITIAL_CAPACITY];
+    private int numOfEdges;
+
+    private DotParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Parse the dot file at the path.
+     *
+     * @param path path of the dot file
+     * @return the scheduling problem described by the file, named after the graph
+     * @throws IOException if the file can not be read or is not a valid task graph
+     */
+    public static SchedulingProblem parse(String path) throws IOException {
+        return parse(Paths.get(path));
+    }
+
+    /**
+     * Parse the dot file at the path.
+     *
+     * @param path path of the dot file
+     * @return the scheduling problem described by the file, named after the graph
+     * @throws IOException if the file can not be read or is not a valid task graph
+     */
+    public static SchedulingProblem parse(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DotParser(buffer).parseGraph();
+        }
+    }
+
+    /**
+     * Parse dot text that is already in memory.
+     *
+     * @param buffer the dot text, read from its position to its limit
+     * @return the scheduling problem described by the text, named after the graph
+     * @throws IOException if the text is not a valid task graph
+     */
+    public static SchedulingProblem parse(ByteBuffer buffer) throws IOException {
+        return new DotParser(buffer).parseGraph();
+    }
+
+    /**
+     * graph : [strict] (digraph | graph) [ID] '{' stmt* '}'
+     */
+    private SchedulingProblem parseGraph() throws IOException {
+        String keyword = expectId();
+        if (keyword.equalsIgnoreCase("strict")) {
+            keyword = expectId();
+        }
+        if (!keyword.equalsIgnoreCase("digraph") && !keyword.equalsIgnoreCase("graph")) {
+            throw error("expected digraph but found " + keyword);
+        }
+
+        String name = "";
+        if (!nextToken()) {
+            throw error("unexpected end of file");
+        }
+        if (!isPunctuation("{")) {
+            name = token;
+            expect("{");
+        }
+
+        parseStatements();
+
+        try {
+            return new SchedulingProblem(name, Arrays.copyOf(taskIds, numOfTasks), Arrays.copyOf(weights, numOfTasks),
+                    Arrays.copyOf(edgeSources, numOfEdges), Arrays.copyOf(edgeTargets, numOfEdges),
+                    Arrays.copyOf(edgeCosts, numOfEdges));
+        } catch (IllegalArgumentException e) {
+            // e.g. the graph has a cycle.
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * stmt* '}', where stmt is one of
+     * ID [attr_list] | ID '->' ID ('->' ID)* [attr_list] | (graph | node | edge) attr_list | ID '=' ID | subgraph
+     */
+    private void parseStatements() throws IOException {
+        while (true) {
+            if (!nextToken()) {
+                throw error("unexpected end of file, missing }");
+            }
+            if (isPunctuation("}")) {
+                return;
+            }
+            if (isPunctuation(";")) {
+                continue;
+            }
+            if (isPunctuation("{")) {
+                // an anonymous subgraph, its nodes and edges belong to the graph as well
+                parseStatements();
+                continue;
+            }
+            if (isPunctuation()) {
+                throw error("unexpected " + token);
+            }
+
+            if (!isQuoted && (token.equalsIgnoreCase("graph") || token.equalsIgnoreCase("node")
+                    || token.equalsIgnoreCase("edge"))) {
+                expect("[");
+                parseAttributes();
+                continue;
+            }
+            if (!isQuoted && token.equalsIgnoreCase("subgraph")) {
+                nextToken();
+                if (!isPunctuation("{")) {
+                    expect("{");
+                }
+                parseStatements();
+                continue;
+            }
+
+            String id = token;
+            if (!nextToken()) {
+                throw error("unexpected end of file, missing }");
+            }
+            if (isPunctuation("=")) {
+                // a graph attribute
+                expectId();
+                continue;
+            }
+
+            int task = getTask(id);
+            if (isPunctuation("->")) {
+                int firstEdge = numOfEdges;
+                int source = task;
+                while (true) {
+                    int target = getTask(expectId());
+                    addEdge(source, target);
+                    source = target;
+                    if (!nextToken() || !isPunctuation("->")) {
+                        break;
+                    }
+                }
+                if (isPunctuation("[")) {
+                    int weight = parseAttributes();
+                    if (weight >= 0) {
+                        Arrays.fill(edgeCosts, firstEdge, numOfEdges, weight);
+                    }
+                } else {
+                    pushBack();
+                }
+            } else if (isPunctuation("[")) {
+                int weight = parseAttributes();
+                if (weight >= 0) {
+                    weights[task] = weight;
+                }
+            } else {
+                pushBack();
+            }
+        }
+    }
+
+    /**
+     * attr_list : '[' (ID '=' ID [';' | ','])* ']', the opening bracket has been read already.
+     *
+     * @return the value of the Weight attribute, or -1 if there is none
+     */
+    private int parseAttributes() throws IOException {
+        int weight = -1;
+        while (true) {
+            if (!nextToken()) {
+                throw error("unexpected end of file, missing ]");
+            }
+            if (isPunctuation("]")) {
+                return weight;
+            }
+            if (isPunctuation(",") || isPunctuation(";")) {
+                continue;
+            }
+            if (isPunctuation()) {
+                throw error("unexpected " + token);
+            }
+            String key = token;
+            expect("=");
+            String value = expectId();
+            if (key.equals("Weight")) {
+                weight = parseWeight(value);
+            }
+        }
+    }
+
+    /**
+     * helper method to parse a weight, which is normally an integer but may be written as a decimal.
+     */
+    private int parseWeight(String value) throws IOException {
+        int result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                try {
+                    return (int) Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    throw error("invalid Weight " + value);
+                }
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the task with the id, adding a new task if it has not been seen before
+     */
+    private int getTask(String id) {
+        Integer task = taskIndices.get(id);
+        if (task != null) {
+            return task;
+        }
+        if (numOfTasks == taskIds.length) {
+            taskIds = Arrays.copyOf(taskIds, numOfTasks * 2);
+            weights = Arrays.copyOf(weights, numOfTasks * 2);
+        }
+        taskIds[numOfTasks] = id;
+        taskIndices.put(id, numOfTasks);
+        return numOfTasks++;
+    }
+
+    private void addEdge(int source, int target) {
+        if (numOfEdges == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, numOfEdges * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, numOfEdges * 2);
+            edgeCosts = Arrays.copyOf(edgeCosts, numOfEdges * 2);
+        }
+        edgeSources[numOfEdges] = source;
+        edgeTargets[numOfEdges] = target;
+        numOfEdges++;
+    }
+
+    /**
+     * Un-read the last token, so the next call of `nextToken` returns it again.
+     */
+    private void pushBack() {
+        buffer.position(tokenStart);
+        line = tokenLine;
+    }
+
+    /**
+     * Read the next token, which is either an ID (a name, a number or a quoted string) or a punctuation mark.
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextToken() throws IOException {
+        skipWhitespaceAndComments();
+        tokenStart = buffer.position();
+        tokenLine = line;
+        if (!buffer.hasRemaining()) {
+            token = null;
+            return false;
+        }
+
+        isQuoted = false;
+        byte b = buffer.get();
+        if (b == '"') {
+            isQuoted = true;
+            token = readQuoted();
+        } else if (b == '-' && buffer.hasRemaining() && (buffer.get(buffer.position()) == '>'
+                || buffer.get(buffer.position()) == '-')) {
+            buffer.get();
+            // undirected edges are read as directed ones
+            token = "->";
+        } else if (isIdByte(b) || b == '-') {
+            int start = buffer.position() - 1;
+            while (buffer.hasRemaining() && isIdByte(buffer.get(buffer.position()))) {
+                buffer.get();
+            }
+            token = decode(start, buffer.position());
+        } else if ("{}[]=;,:".indexOf(b) >= 0) {
+            token = String.valueOf((char) b);
+        } else {
+            throw error("unexpected character " + (char) b);
+        }
+        return true;
+    }
+
+    /**
+     * helper method to read the rest of a quoted string, the opening quote has been read already.
+     */
+    private String readQuoted() throws IOException {
+        int start = buffer.position();
+        boolean hasEscape = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                throw error("unterminated string");
+            }
+            byte b = buffer.get();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\' && buffer.hasRemaining()) {
+                buffer.get();
+                hasEscape = true;
+            } else if (b == '\n') {
+                line++;
+            }
+        }
+        String result = decode(start, buffer.position() - 1);
+        return hasEscape ? result.replace("\\\"", "\"").replace("\\\n", "") : result;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get(buffer.position());
+            if (b == '\n') {
+                line++;
+                buffer.get();
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                buffer.get();
+            } else if (b == '#' && isAtLineStart()) {
+                skipLine();
+            } else if (b == '/' && buffer.remaining() > 1 && buffer.get(buffer.position() + 1) == '/') {
+                skipLine();
+            } else if (b == '/' && buffer.remaining() > 1 && buffer.get(buffer.position() + 1) == '*') {
+                buffer.position(buffer.position() + 2);
+                while (buffer.hasRemaining()) {
+                    byte c = buffer.get();
+                    if (c == '\n') {
+                        line++;
+                    } else if (c == '*' && buffer.hasRemaining() && buffer.get(buffer.position()) == '/') {
+                        buffer.get();
+                        break;
+                    }
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether only whitespace comes before the current position on its line
+     */
+    private boolean isAtLineStart() {
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                return true;
+            }
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipLine() {
+        while (buffer.hasRemaining() && buffer.get(buffer.position()) != '\n') {
+            buffer.get();
+        }
+    }
+
+    private static boolean isIdByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == '.'
+                || b < 0;
+    }
+
+    /**
+     * helper method to decode the bytes between start and end as UTF-8.
+     */
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isPunctuation() {
+        return !isQuoted && token != null && (token.equals("->") || (token.length() == 1
+                && "{}[]=;,:".indexOf(token.charAt(0)) >= 0));
+    }
+
+    private boolean isPunctuation(String punctuation) {
+        return !isQuoted && punctuation.equals(token);
+    }
+
+    private void expect(String punctuation) throws IOException {
+        if (!nextToken() || !isPunctuation(punctuation)) {
+            throw error("expected " + punctuation + " but found " + (token == null ? "end of file" : token));
+        }
+    }
+
+    private String expectId() throws IOException {
+        if (!nextToken() || isPunctuation()) {
+            throw error("expected an id but found " + (token == null ? "end of file" : token));
+        }
+        return token;
+    }
+
+    private IOException error(String message) {
+        return new IOException("line " + line + ": " + message);
+    }
+}
@@ -9,6 +9,7 @@ import org.graphstream.stream.file.FileSourceDOT;
 import models.Digraph;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 public class InputLoader {
 
@@ -23,41 +24,67 @@ public class InputLoader {
     }
 
     /**
-     * To load graph from .dot file using graph stream api
+     * To load graph from .dot file using `DotParser`
      *
      * @param graphName The name of the graph, this name must be a folder name in the "examples" folder at root level,
      *                  the file that the loader will load the data from is "examples/<graphName>/in.dot
      * @return a Graph instance that represents the data read from input file
      */
     public static Digraph loadDotFile(String graphName) {
-        String relativePath = "examples/" + graphName + "/in.dot";
-        Digraph graph = new Digraph("solution." + graphName);
-        FileSource fileSource = new FileSourceDOT();
-        fileSource.addSink(graph);
+        return loadDotFile("examples/" + graphName + "/in.dot", "solution." + graphName);
+    }
+
+    /**
+     * Load the graph using relative path
+     *
+     * @param path the relative path of the dot file
+     * @return the graph that is loaded from the dot file
+     */
+    public static Digraph loadDotFileFromPath(String path) {
+        return loadDotFile(path, "solution." + path);
+    }
+
+    /**
+     * Load the graph, reporting a file that can not be read or parsed to the caller rather than returning an empty
+     * graph, e.g. for one graph of a batch.
+     *
+     * @param path the path of the dot file
+     * @return the graph that is loaded from the dot file
+     * @throws IOException if the file can not be read or is not a valid task graph
+     */
+    public static Digraph parseDotFile(Path path) throws IOException {
+        return Digraph.fromProblem("solution." + path, DotParser.parse(path));
+    }
+
+    /**
+     * helper method to parse the dot file with `DotParser` and build the digraph from the parsed scheduling problem.
+     */
+    private static Digraph loadDotFile(String path, String digraphId) {
         try {
-            fileSource.readAll(relativePath);
-            graph.initialize();
+            return Digraph.fromProblem(digraphId, DotParser.parse(path));
         } catch (IOException e) {
-            System.err.println(e.getMessage());
+            System.err.println(path + ": " + e.getMessage());
+            return new Digraph(digraphId);
         }
-        return graph;
     }
 
     /**
-     * Load the graph using relative path
+     * Load the graph through GraphStream's FileSourceDOT, the way graphs were loaded before `DotParser`.
+     * It is kept as a reference for tests and benchmarks.
      *
      * @param path the relative path of the dot file
      * @return the graph that is loaded from the dot file
      */
-    public static Digraph loadDotFileFromPath(String path) {
+    public static Digraph loadDotFileWithGraphStream(String path) {
         Digraph graph = new Digraph("solution." + path);
         FileSource fileSource = new FileSourceDOT();
         fileSource.addSink(graph);
         try {
             fileSource.readAll(path);
             graph.initialize();
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
+        } catch (IOException | IllegalArgumentException e) {
+            // e.g. the graph has a cycle.
+            System.err.println(path + ": " + e.getMessage());
         }
         return graph;
     }
@@ -109,9 +136,43 @@ public class InputLoader {
         Option optionO = new Option("o", true, "output file name");
         optionO.setRequired(false);
 
+        Option optionA = new Option("a", true, "search algorithm, astar (default), idastar or bnb");
+        optionA.setRequired(false);
+
+        Option optionL = new Option("l", true,
+                "comma separated lower bounds of the cost function, of idle, bl, fbl and drt (default idle,bl,drt)");
+        optionL.setRequired(false);
+
+        Option optionDeadline = new Option("d", "deadline", true,
+                "stop after this many seconds, writing every improved schedule to the output file as it is found");
+        optionDeadline.setRequired(false);
+
+        Option optionMemory = new Option("m", "memory", true,
+                "max number of partial solutions kept by astar, or the memory they may use with a K, M or G suffix");
+        optionMemory.setRequired(false);
+
+        Option optionOffHeap = new Option(null, "off-heap", true,
+                "keep the open queues of astar in direct memory of at most this size each, with a K, M or G suffix");
+        optionOffHeap.setRequired(false);
+
+        Option optionSpillDir = new Option(null, "spill-dir", true,
+                "keep the open partial solutions of astar in memory mapped files in this directory");
+        optionSpillDir.setRequired(false);
+
+        Option optionFrontier = new Option(null, "frontier", true,
+                "how the threads of astar share the open partial solutions, hda (default) or multiqueue");
+        optionFrontier.setRequired(false);
+
         options.addOption(optionP);
         options.addOption(optionV);
         options.addOption(optionO);
+        options.addOption(optionA);
+        options.addOption(optionL);
+        options.addOption(optionDeadline);
+        options.addOption(optionMemory);
+        options.addOption(optionOffHeap);
+        options.addOption(optionSpillDir);
+        options.addOption(optionFrontier);
 
         // if invalid arguments are passed, print help message and exit
         if (args.length < 2) {
@@ -129,13 +190,124 @@ public class InputLoader {
         }
     }
 
+    /**
+     * Handling the command line arguments of the batch mode, `--batch SOURCE [options]` without the `--batch`
+     *
+     * @param args the command line arguments after `--batch`
+     * @return a CommandLine instance whose first argument is the directory or manifest of the graphs, or null if the
+     * arguments are invalid
+     */
+    public static CommandLine parseBatchArgs(String[] args) {
+        Options options = new Options();
+
+        Option optionP = new Option("p", true, "number of graphs solved at the same time (default: number of cores)");
+        optionP.setRequired(false);
+
+        Option optionO = new Option("o", true, "output directory (default: next to every graph)");
+        optionO.setRequired(false);
+
+        Option optionL = new Option("l", true,
+                "comma separated lower bounds of the cost function, of idle, bl, fbl and drt (default idle,bl,drt)");
+        optionL.setRequired(false);
+
+        Option optionDeadline = new Option("d", "deadline", true,
+                "stop every graph after this many seconds with the best schedule found so far");
+        optionDeadline.setRequired(false);
+
+        Option optionProcessors = new Option(null, "processors", true,
+                "comma separated numbers of processors to schedule every graph of a directory on, or the graphs "
+                        + "of a manifest that do not give their own");
+        optionProcessors.setRequired(false);
+
+        Option optionSummary = new Option(null, "summary", true,
+                "file to write the summary to, as JSON if it ends with .json, CSV otherwise (default: CSV on the "
+                        + "standard output)");
+        optionSummary.setRequired(false);
+
+        options.addOption(optionP);
+        options.addOption(optionO);
+        options.addOption(optionL);
+        options.addOption(optionDeadline);
+        options.addOption(optionProcessors);
+        options.addOption(optionSummary);
+
+        if (args.length < 1) {
+            System.err.println("Invalid arguments");
+            printHelp("java -jar <jar file name> --batch <directory or manifest>", options);
+            return null;
+        }
+
+        CommandLineParser parser = new DefaultParser();
+        try {
+            CommandLine cmd = parser.parse(options, args);
+            if (cmd.getArgs().length != 1) {
+                printHelp("java -jar <jar file name> --batch <directory or manifest>", options);
+                return null;
+            }
+            return cmd;
+        } catch (ParseException e) {
+            printHelp("java -jar <jar file name> --batch <directory or manifest>", options);
+            return null;
+        }
+    }
+
+    /**
+     * Handling the command line arguments of the daemon mode, `--daemon [options]` without the `--daemon`
+     *
+     * @param args the command line arguments after `--daemon`
+     * @return a CommandLine instance, or null if the arguments are invalid
+     */
+    public static CommandLine parseDaemonArgs(String[] args) {
+        Options options = new Options();
+
+        Option optionPort = new Option(null, "port", true, "port to listen on at the loopback address (default 7878)");
+        optionPort.setRequired(false);
+
+        Option optionP = new Option("p", true, "number of graphs solved at the same time (default: number of cores)");
+        optionP.setRequired(false);
+
+        Option optionQueue = new Option(null, "queue", true,
+                "number of graphs waiting to be solved before requests are no longer read (default: 4 per thread)");
+        optionQueue.setRequired(false);
+
+        Option optionL = new Option("l", true,
+                "comma separated lower bounds of the cost function, of idle, bl, fbl and drt (default idle,bl,drt)");
+        optionL.setRequired(false);
+
+        options.addOption(optionPort);
+        options.addOption(optionP);
+        options.addOption(optionQueue);
+        options.addOption(optionL);
+
+        CommandLineParser parser = new DefaultParser();
+        try {
+            CommandLine cmd = parser.parse(options, args);
+            if (cmd.getArgs().length != 0) {
+                printHelp("java -jar <jar file name> --daemon", options);
+                return null;
+            }
+            return cmd;
+        } catch (ParseException e) {
+            printHelp("java -jar <jar file name> --daemon", options);
+            return null;
+        }
+    }
+
     /**
      * An util method that prints help message
      *
      * @param options the options to print help message for
      */
     public static void printHelp(Options options) {
+        printHelp("java -jar <jar file name>", options);
+    }
+
+    /**
+     * @param usage   the command line syntax
+     * @param options the options to print help message for
+     */
+    private static void printHelp(String usage, Options options) {
         HelpFormatter formatter = new HelpFormatter();
-        formatter.printHelp("java -jar <jar file name>", "Options:", options, "");
+        formatter.printHelp(usage, "Options:", options, "");
     }
 }
@@ -1,15 +1,17 @@
 package io;
 
-import models.NodeProperties;
-import models.InputGraph;
 import org.graphstream.graph.Node;
 import org.graphstream.stream.file.FileSinkDOT;
 import models.Digraph;
 import algorithm.PartialSolution;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
+import java.io.StringWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Scanner;
 import java.io.IOException;
 
@@ -19,53 +21,89 @@ import java.io.IOException;
 public class OutputFormatter {
 
     /**
-     * Append the necessary attributes to the graph and output the solution from A Star algorithm to a dot file
+     * Append the necessary attributes to the graph of the solution's context and output the solution from A Star
+     * algorithm to a dot file
      * @param partialSolution the solution comes out from A Star algorithm
      * @param outputGraphName the name of the graph, which will be written to the dot file as well
      * @return the graph instance that is written to the dot file, this graph contains the information about how each
      * task is scheduled
      */
     public Digraph aStar(PartialSolution partialSolution, String outputGraphName) {
-        Digraph baseGraph = InputGraph.get();
+        Digraph baseGraph = setScheduleAttributes(partialSolution);
+        writeToFile(baseGraph, outputGraphName);
+        return baseGraph;
+    }
+
+    /**
+     * Append the necessary attributes to the graph of the solution's context and format it the same way `aStar`
+     * writes it to a dot file, e.g. to send it back to a client of the daemon
+     * @param partialSolution the solution comes out from A Star algorithm
+     * @return the dot text of the graph, with how each task is scheduled
+     * @throws IOException if graph stream fails to format the graph
+     */
+    public String format(PartialSolution partialSolution) throws IOException {
+        return toDot(setScheduleAttributes(partialSolution));
+    }
+
+    private Digraph setScheduleAttributes(PartialSolution partialSolution) {
+        Digraph baseGraph = partialSolution.getContext().getGraph();
         partialSolution.getNodesPath().forEach(n -> {
             Node node = baseGraph.getNodeById(n.getId());
-            NodeProperties properties = partialSolution.getNodeStates().get(n);
-            node.setAttribute("Start", properties.getStartingTime());
-            node.setAttribute("Processor", properties.getProcessorId());
+            node.setAttribute("Start", partialSolution.getStartingTime(n.getIndex()));
+            node.setAttribute("Processor", partialSolution.getProcessorId(n.getIndex()));
             node.setAttribute("Weight", (int) baseGraph.getNodeWeightById(node.getId()));
         });
-        writeToFile(baseGraph, outputGraphName);
         return baseGraph;
     }
 
     /**
-     * Write the graph to a dot file
-     * @param digraph the graph to write, all needed attributes should have been added
-     * @param outputFile the name of the file to write to
+     * @param digraph the graph to format, all needed attributes should have been added
+     * @return the dot text of the graph
+     * @throws IOException if graph stream fails to format the graph
      */
-    private void writeToFile(Digraph digraph, String outputFile)  {
-
-        // use graph stream to write first
-        FileSinkDOT fs = new FileSinkDOT(true);
-        try {
-            fs.writeAll(digraph, outputFile);
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-        }
+    private String toDot(Digraph digraph) throws IOException {
+        // use graph stream to format first
+        StringWriter dot = new StringWriter();
+        new FileSinkDOT(true).writeAll(digraph, dot);
 
         // graph stream does not write the graph name, so use our own method to write the graph name
         StringBuilder sb = new StringBuilder();
-        try (Scanner scanner = new Scanner(new File(outputFile))) {
+        try (Scanner scanner = new Scanner(dot.toString())) {
             sb.append(String.format("digraph \"%s\" {\n", digraph.getId()));
             scanner.nextLine();
             while (scanner.hasNext()) {
                 sb.append(scanner.nextLine()).append("\n");
             }
-        } catch (FileNotFoundException ignored) {}
+        }
+        return sb.toString();
+    }
 
-        try (FileWriter writer = new FileWriter(outputFile)) {
-            writer.write(sb.toString());
-        } catch (IOException ignored) {}
+    /**
+     * Write the graph to a dot file. The file is written to a temporary file next to it first and then moved in
+     * place, so a reader never sees a half written schedule, e.g. while the anytime search replaces it.
+     * @param digraph the graph to write, all needed attributes should have been added
+     * @param outputFile the name of the file to write to
+     */
+    private void writeToFile(Digraph digraph, String outputFile)  {
+        Path outputPath = Paths.get(outputFile).toAbsolutePath();
+        Path temporaryPath = outputPath.resolveSibling(outputPath.getFileName() + ".tmp");
+
+        try (FileWriter writer = new FileWriter(temporaryPath.toFile())) {
+            writer.write(toDot(digraph));
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+
+        try {
+            try {
+                Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
     }
 
 }
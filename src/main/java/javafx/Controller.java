@@ -30,7 +30,6 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
 import main.FxMain;
-import models.NodeProperties;
 import models.InputGraph;
 import org.graphstream.graph.Node;
 
@@ -234,11 +233,9 @@ public class Controller implements javafx.fxml.Initializable {
                 seriesArr[i] = new XYChart.Series();
             }
 
-            NodeProperties nodeProperties;
             for (Node node : solution.getNodesPath()) {
-                nodeProperties = solution.getNodeStates().get(node);
-                int taskProcessor = nodeProperties.getProcessorId();
-                int taskStartTime = nodeProperties.getStartingTime();
+                int taskProcessor = solution.getProcessorId(node.getIndex());
+                int taskStartTime = solution.getStartingTime(node.getIndex());
                 XYChart.Data data = new XYChart.Data(taskStartTime, taskProcessor + "", new GanttChart.ExtraData((int) InputGraph.get().getNodeWeightById(node.getId()), "task", node.getId()));
                 seriesArr[taskProcessor - 1].getData().add(data);
             }
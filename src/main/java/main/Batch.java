@@ -0,0 +1,407 @@
+package main;
+
+import algorithm.AStar;
+import algorithm.LowerBound;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SolverContext;
+import io.InputLoader;
+import io.OutputFormatter;
+import models.Digraph;
+import org.apache.commons.cli.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The batch mode, which schedules many graphs in one run of the program, so the start up of the JVM, the loading of
+ * the classes and the warm up of the JIT are paid once rather than for every graph. The graphs are all the dot files
+ * under a directory, or the ones listed in a manifest, and they are solved at the same time on a pool of threads,
+ * each with its own `SolverContext`. A summary of every solve is written once all are done.
+ * A manifest has a dot file per line, optionally followed by the numbers of processors to schedule it on, e.g.
+ * "g2/in.dot 2 4", relative paths are relative to the manifest, and lines starting with # are ignored.
+ */
+public class Batch {
+
+    private static final String[] SUMMARY_COLUMNS =
+            {"input", "processors", "status", "makespan", "states_expanded", "time_ms", "output", "error"};
+
+    /**
+     * A graph to schedule on a number of processors.
+     */
+    public static class Job {
+
+        private final Path input;
+        private final int numOfProcessors;
+        private final Path output;
+
+        /**
+         * @param input           the dot file of the graph
+         * @param numOfProcessors the number of processors
+         * @param output          the dot file to write the schedule to
+         */
+        public Job(Path input, int numOfProcessors, Path output) {
+            this.input = input;
+            this.numOfProcessors = numOfProcessors;
+            this.output = output;
+        }
+
+        public Path getInput() {
+            return input;
+        }
+
+        public int getNumOfProcessors() {
+            return numOfProcessors;
+        }
+
+        public Path getOutput() {
+            return output;
+        }
+    }
+
+    /**
+     * How the solve of a job went.
+     */
+    public static class Result {
+
+        private final Job job;
+        // OPTIMAL, TIMEOUT or CANCELLED as returned by the search, or ERROR if the job failed.
+        private final String status;
+        private final int makespan;
+        private final long numOfExpandedStates;
+        private final long timeMillis;
+        private final String error;
+
+        Result(Job job, String status, int makespan, long numOfExpandedStates, long timeMillis, String error) {
+            this.job = job;
+            this.status = status;
+            this.makespan = makespan;
+            this.numOfExpandedStates = numOfExpandedStates;
+            this.timeMillis = timeMillis;
+            this.error = error;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the makespan of the schedule, or -1 if the job failed
+         */
+        public int getMakespan() {
+            return makespan;
+        }
+
+        public long getNumOfExpandedStates() {
+            return numOfExpandedStates;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * @return why the job failed, or null if it did not
+         */
+        public String getError() {
+            return error;
+        }
+
+        private Object[] toRow() {
+            return new Object[]{job.input, job.numOfProcessors, status, makespan, numOfExpandedStates, timeMillis,
+                    error == null ? job.output : "", error == null ? "" : error};
+        }
+    }
+
+    /**
+     * Run the batch mode with the command line arguments after `--batch`.
+     *
+     * @param args the command line arguments
+     */
+    public static void start(String[] args) {
+        CommandLine cmd = InputLoader.parseBatchArgs(args);
+        if (cmd == null) {
+            return;
+        }
+        Path source = Paths.get(cmd.getArgs()[0]);
+        try {
+            int[] processors = cmd.hasOption("processors") ? parseProcessors(cmd.getOptionValue("processors")) : null;
+            Path outputDirectory = cmd.hasOption("o") ? Paths.get(cmd.getOptionValue("o")) : null;
+            int numOfThreads = cmd.hasOption("p") ? Integer.parseInt(cmd.getOptionValue("p"))
+                    : Runtime.getRuntime().availableProcessors();
+            double deadlineSeconds = cmd.hasOption("d") ? Double.parseDouble(cmd.getOptionValue("d")) : 0;
+            Set<LowerBound> lowerBounds = cmd.hasOption("l") ? LowerBound.parse(cmd.getOptionValue("l"))
+                    : LowerBound.getEnabled();
+            if (numOfThreads <= 0 || deadlineSeconds < 0) {
+                throw new IllegalArgumentException("The number of threads and the deadline must be positive");
+            }
+
+            List<Job> jobs = readJobs(source, processors, outputDirectory);
+            System.out.println("Solving " + jobs.size() + " graphs on " + numOfThreads + " threads");
+            List<Result> results = solveAll(jobs, numOfThreads, deadlineSeconds, lowerBounds);
+            if (cmd.hasOption("summary")) {
+                Path summary = Paths.get(cmd.getOptionValue("summary"));
+                try (Writer writer = Files.newBufferedWriter(summary, StandardCharsets.UTF_8)) {
+                    writeSummary(results, writer, summary.toString().endsWith(".json"));
+                }
+                System.out.println("Summary saved to " + summary);
+            } else {
+                PrintWriter writer = new PrintWriter(System.out);
+                writeSummary(results, writer, false);
+                writer.flush();
+            }
+        } catch (IllegalArgumentException e) {
+            // also thrown for numbers that can not be parsed.
+            System.err.println(e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * @param processors comma separated numbers of processors, e.g. "2,4"
+     * @return the numbers of processors
+     * @throws IllegalArgumentException if one of them is not a positive number
+     */
+    private static int[] parseProcessors(String processors) {
+        int[] result = Stream.of(processors.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        for (int numOfProcessors : result) {
+            if (numOfProcessors <= 0) {
+                throw new IllegalArgumentException("Invalid number of processors: " + numOfProcessors);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the graphs to schedule.
+     *
+     * @param source          a directory, whose dot files are all scheduled except the outputs of earlier runs, or
+     *                        a manifest
+     * @param processors      the numbers of processors to schedule every graph of a directory on, and the graphs of a
+     *                        manifest that do not give their own, may be null for a manifest that gives all of them
+     * @param outputDirectory the directory to write the schedules to, in the same layout as the graphs, or null to
+     *                        write them next to the graphs
+     * @return the jobs, in the order of the manifest or of the paths
+     * @throws IOException              if the directory or the manifest can not be read
+     * @throws IllegalArgumentException if a graph has no number of processors or the manifest is invalid
+     */
+    public static List<Job> readJobs(Path source, int[] processors, Path outputDirectory) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            if (processors == null) {
+                throw new IllegalArgumentException("The numbers of processors of a directory are missing");
+            }
+            List<Path> inputs;
+            try (Stream<Path> paths = Files.walk(source)) {
+                inputs = paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".dot")
+                        && !path.toString().endsWith("-output.dot")).sorted().collect(Collectors.toList());
+            }
+            for (Path input : inputs) {
+                for (int numOfProcessors : processors) {
+                    jobs.add(new Job(input, numOfProcessors,
+                            outputOf(source.relativize(input), input, numOfProcessors, outputDirectory)));
+                }
+            }
+            return jobs;
+        }
+
+        Path baseDirectory = source.toAbsolutePath().getParent();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            Path relativePath = Paths.get(fields[0]);
+            Path input = baseDirectory.resolve(relativePath).normalize();
+            int[] jobProcessors = processors;
+            if (fields.length > 1) {
+                try {
+                    jobProcessors = parseProcessors(String.join(",", Arrays.copyOfRange(fields, 1, fields.length)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(source + ":" + lineNumber + ": invalid number of processors");
+                }
+            }
+            if (jobProcessors == null) {
+                throw new IllegalArgumentException(source + ":" + lineNumber + ": the number of processors is missing");
+            }
+            for (int numOfProcessors : jobProcessors) {
+                jobs.add(new Job(input, numOfProcessors, outputOf(relativePath.isAbsolute()
+                        ? relativePath.getFileName() : relativePath, input, numOfProcessors, outputDirectory)));
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * @return where to write the schedule of the graph, e.g. "g2/in-2p-output.dot"
+     */
+    private static Path outputOf(Path relativePath, Path input, int numOfProcessors, Path outputDirectory) {
+        String fileName = input.getFileName().toString();
+        String outputName = fileName.substring(0, fileName.length() - (fileName.endsWith(".dot") ? 4 : 0))
+                + "-" + numOfProcessors + "p-output.dot";
+        if (outputDirectory == null) {
+            return input.resolveSibling(outputName);
+        }
+        return outputDirectory.resolve(relativePath).normalize().resolveSibling(outputName);
+    }
+
+    /**
+     * Solve all jobs on a pool of threads, each one with A star on a thread of its own, and write their schedules.
+     * A job that fails does not stop the others, it is reported in its result.
+     *
+     * @param jobs            the jobs
+     * @param numOfThreads    the number of jobs solved at the same time
+     * @param deadlineSeconds the time limit of every job, or 0 to solve them all to optimality
+     * @param lowerBounds     the lower bounds the cost function uses
+     * @return the result of every job, in the same order
+     */
+    public static List<Result> solveAll(List<Job> jobs, int numOfThreads, double deadlineSeconds,
+                                        Set<LowerBound> lowerBounds) {
+        ExecutorService executorService = Executors.newFixedThreadPool(numOfThreads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Job job : jobs) {
+                futures.add(executorService.submit(() -> {
+                    Result result = solve(job, deadlineSeconds, lowerBounds);
+                    System.out.println(describe(result));
+                    return result;
+                }));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("the batch was interrupted", e);
+        } catch (ExecutionException e) {
+            // `solve` reports its failures in the result.
+            throw new IllegalStateException("the batch failed", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Solve one job and write its schedule.
+     */
+    private static Result solve(Job job, double deadlineSeconds, Set<LowerBound> lowerBounds) {
+        long start = System.nanoTime();
+        try {
+            Digraph digraph = InputLoader.parseDotFile(job.input);
+            SolverContext context = new SolverContext(digraph, job.numOfProcessors, lowerBounds);
+            SearchLimit searchLimit = deadlineSeconds > 0 ? SearchLimit.ofSeconds(deadlineSeconds)
+                    : SearchLimit.none();
+            AStar aStar = new AStar(context, searchLimit);
+            PartialSolution root = new PartialSolution(context);
+            PartialSolution solution = context.getProblem().getNumOfTasks() == 0 ? root : aStar.buildTree(root);
+
+            if (job.output.getParent() != null) {
+                Files.createDirectories(job.output.getParent());
+            }
+            new OutputFormatter().aStar(solution, job.output.toString());
+            return new Result(job, aStar.getStatus().name(), solution.calculateEndScheduleTime(),
+                    aStar.getNumOfExpandedStates(), (System.nanoTime() - start) / 1_000_000, null);
+        } catch (Exception | OutOfMemoryError e) {
+            String error = e.getMessage() == null ? e.toString() : e.getMessage();
+            return new Result(job, "ERROR", -1, 0, (System.nanoTime() - start) / 1_000_000, error);
+        }
+    }
+
+    /**
+     * @return a line about the result for the progress output
+     */
+    private static String describe(Result result) {
+        if (result.error != null) {
+            return String.format("%s on %d processors: failed, %s", result.job.input, result.job.numOfProcessors,
+                    result.error);
+        }
+        return String.format(Locale.ROOT, "%s on %d processors: %d (%s) in %.2fs", result.job.input,
+                result.job.numOfProcessors, result.makespan, result.status, result.timeMillis / 1000.0);
+    }
+
+    /**
+     * Write a row per result, with the input, the number of processors, the status, the makespan, the number of
+     * states expanded, the time used in milliseconds, the output and the error of the job.
+     *
+     * @param results the results
+     * @param writer  where to write the summary to
+     * @param json    whether to write an array of JSON objects rather than CSV with a header
+     * @throws IOException if it can not be written
+     */
+    public static void writeSummary(List<Result> results, Writer writer, boolean json) throws IOException {
+        if (json) {
+            writer.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                Object[] row = results.get(i).toRow();
+                writer.write("  {");
+                for (int j = 0; j < row.length; j++) {
+                    writer.write((j == 0 ? "" : ", ") + quoteJson(SUMMARY_COLUMNS[j]) + ": ");
+                    writer.write(row[j] instanceof Number ? row[j].toString() : quoteJson(row[j].toString()));
+                }
+                writer.write(i == results.size() - 1 ? "}\n" : "},\n");
+            }
+            writer.write("]\n");
+            return;
+        }
+        writer.write(String.join(",", SUMMARY_COLUMNS) + "\n");
+        for (Result result : results) {
+            Object[] row = result.toRow();
+            for (int j = 0; j < row.length; j++) {
+                writer.write((j == 0 ? "" : ",") + quoteCsv(row[j].toString()));
+            }
+            writer.write("\n");
+        }
+    }
+
+    private static String quoteCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String quoteJson(String value) {
+        StringWriter writer = new StringWriter();
+        writer.write('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+        return writer.toString();
+    }
+}
@@ -0,0 +1,342 @@
+package main;
+
+import algorithm.AStar;
+import algorithm.LowerBound;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SolverContext;
+import io.DotParser;
+import io.InputLoader;
+import io.OutputFormatter;
+import models.Digraph;
+import models.SchedulingProblem;
+import org.apache.commons.cli.CommandLine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The daemon mode, which keeps the JVM running and schedules the graphs sent to it over a local TCP socket, so
+ * clients do not pay for the start up of the JVM on every graph. A request is a header line followed by the dot text
+ * of the graph, and its response is a header line followed by the schedule in the format of the output dot files:
+ * <pre>
+ * SOLVE processors timeLimitSeconds numOfBytes\n  dot text
+ * OK status makespan numOfBytes\n                 dot text
+ * ERROR message\n
+ * </pre>
+ * where a time limit of 0 solves the graph to optimality, and the status is the one of `SearchStatus`. A client may
+ * send more requests before the responses of the earlier ones arrive, they are solved at the same time as the
+ * requests of all clients and answered in the order they were sent. Once as many requests are queued as the queue
+ * holds, the daemon stops reading requests until a solve finishes, so the clients are held back by the socket.
+ */
+public class Daemon implements Closeable {
+
+    public static final int DEFAULT_PORT = 7878;
+    // larger payloads are most likely not dot files.
+    private static final int MAX_PAYLOAD_BYTES = 64 << 20;
+    // the header of the last response of a connection, which is never sent.
+    private static final byte[] END_OF_RESPONSES = new byte[0];
+
+    private final ServerSocket serverSocket;
+    private final ThreadPoolExecutor solvers;
+    // a permit for every request that is being solved or queued.
+    private final Semaphore permits;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    // the search limits of the requests of all connections, cancelled when the daemon is closed.
+    private final Set<SearchLimit> searchLimits = ConcurrentHashMap.newKeySet();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final Set<LowerBound> lowerBounds;
+
+    /**
+     * Bind the socket, requests are not accepted until `serve` is called.
+     *
+     * @param port          the port on the loopback address, or 0 for any free port, see `getPort`
+     * @param numOfThreads  the number of requests solved at the same time
+     * @param queueCapacity the number of requests waiting for a thread before the daemon stops reading requests
+     * @param lowerBounds   the lower bounds the cost function uses
+     * @throws IOException if the socket can not be bound
+     */
+    public Daemon(int port, int numOfThreads, int queueCapacity, Set<LowerBound> lowerBounds) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        // the queue is bounded by the permits, a bounded queue of the pool itself could still be full for a moment
+        // after a solve releases its permit.
+        this.solvers = new ThreadPoolExecutor(numOfThreads, numOfThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        this.permits = new Semaphore(numOfThreads + queueCapacity);
+        this.lowerBounds = lowerBounds;
+    }
+
+    /**
+     * Run the daemon mode with the command line arguments after `--daemon`, until the program is killed.
+     *
+     * @param args the command line arguments
+     */
+    public static void start(String[] args) {
+        CommandLine cmd = InputLoader.parseDaemonArgs(args);
+        if (cmd == null) {
+            return;
+        }
+        try {
+            int port = cmd.hasOption("port") ? Integer.parseInt(cmd.getOptionValue("port")) : DEFAULT_PORT;
+            int numOfThreads = cmd.hasOption("p") ? Integer.parseInt(cmd.getOptionValue("p"))
+                    : Runtime.getRuntime().availableProcessors();
+            int queueCapacity = cmd.hasOption("queue") ? Integer.parseInt(cmd.getOptionValue("queue"))
+                    : 4 * numOfThreads;
+            Set<LowerBound> lowerBounds = cmd.hasOption("l") ? LowerBound.parse(cmd.getOptionValue("l"))
+                    : LowerBound.getEnabled();
+            if (port < 0 || numOfThreads <= 0 || queueCapacity <= 0) {
+                throw new IllegalArgumentException("The port, number of threads and queue size must be positive");
+            }
+            try (Daemon daemon = new Daemon(port, numOfThreads, queueCapacity, lowerBounds)) {
+                System.out.println("Listening on " + daemon.serverSocket.getLocalSocketAddress() + " with "
+                        + numOfThreads + " threads");
+                daemon.serve();
+            }
+        } catch (IllegalArgumentException e) {
+            // also thrown for numbers that can not be parsed.
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the port the daemon listens on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accept connections until the daemon is closed, every connection is served on threads of its own.
+     *
+     * @throws IOException if accepting a connection fails
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // the daemon was closed.
+                return;
+            }
+            sockets.add(socket);
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    /**
+     * Stop accepting connections, cancel the requests that are being solved and close all connections.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        searchLimits.forEach(SearchLimit::cancel);
+        solvers.shutdownNow();
+        connections.shutdownNow();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Read the requests of a connection and queue them, while the responses are written on another thread in the
+     * order of the requests.
+     */
+    private void serve(Socket socket) {
+        BlockingQueue<CompletableFuture<byte[]>> responses = new LinkedBlockingQueue<>();
+        Set<SearchLimit> connectionLimits = ConcurrentHashMap.newKeySet();
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            connections.execute(() -> writeResponses(socket, responses, connectionLimits));
+            while (true) {
+                String header = readLine(in);
+                if (header == null) {
+                    break;
+                }
+                String[] fields = header.trim().split("\\s+");
+                int numOfProcessors;
+                double timeLimitSeconds;
+                int numOfBytes;
+                try {
+                    if (fields.length != 4 || !fields[0].equals("SOLVE")) {
+                        throw new IllegalArgumentException();
+                    }
+                    numOfProcessors = Integer.parseInt(fields[1]);
+                    timeLimitSeconds = Double.parseDouble(fields[2]);
+                    numOfBytes = Integer.parseInt(fields[3]);
+                } catch (IllegalArgumentException e) {
+                    // the rest of the stream can not be split into requests.
+                    responses.put(CompletableFuture.completedFuture(error("invalid request: " + header)));
+                    break;
+                }
+                if (numOfBytes < 0 || numOfBytes > MAX_PAYLOAD_BYTES) {
+                    responses.put(CompletableFuture.completedFuture(error("invalid size: " + numOfBytes)));
+                    break;
+                }
+                byte[] dot = new byte[numOfBytes];
+                in.readFully(dot);
+                if (numOfProcessors <= 0 || timeLimitSeconds < 0) {
+                    responses.put(CompletableFuture.completedFuture(
+                            error("the number of processors and the time limit must be positive")));
+                    continue;
+                }
+
+                // block until the queue has room, the client is held back by the socket in the meantime.
+                permits.acquire();
+                SearchLimit searchLimit = timeLimitSeconds > 0 ? SearchLimit.ofSeconds(timeLimitSeconds)
+                        : SearchLimit.none();
+                CompletableFuture<byte[]> response = new CompletableFuture<>();
+                responses.put(response);
+                searchLimits.add(searchLimit);
+                connectionLimits.add(searchLimit);
+                Runnable release = () -> {
+                    searchLimits.remove(searchLimit);
+                    connectionLimits.remove(searchLimit);
+                    permits.release();
+                };
+                try {
+                    solvers.execute(() -> {
+                        try {
+                            response.complete(solve(dot, numOfProcessors, searchLimit));
+                        } catch (Throwable e) {
+                            response.complete(error(e.getMessage() == null ? e.toString() : e.getMessage()));
+                        } finally {
+                            release.run();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    release.run();
+                    response.complete(error("the daemon is closed"));
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            // the client closed the connection in the middle of a request.
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            responses.add(CompletableFuture.completedFuture(END_OF_RESPONSES));
+        }
+    }
+
+    /**
+     * Write the responses of a connection as their solves finish, in the order of the requests, and close it.
+     * If the client goes away, the solves of its requests are cancelled.
+     */
+    private void writeResponses(Socket socket, BlockingQueue<CompletableFuture<byte[]>> responses,
+                                Set<SearchLimit> connectionLimits) {
+        try {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                // flush the responses that are ready before waiting for the next request or solve.
+                CompletableFuture<byte[]> response = responses.poll();
+                if (response == null) {
+                    out.flush();
+                    response = responses.take();
+                }
+                if (!response.isDone()) {
+                    out.flush();
+                }
+                byte[] bytes = response.get();
+                if (bytes == END_OF_RESPONSES) {
+                    out.flush();
+                    return;
+                }
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // the client went away.
+            connectionLimits.forEach(SearchLimit::cancel);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the responses are always completed normally.
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            sockets.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // the connection is gone either way.
+            }
+        }
+    }
+
+    /**
+     * Solve a graph with A star on a context of its own and format its schedule.
+     *
+     * @return the response
+     */
+    private byte[] solve(byte[] dot, int numOfProcessors, SearchLimit searchLimit) throws IOException {
+        SchedulingProblem problem = DotParser.parse(ByteBuffer.wrap(dot));
+        Digraph digraph = Digraph.fromProblem("solution." + problem.getName(), problem);
+        SolverContext context = new SolverContext(digraph, numOfProcessors, lowerBounds);
+        AStar aStar = new AStar(context, searchLimit);
+        PartialSolution root = new PartialSolution(context);
+        PartialSolution solution = problem.getNumOfTasks() == 0 ? root : aStar.buildTree(root);
+
+        byte[] schedule = new OutputFormatter().format(solution).getBytes(StandardCharsets.UTF_8);
+        byte[] header = String.format("OK %s %d %d\n", aStar.getStatus(), solution.calculateEndScheduleTime(),
+                schedule.length).getBytes(StandardCharsets.UTF_8);
+        byte[] response = new byte[header.length + schedule.length];
+        System.arraycopy(header, 0, response, 0, header.length);
+        System.arraycopy(schedule, 0, response, header.length, schedule.length);
+        return response;
+    }
+
+    private static byte[] error(String message) {
+        return ("ERROR " + message.replace('\n', ' ') + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the next line without its line feed, or null at the end of the stream
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                if (line.length() == 0) {
+                    return null;
+                }
+                throw new EOFException();
+            }
+            // the header is short, a client that sends no line feed is not a client.
+            if (line.length() > 1024) {
+                throw new IOException("request header too long");
+            }
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+}
@@ -11,11 +11,24 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 import org.graphstream.graph.Node;
 import algorithm.AStar;
+import algorithm.AnytimeAStar;
+import algorithm.ExternalMemoryAStar;
+import algorithm.IDAStar;
+import algorithm.LowerBound;
+import algorithm.MemoryBoundedAStar;
+import algorithm.ParallelDFS;
+import algorithm.SearchLimit;
+import algorithm.SearchStatus;
+import algorithm.SolverContext;
 import models.Digraph;
 import algorithm.PartialSolution;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class FxMain extends Application {
 
     private static boolean visualise = true;
@@ -25,8 +38,30 @@ public class FxMain extends Application {
     private static String numOfProcessors = "numOfProcessors";
     private static String numOfTasks;
     private static String numOfCore = "1";
+    private static String algorithm = "astar";
     private static String currentBestTime = "UNKNOWN";
     private static Boolean isRunning = true;
+    private static long numOfDuplicates;
+    private static long numOfFixedTaskOrderStates;
+    private static long numOfExpandedStates;
+    // the time limit of the search in seconds, or 0 to search until the schedule is proven optimal.
+    private static double deadlineSeconds;
+    private static long startTime;
+    private static int lowerBound;
+    private static boolean isOptimal = true;
+    // the max number of partial solutions kept by the memory bounded search, or 0 to keep all of them.
+    private static long maxNumOfStates;
+    private static long numOfEvictedStates;
+    // the max size of the off-heap arena of every open queue in bytes, or 0 to keep the open queues on the heap.
+    private static long offHeapOpenListSize;
+    private static long offHeapPeakUsedBytes;
+    private static long offHeapCapacityInBytes;
+    private static long numOfOffHeapSpilledStates;
+    // the directory the external memory search writes its open partial solutions to, or null to keep them in memory.
+    private static Path spillDirectory;
+    private static long numOfSpilledBytes;
+    // whether the threads of parallel A star share a MultiQueue rather than hash distributing the partial solutions.
+    private static boolean sharedFrontier;
 
     public static void start(String[] args)  {
 
@@ -40,7 +75,10 @@ public class FxMain extends Application {
         numOfProcessors = args[1];
 
         InputLoader.setNumOfProcessors(processAmount);
-        InputLoader.loadDotFileFromPath(path);
+        if (InputLoader.loadDotFileFromPath(path).getProblem() == null) {
+            // it can not be read or is not a valid task graph, e.g. it has a cycle, as reported by the loader.
+            System.exit(1);
+        }
 
         numOfTasks = Integer.toString(InputGraph.get().getAllNodes().size());
 
@@ -57,6 +95,81 @@ public class FxMain extends Application {
             numOfCore = cmd.getOptionValue("p");
         }
 
+        if (cmd.hasOption("a")) {
+            algorithm = cmd.getOptionValue("a").toLowerCase();
+            if (!algorithm.equals("astar") && !algorithm.equals("idastar") && !algorithm.equals("bnb")) {
+                System.err.println("Unknown algorithm: " + algorithm);
+                return;
+            }
+        }
+
+        if (cmd.hasOption("l")) {
+            try {
+                LowerBound.setEnabled(LowerBound.parse(cmd.getOptionValue("l")));
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return;
+            }
+        }
+
+        if (cmd.hasOption("d")) {
+            try {
+                deadlineSeconds = Double.parseDouble(cmd.getOptionValue("d"));
+            } catch (NumberFormatException e) {
+                deadlineSeconds = -1;
+            }
+            if (deadlineSeconds <= 0) {
+                System.err.println("Invalid deadline: " + cmd.getOptionValue("d"));
+                return;
+            }
+        }
+
+        if (cmd.hasOption("m")) {
+            maxNumOfStates = parseMemoryBudget(cmd.getOptionValue("m"));
+            if (maxNumOfStates <= 0) {
+                System.err.println("Invalid memory budget: " + cmd.getOptionValue("m"));
+                return;
+            }
+            if (!algorithm.equals("astar")) {
+                System.err.println("The memory budget is only supported by astar");
+                return;
+            }
+        }
+
+        if (cmd.hasOption("off-heap")) {
+            offHeapOpenListSize = parseBytes(cmd.getOptionValue("off-heap"));
+            if (offHeapOpenListSize <= 0) {
+                System.err.println("Invalid off-heap open list size: " + cmd.getOptionValue("off-heap"));
+                return;
+            }
+            if (!algorithm.equals("astar") || maxNumOfStates > 0) {
+                System.err.println("The off-heap open list is only supported by astar without a budget");
+                return;
+            }
+        }
+
+        if (cmd.hasOption("frontier")) {
+            String frontier = cmd.getOptionValue("frontier").toLowerCase();
+            if (!frontier.equals("hda") && !frontier.equals("multiqueue")) {
+                System.err.println("Unknown frontier: " + frontier);
+                return;
+            }
+            sharedFrontier = frontier.equals("multiqueue");
+        }
+
+        if (cmd.hasOption("spill-dir")) {
+            spillDirectory = Paths.get(cmd.getOptionValue("spill-dir"));
+            if (!Files.isDirectory(spillDirectory)) {
+                System.err.println("Not a directory: " + spillDirectory);
+                return;
+            }
+            if (!algorithm.equals("astar") || maxNumOfStates > 0 || offHeapOpenListSize > 0) {
+                System.err.println("The spill directory is only supported by astar without a budget or off-heap open "
+                        + "list");
+                return;
+            }
+        }
+
         visualise = cmd.hasOption("v");
 
         if (visualise) {
@@ -66,14 +179,47 @@ public class FxMain extends Application {
             System.out.println("Start Computing: " + INPUT_FILE);
             System.out.println("Number of processors: " + numOfProcessors);
             System.out.println("Number of cores: " + numOfCore);
+            System.out.println("Algorithm: " + algorithm);
+            System.out.println("Lower bounds: " + LowerBound.getEnabled());
             System.out.println("Running...");
             long start = System.currentTimeMillis();
-            runAStar();
+            startTime = System.nanoTime();
+            try {
+                runAStar();
+            } catch (IllegalStateException e) {
+                // e.g. a worker of parallel A star failed.
+                System.err.println(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                System.exit(1);
+            }
             long timeUsed = System.currentTimeMillis() - start;
             System.out.println();
             System.out.println("Completed!");
             System.out.println("Solution saved to " + OUTPUT_FILE);
-            System.out.println("Cost of optimal schedule: " + solution.calculateEndScheduleTime());
+            if (isOptimal) {
+                System.out.println("Cost of optimal schedule: " + solution.calculateEndScheduleTime());
+            } else {
+                System.out.println("Cost of best schedule found: " + solution.calculateEndScheduleTime());
+                System.out.println("Lower bound: " + lowerBound);
+                System.out.printf("Optimality gap: %.2f%%%n",
+                        100.0 * (solution.calculateEndScheduleTime() - lowerBound) / lowerBound);
+            }
+            System.out.println("States expanded: " + numOfExpandedStates);
+            if (maxNumOfStates > 0) {
+                System.out.println("Memory budget: " + maxNumOfStates + " states");
+                System.out.println("States evicted: " + numOfEvictedStates);
+            }
+            if (offHeapOpenListSize > 0) {
+                System.out.printf("Off-heap open lists: %.1f MB used at peak, %.1f MB allocated%n",
+                        offHeapPeakUsedBytes / 1048576.0, offHeapCapacityInBytes / 1048576.0);
+                if (numOfOffHeapSpilledStates > 0) {
+                    System.out.println("States spilled to the heap: " + numOfOffHeapSpilledStates);
+                }
+            }
+            if (spillDirectory != null) {
+                System.out.printf("Spilled to %s: %.1f MB%n", spillDirectory, numOfSpilledBytes / 1048576.0);
+            }
+            System.out.println("Duplicate states eliminated: " + numOfDuplicates);
+            System.out.println("States expanded in fixed task order: " + numOfFixedTaskOrderStates);
             String time = String.format("Time used: %.2fs", (double) timeUsed / 1000);
             System.out.println(time);
             System.out.println("-----------------------------------------------------\n");
@@ -95,12 +241,142 @@ public class FxMain extends Application {
     }
 
     private static void runAStar() {
-        ParallelAStar parallelAStar = new ParallelAStar(Integer.parseInt(getNumOfCore()));
-        solution = parallelAStar.build();
+        SearchLimit searchLimit = createSearchLimit();
+        if (algorithm.equals("idastar")) {
+            IDAStar idaStar = new IDAStar(SolverContext.global(), searchLimit);
+            solution = idaStar.build();
+            recordStatus(idaStar.getStatus());
+            numOfFixedTaskOrderStates = idaStar.getNumOfFixedTaskOrderStates();
+            numOfExpandedStates = idaStar.getNumOfExpandedStates();
+        } else if (algorithm.equals("bnb")) {
+            ParallelDFS parallelDFS = new ParallelDFS(Integer.parseInt(getNumOfCore()));
+            parallelDFS.setSearchLimit(searchLimit);
+            solution = parallelDFS.build();
+            recordStatus(parallelDFS.getStatus());
+            numOfFixedTaskOrderStates = parallelDFS.getNumOfFixedTaskOrderStates();
+            numOfExpandedStates = parallelDFS.getNumOfExpandedStates();
+        } else if (spillDirectory != null) {
+            ExternalMemoryAStar externalMemoryAStar = new ExternalMemoryAStar(SolverContext.global(), spillDirectory,
+                    ExternalMemoryAStar.DEFAULT_SEGMENT_SIZE, searchLimit);
+            solution = externalMemoryAStar.build();
+            recordStatus(externalMemoryAStar.getStatus());
+            numOfDuplicates = externalMemoryAStar.getNumOfDuplicates();
+            numOfFixedTaskOrderStates = externalMemoryAStar.getNumOfFixedTaskOrderStates();
+            numOfExpandedStates = externalMemoryAStar.getNumOfExpandedStates();
+            numOfSpilledBytes = externalMemoryAStar.getNumOfSpilledBytes();
+        } else if (maxNumOfStates > 0) {
+            MemoryBoundedAStar memoryBoundedAStar = new MemoryBoundedAStar(SolverContext.global(), maxNumOfStates,
+                    searchLimit);
+            solution = memoryBoundedAStar.build();
+            recordStatus(memoryBoundedAStar.getStatus());
+            numOfDuplicates = memoryBoundedAStar.getNumOfDuplicates();
+            numOfFixedTaskOrderStates = memoryBoundedAStar.getNumOfFixedTaskOrderStates();
+            numOfExpandedStates = memoryBoundedAStar.getNumOfExpandedStates();
+            numOfEvictedStates = memoryBoundedAStar.getNumOfEvictedStates();
+        } else if (deadlineSeconds > 0 && offHeapOpenListSize == 0) {
+            runAnytimeAStar(searchLimit);
+        } else {
+            ParallelAStar parallelAStar = new ParallelAStar(Integer.parseInt(getNumOfCore()), sharedFrontier,
+                    searchLimit);
+            parallelAStar.setOffHeapOpenListSize(offHeapOpenListSize);
+            solution = parallelAStar.build();
+            recordStatus(parallelAStar.getStatus());
+            offHeapPeakUsedBytes = parallelAStar.getOffHeapPeakUsedBytes();
+            offHeapCapacityInBytes = parallelAStar.getOffHeapCapacityInBytes();
+            numOfOffHeapSpilledStates = parallelAStar.getNumOfSpilledStates();
+            numOfDuplicates = parallelAStar.getNumOfDuplicates();
+            numOfFixedTaskOrderStates = parallelAStar.getNumOfFixedTaskOrderStates();
+            numOfExpandedStates = parallelAStar.getNumOfExpandedStates();
+        }
         OutputFormatter outputFormatter = new OutputFormatter();
         outputFormatter.aStar(solution, OUTPUT_FILE);
     }
 
+    /**
+     * @return the search limit with the deadline, counted from the start of the computation, or no limit if there
+     * is no deadline
+     */
+    private static SearchLimit createSearchLimit() {
+        if (deadlineSeconds <= 0) {
+            return SearchLimit.none();
+        }
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+        }
+        return new SearchLimit(startTime + (long) (deadlineSeconds * 1e9));
+    }
+
+    /**
+     * Report the proven lower bound instead of an optimal schedule if the search was stopped by the deadline.
+     */
+    private static void recordStatus(SearchStatus status) {
+        if (status != SearchStatus.OPTIMAL) {
+            isOptimal = false;
+            lowerBound = InputGraph.getProblem().getLowerBound(InputLoader.getNumOfProcessors());
+        }
+    }
+
+    /**
+     * Run the anytime A star until the deadline, writing every improved schedule to the output file as it is found.
+     */
+    private static void runAnytimeAStar(SearchLimit searchLimit) {
+        OutputFormatter outputFormatter = new OutputFormatter();
+        AnytimeAStar anytimeAStar = new AnytimeAStar(searchLimit,
+                (improvedSolution, currentLowerBound) -> {
+                    solution = improvedSolution;
+                    currentBestTime = Integer.toString(improvedSolution.calculateEndScheduleTime());
+                    outputFormatter.aStar(improvedSolution, OUTPUT_FILE);
+                    if (!visualise) {
+                        System.out.printf("Improved schedule: %d (lower bound %d) after %.2fs%n",
+                                improvedSolution.calculateEndScheduleTime(), currentLowerBound,
+                                (System.nanoTime() - startTime) / 1e9);
+                    }
+                });
+        solution = anytimeAStar.build();
+        lowerBound = anytimeAStar.getLowerBound();
+        isOptimal = anytimeAStar.isOptimal();
+        numOfDuplicates = anytimeAStar.getNumOfDuplicates();
+        numOfFixedTaskOrderStates = anytimeAStar.getNumOfFixedTaskOrderStates();
+        numOfExpandedStates = anytimeAStar.getNumOfExpandedStates();
+    }
+
+    /**
+     * @param budget a number of partial solutions, or a number of bytes with a K, M or G suffix, e.g. "512M"
+     * @return the number of partial solutions within the budget, or -1 if it is invalid
+     */
+    private static long parseMemoryBudget(String budget) {
+        if (Character.isDigit(budget.trim().charAt(budget.trim().length() - 1))) {
+            try {
+                return Long.parseLong(budget.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        long bytes = parseBytes(budget);
+        return bytes <= 0 ? -1 : MemoryBoundedAStar.numOfStatesWithin(SolverContext.global(), bytes);
+    }
+
+    /**
+     * @param size a number of bytes, optionally with a K, M or G suffix, e.g. "512M"
+     * @return the number of bytes, or -1 if it is invalid
+     */
+    private static long parseBytes(String size) {
+        String value = size.trim().toUpperCase();
+        long unit = 1;
+        if (value.endsWith("K")) {
+            unit = 1L << 10;
+        } else if (value.endsWith("M")) {
+            unit = 1L << 20;
+        } else if (value.endsWith("G")) {
+            unit = 1L << 30;
+        }
+        try {
+            return Long.parseLong(unit == 1 ? value : value.substring(0, value.length() - 1)) * unit;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     public static PartialSolution getCurrentPartialSolution() {
         return solution;
     }
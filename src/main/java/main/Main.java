@@ -1,8 +1,18 @@
 package main;
 
+import java.util.Arrays;
+
 public class Main {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            Batch.start(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            Daemon.start(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         FxMain.start(args);
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import java.util.*;
 public class Digraph extends SingleGraph{
 
     private Map<Node, Double> bottomLevels;
+    private SchedulingProblem problem;
 
     public Digraph(String digraphId) {
         super(digraphId);
@@ -18,11 +19,58 @@ public class Digraph extends SingleGraph{
      * helper method to initialises Digraph upon DOT file parsed.
      */
     public void initialize(){
+        initialize(new SchedulingProblem(this));
+    }
+
+    /**
+     * helper method to initialises Digraph with a scheduling problem that has already been compiled from the same
+     * graph, i.e. task i of the problem is the node with index i.
+     *
+     * @param problem the scheduling problem of this digraph
+     */
+    public void initialize(SchedulingProblem problem) {
+        this.problem = problem;
         bottomLevels = new HashMap<>();
         initializeBottomLevels();
         InputGraph.set(this);
     }
 
+    /**
+     * Build the digraph of a scheduling problem, so task i of the problem is the node with index i.
+     * Weights are stored as doubles, the same way the GraphStream DOT reader stores them.
+     *
+     * @param digraphId id of the digraph
+     * @param problem   the scheduling problem
+     * @return the initialised digraph
+     */
+    public static Digraph fromProblem(String digraphId, SchedulingProblem problem) {
+        Digraph digraph = new Digraph(digraphId);
+        for (int task = 0; task < problem.getNumOfTasks(); task++) {
+            Node node = digraph.addNode(problem.getTaskId(task));
+            node.setAttribute("Weight", (double) problem.getWeight(task));
+        }
+        int[] children = problem.getChildren();
+        int[] childEdgeCosts = problem.getChildEdgeCosts();
+        for (int task = 0; task < problem.getNumOfTasks(); task++) {
+            String sourceNodeId = problem.getTaskId(task);
+            for (int i = problem.getChildrenStart(task); i < problem.getChildrenEnd(task); i++) {
+                String targetNodeId = problem.getTaskId(children[i]);
+                Edge edge = digraph.addEdge(String.format("(%s;%s)", sourceNodeId, targetNodeId),
+                        sourceNodeId, targetNodeId, true);
+                edge.setAttribute("Weight", (double) childEdgeCosts[i]);
+            }
+        }
+        digraph.initialize(problem);
+        return digraph;
+    }
+
+    /**
+     * @return the indexed scheduling problem compiled from this digraph in `initialize()`.
+     */
+    public SchedulingProblem getProblem() {
+        return problem;
+    }
+
     /**
      * Get the `Node` object according to its value
      *
@@ -179,28 +227,14 @@ public class Digraph extends SingleGraph{
     }
 
     /**
-     * helper method for initializing bottom levels.
+     * helper method for initializing bottom levels, from the ones the scheduling problem has calculated.
      */
     private void initializeBottomLevels() {
-        for(Node node : getAllNodes()){
-            bottomLevels.put(node, calculateBottomLevel(node));
+        for (Node node : this) {
+            bottomLevels.put(node, (double) problem.getBottomLevel(node.getIndex()));
         }
     }
 
-    /**
-     * helper methods for calculating bottom levels.
-     * @param node
-     * @return double       bottom level of selected node.
-     */
-    private double calculateBottomLevel(Node node){
-        double result = getNodeWeightById(node.getId());
-        // recursively calculate bottom level.
-        for (Node children : getChildrenOfNode(node)) {
-            result = Math.max(result, getNodeWeightById(node.getId()) + calculateBottomLevel(children));
-        }
-        return result;
-    }
-
     /**
      * get the bottom level of the node
      *
@@ -6,15 +6,21 @@ package models;
 public class InputGraph {
 
     private static Digraph graph;
+    private static SchedulingProblem problem;
 
     public static void set(Digraph theGraph){
         graph = theGraph;
+        problem = theGraph.getProblem();
     }
 
     public static Digraph get(){
         return graph;
     }
 
+    public static SchedulingProblem getProblem(){
+        return problem;
+    }
+
     private static int minimumGuessCost;
 
     public static int getMinimumGuessCost() {
@@ -0,0 +1,401 @@
+package models;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Node;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, indexed representation of the task graph that the search algorithms run against.
+ * Tasks are identified by their dense index (i.e. Node.getIndex() of the Digraph it was compiled from), weights
+ * are ints, and parents/children are stored in compressed-sparse-row arrays with the edge costs aligned to them,
+ * so no string parsing or hashing is needed while searching.
+ */
+public class SchedulingProblem {
+
+    private final String name;
+    private final int numOfTasks;
+    private final String[] taskIds;
+    private final int[] weights;
+    private final int[] bottomLevels;
+    private final int[] topologicalOrder;
+    // the previous task in the same group of equivalent tasks, -1 for the first task of a group.
+    private final int[] previousEquivalentTasks;
+
+    // parents of task i are parents[parentOffsets[i] .. parentOffsets[i + 1] - 1]
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] parentEdgeCosts;
+
+    // children of task i are children[childOffsets[i] .. childOffsets[i + 1] - 1]
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] childEdgeCosts;
+
+    private final int sumOfWeights;
+    private final int criticalPath;
+
+    /**
+     * Compile the digraph into an indexed scheduling problem, this is done once after the digraph is loaded.
+     *
+     * @param digraph the input graph, its nodes must have a "Weight" attribute, as must its edges.
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public SchedulingProblem(Digraph digraph) {
+        this(digraph.getId(), taskIdsOf(digraph), weightsOf(digraph), edgesOf(digraph));
+    }
+
+    private SchedulingProblem(String name, String[] taskIds, int[] weights, int[][] edges) {
+        this(name, taskIds, weights, edges[0], edges[1], edges[2]);
+    }
+
+    /**
+     * Build the scheduling problem straight from arrays, e.g. the ones filled in by `DotParser`.
+     * The arrays are owned by the problem afterwards.
+     *
+     * @param name        name of the task graph
+     * @param taskIds     id of every task, indexed by task
+     * @param weights     weight of every task, indexed by task
+     * @param edgeSources source task of every edge
+     * @param edgeTargets target task of every edge
+     * @param edgeCosts   communication cost of every edge
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public SchedulingProblem(String name, String[] taskIds, int[] weights,
+                             int[] edgeSources, int[] edgeTargets, int[] edgeCosts) {
+        this.name = name;
+        this.taskIds = taskIds;
+        this.weights = weights;
+        numOfTasks = taskIds.length;
+        int numOfEdges = edgeSources.length;
+        parentOffsets = new int[numOfTasks + 1];
+        childOffsets = new int[numOfTasks + 1];
+
+        // count the degrees of every task first, so the CSR offsets can be laid out.
+        for (int i = 0; i < numOfEdges; i++) {
+            childOffsets[edgeSources[i] + 1]++;
+            parentOffsets[edgeTargets[i] + 1]++;
+        }
+        for (int i = 0; i < numOfTasks; i++) {
+            parentOffsets[i + 1] += parentOffsets[i];
+            childOffsets[i + 1] += childOffsets[i];
+        }
+
+        parents = new int[numOfEdges];
+        parentEdgeCosts = new int[numOfEdges];
+        children = new int[numOfEdges];
+        childEdgeCosts = new int[numOfEdges];
+
+        int[] parentCursor = new int[numOfTasks];
+        int[] childCursor = new int[numOfTasks];
+        for (int i = 0; i < numOfEdges; i++) {
+            int task = edgeSources[i];
+            int child = edgeTargets[i];
+
+            int childSlot = childOffsets[task] + childCursor[task]++;
+            children[childSlot] = child;
+            childEdgeCosts[childSlot] = edgeCosts[i];
+
+            int parentSlot = parentOffsets[child] + parentCursor[child]++;
+            parents[parentSlot] = task;
+            parentEdgeCosts[parentSlot] = edgeCosts[i];
+        }
+
+        int sum = 0;
+        for (int weight : weights) {
+            sum += weight;
+        }
+        sumOfWeights = sum;
+
+        topologicalOrder = calculateTopologicalOrder();
+        bottomLevels = calculateBottomLevels();
+        int longestPath = 0;
+        for (int i = 0; i < numOfTasks; i++) {
+            if (getInDegree(i) == 0) {
+                longestPath = Math.max(longestPath, bottomLevels[i]);
+            }
+        }
+        criticalPath = longestPath;
+        previousEquivalentTasks = calculatePreviousEquivalentTasks();
+    }
+
+    /**
+     * helper method to get the id of every task of the digraph, indexed by task.
+     */
+    private static String[] taskIdsOf(Digraph digraph) {
+        String[] result = new String[digraph.getNodeCount()];
+        for (Node node : digraph) {
+            result[node.getIndex()] = node.getId();
+        }
+        return result;
+    }
+
+    /**
+     * helper method to get the weight of every task of the digraph, indexed by task.
+     */
+    private static int[] weightsOf(Digraph digraph) {
+        int[] result = new int[digraph.getNodeCount()];
+        for (Node node : digraph) {
+            result[node.getIndex()] = parseWeight(node.getAttribute("Weight"));
+        }
+        return result;
+    }
+
+    /**
+     * helper method to get the sources, targets and communication costs of all edges of the digraph, grouped by
+     * their source task.
+     */
+    private static int[][] edgesOf(Digraph digraph) {
+        int numOfEdges = digraph.getEdgeCount();
+        int[][] result = new int[3][numOfEdges];
+        int i = 0;
+        for (Node node : digraph) {
+            for (Edge edge : node) {
+                if (edge.getNode0() != node) {
+                    continue;
+                }
+                result[0][i] = node.getIndex();
+                result[1][i] = edge.getNode1().getIndex();
+                result[2][i] = parseWeight(edge.getAttribute("Weight"));
+                i++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * helper method to parse a "Weight" attribute, which may be stored as a number or as a string.
+     */
+    private static int parseWeight(Object weight) {
+        if (weight instanceof Number) {
+            return ((Number) weight).intValue();
+        }
+        return (int) Double.parseDouble(weight.toString());
+    }
+
+    /**
+     * helper method for calculating a topological order of the tasks, i.e. every task comes after all its parents.
+     *
+     * @throws IllegalArgumentException if the graph has a cycle, so the tasks on it and after it have no such order
+     */
+    private int[] calculateTopologicalOrder() {
+        int[] result = new int[numOfTasks];
+        int size = 0;
+        int[] remainingInDegrees = new int[numOfTasks];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < numOfTasks; i++) {
+            remainingInDegrees[i] = getInDegree(i);
+            if (remainingInDegrees[i] == 0) {
+                ready.push(i);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int task = ready.pop();
+            result[size++] = task;
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                if (--remainingInDegrees[children[i]] == 0) {
+                    ready.push(children[i]);
+                }
+            }
+        }
+        if (size < numOfTasks) {
+            throw new IllegalArgumentException("the task graph has a cycle, " + (numOfTasks - size)
+                    + " of its " + numOfTasks + " tasks are on or after it");
+        }
+        return result;
+    }
+
+    /**
+     * helper method for calculating the bottom levels of all tasks in reverse topological order.
+     *
+     * @return int[]    bottom level of every task, i.e. the task's weight plus the max bottom level of its children.
+     */
+    private int[] calculateBottomLevels() {
+        int[] result = new int[numOfTasks];
+        for (int i = numOfTasks - 1; i >= 0; i--) {
+            int task = topologicalOrder[i];
+            int maxChildBottomLevel = 0;
+            for (int j = childOffsets[task]; j < childOffsets[task + 1]; j++) {
+                maxChildBottomLevel = Math.max(maxChildBottomLevel, result[children[j]]);
+            }
+            result[task] = weights[task] + maxChildBottomLevel;
+        }
+        return result;
+    }
+
+    /**
+     * helper method for grouping equivalent tasks, i.e. tasks with the same weight, the same parents and the same
+     * children, with the same communication costs. Any schedule stays valid with the same makespan when two
+     * equivalent tasks swap places, so only the lowest-index unscheduled task of a group needs to be tried.
+     *
+     * @return int[]    the previous task in the same group of every task, or -1 for the first task of a group.
+     */
+    private int[] calculatePreviousEquivalentTasks() {
+        int[] result = new int[numOfTasks];
+        Map<String, Integer> lastTaskOfGroup = new HashMap<>();
+        for (int task = 0; task < numOfTasks; task++) {
+            String key = weights[task] + "|" + edgesKey(parentOffsets, parents, parentEdgeCosts, task)
+                    + "|" + edgesKey(childOffsets, children, childEdgeCosts, task);
+            Integer previousTask = lastTaskOfGroup.put(key, task);
+            result[task] = previousTask == null ? -1 : previousTask;
+        }
+        return result;
+    }
+
+    /**
+     * helper method to describe the edges of a task in CSR layout as a string that does not depend on their order.
+     */
+    private static String edgesKey(int[] offsets, int[] tasks, int[] edgeCosts, int task) {
+        long[] edges = new long[offsets[task + 1] - offsets[task]];
+        for (int i = offsets[task]; i < offsets[task + 1]; i++) {
+            edges[i - offsets[task]] = ((long) tasks[i] << 32) | edgeCosts[i];
+        }
+        Arrays.sort(edges);
+        return Arrays.toString(edges);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNumOfTasks() {
+        return numOfTasks;
+    }
+
+    public String getTaskId(int task) {
+        return taskIds[task];
+    }
+
+    public int getWeight(int task) {
+        return weights[task];
+    }
+
+    public int getBottomLevel(int task) {
+        return bottomLevels[task];
+    }
+
+    public int getSumOfWeights() {
+        return sumOfWeights;
+    }
+
+    public int getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * @param numOfProcessors the number of processors
+     * @return a lower bound of the makespan of any schedule, no schedule can be shorter than the critical path, or than
+     * all the work spread evenly over the processors
+     */
+    public int getLowerBound(int numOfProcessors) {
+        return Math.max(criticalPath, (int) Math.ceil(sumOfWeights / (double) numOfProcessors));
+    }
+
+    public int getInDegree(int task) {
+        return parentOffsets[task + 1] - parentOffsets[task];
+    }
+
+    public int getOutDegree(int task) {
+        return childOffsets[task + 1] - childOffsets[task];
+    }
+
+    /**
+     * @return the index into `getParents()`/`getParentEdgeCosts()` where the parents of the task start.
+     */
+    public int getParentsStart(int task) {
+        return parentOffsets[task];
+    }
+
+    /**
+     * @return the index into `getParents()`/`getParentEdgeCosts()` where the parents of the task end (exclusive).
+     */
+    public int getParentsEnd(int task) {
+        return parentOffsets[task + 1];
+    }
+
+    /**
+     * @return the index into `getChildren()`/`getChildEdgeCosts()` where the children of the task start.
+     */
+    public int getChildrenStart(int task) {
+        return childOffsets[task];
+    }
+
+    /**
+     * @return the index into `getChildren()`/`getChildEdgeCosts()` where the children of the task end (exclusive).
+     */
+    public int getChildrenEnd(int task) {
+        return childOffsets[task + 1];
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return parent tasks of all tasks, in CSR layout.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return communication cost of the edge from each entry of `getParents()` to its task.
+     */
+    public int[] getParentEdgeCosts() {
+        return parentEdgeCosts;
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return child tasks of all tasks, in CSR layout.
+     */
+    public int[] getChildren() {
+        return children;
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return communication cost of the edge from each task to its entry of `getChildren()`.
+     */
+    public int[] getChildEdgeCosts() {
+        return childEdgeCosts;
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return all tasks in topological order, i.e. every task comes after all its parents.
+     */
+    public int[] getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * Equivalent tasks have the same weight, parents and children, with the same communication costs.
+     *
+     * @return the next lower-index task that is equivalent to the task, or -1 if there is none.
+     */
+    public int getPreviousEquivalentTask(int task) {
+        return previousEquivalentTasks[task];
+    }
+
+    /**
+     * get the communication cost of the edge sourceTask -> destTask
+     *
+     * @return int      the edge cost, or -1 if there is no such edge.
+     */
+    public int getEdgeCost(int sourceTask, int destTask) {
+        for (int i = childOffsets[sourceTask]; i < childOffsets[sourceTask + 1]; i++) {
+            if (children[i] == destTask) {
+                return childEdgeCosts[i];
+            }
+        }
+        return -1;
+    }
+}
@@ -4,8 +4,13 @@ import models.Digraph;
 import org.graphstream.graph.Node;
 import org.graphstream.stream.file.FileSinkDOT;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * This class can randomly generate digraph
@@ -53,6 +58,12 @@ public class GraphGenerator {
             while (source == target && graph.getNodeById(String.valueOf(source)).hasEdgeBetween(String.valueOf(target))) {
                 target = random.nextInt(nodeCount);
             }
+            // every edge goes from the lower to the higher node, so the graph can not have a cycle.
+            if (source > target) {
+                int swap = source;
+                source = target;
+                target = swap;
+            }
 
             isTargetValid = true;
 
@@ -90,4 +101,37 @@ public class GraphGenerator {
         return graph;
     }
 
+    /**
+     * Write a random DAG straight to a dot file, without building a graph in memory first, so large task graphs
+     * (e.g. 100k tasks) can be generated quickly. Every task gets edges from up to `maxNumOfParents` random tasks
+     * that come before it, so the graph is always acyclic.
+     *
+     * @param numOfTasks      number of tasks in the DAG
+     * @param maxNumOfParents max number of parents of each task
+     * @param seed            seed of the random generator, the same seed always gives the same file
+     * @param path            the dot file to write
+     */
+    public static void writeLargeDAG(int numOfTasks, int maxNumOfParents, long seed, Path path) throws IOException {
+        Random random = new Random(seed);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("digraph \"random_" + numOfTasks + "_" + seed + "\" {\n");
+            for (int task = 0; task < numOfTasks; task++) {
+                writer.write("\t" + task + "\t [Weight=" + (1 + random.nextInt(10)) + "];\n");
+                int numOfParents = task == 0 ? 0 : random.nextInt(Math.min(task, maxNumOfParents) + 1);
+                Set<Integer> parents = new HashSet<>();
+                while (parents.size() < numOfParents) {
+                    // parents are picked close to the task, so the graph is deep rather than flat
+                    int parent = task - 1 - random.nextInt(Math.min(task, 100));
+                    if (!parents.add(parent)) {
+                        continue;
+                    }
+                    writer.write("\t" + parent + " -> " + task + "\t [Weight=" + random.nextInt(20) + "];\n");
+                }
+            }
+            writer.write("}\n");
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package utils;
+
+import io.DotParser;
+import io.InputLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares the time used to load large generated task graphs through GraphStream's FileSourceDOT with
+ * `DotParser`, both parsing only and building the whole digraph the way `InputLoader` does.
+ * Usage: LoaderBenchmark [number of tasks ...], the default sizes are 1000, 10000 and 100000 tasks.
+ */
+public class LoaderBenchmark {
+
+    private static final int MAX_NUM_OF_PARENTS = 3;
+    private static final int NUM_OF_RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {1000, 10000, 100000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Path directory = Files.createTempDirectory("loader-benchmark");
+        System.out.printf("%10s %12s %14s %14s %14s%n", "tasks", "file size", "GraphStream", "DotParser",
+                "DotParser+graph");
+        for (int size : sizes) {
+            Path path = directory.resolve("random-" + size + ".dot");
+            GraphGenerator.writeLargeDAG(size, MAX_NUM_OF_PARENTS, size, path);
+            String file = path.toString();
+
+            double graphStream = bestTime(() -> InputLoader.loadDotFileWithGraphStream(file));
+            double parser = bestTime(() -> DotParser.parse(file));
+            double parserAndGraph = bestTime(() -> InputLoader.loadDotFileFromPath(file));
+            System.out.printf("%10d %10dKB %13.1fms %13.1fms %13.1fms%n", size, Files.size(path) / 1024,
+                    graphStream, parser, parserAndGraph);
+            Files.delete(path);
+        }
+        Files.delete(directory);
+    }
+
+    private interface Loader {
+        void load() throws IOException;
+    }
+
+    /**
+     * @return the shortest time used by the loader in milliseconds, after one warm up run
+     */
+    private static double bestTime(Loader loader) throws IOException {
+        loader.load();
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < NUM_OF_RUNS; i++) {
+            long start = System.nanoTime();
+            loader.load();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
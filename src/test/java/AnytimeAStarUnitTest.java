@@ -0,0 +1,76 @@
+import algorithm.AStar;
+import algorithm.AnytimeAStar;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SearchStatus;
+import io.InputLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the anytime weighted A star reaches the same optimal schedules as A star without a deadline, that the
+ * schedules it streams keep improving, and that it stops at the deadline with a valid lower bound.
+ * g4 is left out since A star runs out of memory on it.
+ */
+public class AnytimeAStarUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkSameAsAStar(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkSameAsAStar(graphName, 4);
+    }
+
+    @Test
+    public void Deadline() {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        long start = System.nanoTime();
+        AnytimeAStar anytimeAStar = new AnytimeAStar(SearchLimit.ofSeconds(0.5), null);
+        PartialSolution solution = anytimeAStar.build();
+        // the upper bound heuristics run before the deadline is checked, so allow for them as well.
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+
+        assertEquals(SearchStatus.TIMEOUT, anytimeAStar.getStatus());
+        assertFalse(anytimeAStar.isOptimal());
+        assertEquals(21, solution.getNumOfScheduledTasks());
+        assertTrue(anytimeAStar.getLowerBound() < solution.calculateEndScheduleTime());
+    }
+
+    private void checkSameAsAStar(String graphName, int numOfProcessors) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        int expected = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+
+        List<Integer> costs = new ArrayList<>();
+        AnytimeAStar anytimeAStar = new AnytimeAStar(SearchLimit.none(), (solution, lowerBound) -> {
+            assertTrue(lowerBound <= solution.calculateEndScheduleTime());
+            assertTrue(lowerBound <= expected);
+            costs.add(solution.calculateEndScheduleTime());
+        });
+        PartialSolution solution = anytimeAStar.build();
+
+        assertEquals(expected, solution.calculateEndScheduleTime());
+        assertTrue(anytimeAStar.isOptimal());
+        assertEquals(SearchStatus.OPTIMAL, anytimeAStar.getStatus());
+        assertEquals(expected, anytimeAStar.getLowerBound());
+        assertEquals(expected, (int) costs.get(costs.size() - 1));
+        for (int i = 1; i < costs.size(); i++) {
+            assertTrue(costs.get(i) < costs.get(i - 1));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import algorithm.LowerBound;
+import main.Batch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the batch mode finds the graphs of a manifest or a directory, solves them to optimality at the same
+ * time, writes their schedules and summarises them, with any set of lower bounds.
+ */
+public class BatchUnitTest {
+
+    @Test
+    public void Manifest(@TempDir Path directory) throws Exception {
+        Path manifest = directory.resolve("manifest.txt");
+        Files.write(manifest, Arrays.asList(
+                "# graph and numbers of processors",
+                Paths.get("examples/g2/in.dot").toAbsolutePath() + " 2",
+                "",
+                Paths.get("examples/g5/in.dot").toAbsolutePath().toString()));
+
+        List<Batch.Job> jobs = Batch.readJobs(manifest, new int[]{2, 4}, directory.resolve("out"));
+        assertEquals(3, jobs.size());
+        List<Batch.Result> results = Batch.solveAll(jobs, 2, 0, LowerBound.getEnabled());
+
+        int[] optimal = {107, 22, 20};
+        for (int i = 0; i < results.size(); i++) {
+            Batch.Result result = results.get(i);
+            assertNull(result.getError());
+            assertEquals("OPTIMAL", result.getStatus());
+            assertEquals(optimal[i], result.getMakespan());
+            assertTrue(Files.size(result.getJob().getOutput()) > 0);
+        }
+        assertEquals(directory.resolve("out/in-4p-output.dot"), results.get(2).getJob().getOutput());
+
+        StringWriter csv = new StringWriter();
+        Batch.writeSummary(results, csv, false);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("input,processors,status,makespan"));
+        assertTrue(lines[1].contains(",2,OPTIMAL,107,"));
+
+        StringWriter json = new StringWriter();
+        Batch.writeSummary(results, json, true);
+        assertTrue(json.toString().startsWith("[\n  {\"input\": "));
+        assertTrue(json.toString().contains("\"makespan\": 22"));
+    }
+
+    /**
+     * the schedules reported as optimal are optimal with lower bounds other than the default ones too.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"idle", "bl", "drt", "idle,bl,fbl"})
+    public void OtherLowerBounds(String lowerBounds, @TempDir Path directory) throws Exception {
+        Path manifest = directory.resolve("manifest.txt");
+        Files.write(manifest, Arrays.asList(
+                Paths.get("examples/g2/in.dot").toAbsolutePath().toString(),
+                Paths.get("examples/g5/in.dot").toAbsolutePath().toString()));
+
+        List<Batch.Job> jobs = Batch.readJobs(manifest, new int[]{2, 4}, directory.resolve("out"));
+        List<Batch.Result> results = Batch.solveAll(jobs, 2, 0, LowerBound.parse(lowerBounds));
+
+        int[] optimal = {107, 104, 22, 20};
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("OPTIMAL", results.get(i).getStatus());
+            assertEquals(optimal[i], results.get(i).getMakespan());
+        }
+    }
+
+    @Test
+    public void Directory(@TempDir Path directory) throws Exception {
+        Files.createDirectories(directory.resolve("g2"));
+        Files.copy(Paths.get("examples/g2/in.dot"), directory.resolve("g2/in.dot"));
+        Files.write(directory.resolve("broken.dot"), Arrays.asList("digraph {", "a [Weight="));
+        // the schedules of earlier runs are not graphs to schedule.
+        Files.write(directory.resolve("g2/in-2p-output.dot"), Arrays.asList("digraph {}"));
+
+        List<Batch.Job> jobs = Batch.readJobs(directory, new int[]{2}, null);
+        assertEquals(2, jobs.size());
+        List<Batch.Result> results = Batch.solveAll(jobs, 2, 0, LowerBound.getEnabled());
+
+        // a graph that can not be parsed does not stop the others.
+        assertEquals("ERROR", results.get(0).getStatus());
+        assertEquals(107, results.get(1).getMakespan());
+        assertEquals(directory.resolve("g2/in-2p-output.dot"), results.get(1).getJob().getOutput());
+    }
+}
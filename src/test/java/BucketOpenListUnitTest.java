@@ -0,0 +1,80 @@
+import algorithm.BucketOpenList;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.InputGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the bucket open list polls partial solutions by their rounded cost function and then the deepest first.
+ */
+public class BucketOpenListUnitTest {
+
+    @Test
+    public void PollOrder() {
+        InputLoader.loadDotFile("g5");
+        InputLoader.setNumOfProcessors(3);
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+
+        List<PartialSolution> states = new ArrayList<>();
+        states.add(new PartialSolution());
+        for (int i = 0; states.size() < 2000 && i < states.size(); i++) {
+            states.addAll(states.get(i).getAllNextPartialSolution());
+        }
+
+        BucketOpenList openList = new BucketOpenList();
+        // interleave offers and polls, so lower buckets are filled again after higher ones have been polled.
+        int numOfPolled = 0;
+        for (int i = 0; i < states.size(); i++) {
+            openList.offer(states.get(i));
+            if (i % 4 == 3) {
+                PartialSolution peeked = openList.peek();
+                assertSame(peeked, openList.poll());
+                numOfPolled++;
+            }
+        }
+        assertEquals(states.size() - numOfPolled, openList.size());
+        int numOfIterated = 0;
+        for (PartialSolution ignored : openList) {
+            numOfIterated++;
+        }
+        assertEquals(openList.size(), numOfIterated);
+
+        PartialSolution prev = openList.poll();
+        PartialSolution next;
+        while ((next = openList.poll()) != null) {
+            int prevCostFunction = (int) Math.ceil(prev.getCostFunction());
+            int nextCostFunction = (int) Math.ceil(next.getCostFunction());
+            assertTrue(prevCostFunction <= nextCostFunction);
+            if (prevCostFunction == nextCostFunction) {
+                assertTrue(prev.getNumOfScheduledTasks() >= next.getNumOfScheduledTasks());
+            }
+            prev = next;
+        }
+        assertTrue(openList.isEmpty());
+        assertNull(openList.peek());
+    }
+
+    @Test
+    public void Clear() {
+        InputLoader.loadDotFile("g2");
+        InputLoader.setNumOfProcessors(2);
+
+        BucketOpenList openList = new BucketOpenList();
+        PartialSolution root = new PartialSolution();
+        openList.addAll(root.getAllNextPartialSolution());
+        openList.clear();
+        assertTrue(openList.isEmpty());
+        assertNull(openList.poll());
+
+        openList.offer(root);
+        assertSame(root, openList.poll());
+    }
+}
@@ -0,0 +1,127 @@
+import algorithm.LowerBound;
+import io.DotParser;
+import main.Daemon;
+import models.SchedulingProblem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the daemon answers pipelined requests in order, with the schedules in the format of the output dot
+ * files, and serves several clients at the same time.
+ */
+public class DaemonUnitTest {
+
+    private Daemon daemon;
+
+    @BeforeEach
+    public void startDaemon() throws IOException {
+        daemon = new Daemon(0, 2, 1, LowerBound.getEnabled());
+        CompletableFuture.runAsync(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    public void closeDaemon() throws IOException {
+        daemon.close();
+    }
+
+    @Test
+    public void Pipelining() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            ByteArrayOutputStream requests = new ByteArrayOutputStream();
+            requests.write(request("g2", 2, 0));
+            requests.write("SOLVE 2 0 5\nhello".getBytes(StandardCharsets.UTF_8));
+            requests.write(request("g5", 4, 0));
+            requests.write(request("g11", 2, 0));
+            socket.getOutputStream().write(requests.toByteArray());
+            socket.shutdownOutput();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            assertSchedule(in, 107, 16);
+            assertTrue(readLine(in).startsWith("ERROR"));
+            assertSchedule(in, 20, 11);
+            assertSchedule(in, 350, 11);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void ConcurrentClients() throws Exception {
+        String[] graphs = {"g2", "g5", "g11", "g8"};
+        int[] optimal = {107, 22, 350, 28};
+        List<CompletableFuture<Integer>> makespans = new ArrayList<>();
+        for (String graph : graphs) {
+            makespans.add(CompletableFuture.supplyAsync(() -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                    socket.getOutputStream().write(request(graph, 2, 0));
+                    String[] header = readLine(new DataInputStream(socket.getInputStream())).split(" ");
+                    assertEquals("OPTIMAL", header[1]);
+                    return Integer.parseInt(header[2]);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (int i = 0; i < graphs.length; i++) {
+            assertEquals(optimal[i], (int) makespans.get(i).get(60, TimeUnit.SECONDS));
+        }
+    }
+
+    private static byte[] request(String graph, int numOfProcessors, double timeLimitSeconds) throws IOException {
+        byte[] dot = Files.readAllBytes(Paths.get("examples/" + graph + "/in.dot"));
+        byte[] header = String.format("SOLVE %d %s %d\n", numOfProcessors, timeLimitSeconds, dot.length)
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        request.write(header);
+        request.write(dot);
+        return request.toByteArray();
+    }
+
+    private static void assertSchedule(DataInputStream in, int makespan, int numOfTasks) throws IOException {
+        String[] header = readLine(in).split(" ");
+        assertEquals("OK", header[0]);
+        assertEquals("OPTIMAL", header[1]);
+        assertEquals(makespan, Integer.parseInt(header[2]));
+        byte[] dot = new byte[Integer.parseInt(header[3])];
+        in.readFully(dot);
+
+        SchedulingProblem schedule = DotParser.parse(ByteBuffer.wrap(dot));
+        assertTrue(schedule.getName().startsWith("solution."));
+        assertEquals(numOfTasks, schedule.getNumOfTasks());
+        assertTrue(new String(dot, StandardCharsets.UTF_8).contains("\"Processor\"="));
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            assertTrue(c != -1);
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,101 @@
+import io.DotParser;
+import io.InputLoader;
+import models.SchedulingProblem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that DotParser reads the example graphs into the same scheduling problems as GraphStream's DOT reader,
+ * and that it handles the rest of the DOT syntax it may come across.
+ */
+public class DotParserUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void SameAsGraphStream(String graphName) throws IOException {
+        String path = "examples/" + graphName + "/in.dot";
+        SchedulingProblem expected = InputLoader.loadDotFileWithGraphStream(path).getProblem();
+        SchedulingProblem actual = DotParser.parse(path);
+
+        assertEquals(expected.getNumOfTasks(), actual.getNumOfTasks());
+        for (int task = 0; task < expected.getNumOfTasks(); task++) {
+            assertEquals(expected.getTaskId(task), actual.getTaskId(task));
+            assertEquals(expected.getWeight(task), actual.getWeight(task));
+            assertEquals(expected.getBottomLevel(task), actual.getBottomLevel(task));
+            assertEquals(sortedEdges(expected, task), sortedEdges(actual, task));
+        }
+        assertEquals(expected.getCriticalPath(), actual.getCriticalPath());
+    }
+
+    @Test
+    public void GraphName() throws IOException {
+        assertEquals("packingcompact_2p_gb_Random_Nodes_21_Density_2.14_CCR_9.98_WeightType_Random_schedule.gxl",
+                DotParser.parse("examples/g4/in.dot").getName());
+    }
+
+    @Test
+    public void OtherSyntax() throws IOException {
+        SchedulingProblem problem = parse("/* header */ strict digraph {\n"
+                + "  graph [rankdir=LR]; node [shape=box]\n"
+                + "  # a comment line\n"
+                + "  \"task \\\"a\\\"\" [Weight=2, Start=0]\n"
+                + "  b [Weight=3.0]; c [Weight=4] // trailing comment\n"
+                + "  \"task \\\"a\\\"\" -> b -> c [Weight=5]\n"
+                + "  label = \"ignored\"\n"
+                + "  subgraph s { d [Weight=1] } c -> d\n"
+                + "}");
+
+        assertEquals(4, problem.getNumOfTasks());
+        assertEquals("task \"a\"", problem.getTaskId(0));
+        assertArrayEquals(new int[]{2, 3, 4, 1}, new int[]{problem.getWeight(0), problem.getWeight(1),
+                problem.getWeight(2), problem.getWeight(3)});
+        assertEquals(5, problem.getEdgeCost(0, 1));
+        assertEquals(5, problem.getEdgeCost(1, 2));
+        assertEquals(0, problem.getEdgeCost(2, 3));
+        assertEquals(-1, problem.getEdgeCost(0, 2));
+    }
+
+    @Test
+    public void InvalidSyntax() {
+        assertThrows(IOException.class, () -> parse("digraph g { a [Weight=1] "));
+        assertThrows(IOException.class, () -> parse("digraph g { a [Weight=x] }"));
+        assertThrows(IOException.class, () -> parse("tree g { }"));
+    }
+
+    @Test
+    public void Cycle() {
+        IOException e = assertThrows(IOException.class, () -> parse("digraph g { a [Weight=1]; b [Weight=2]; "
+                + "c [Weight=3]; d [Weight=4]; a -> b [Weight=1]; b -> c [Weight=1]; c -> b [Weight=1]; "
+                + "c -> d [Weight=1] }"));
+        assertTrue(e.getMessage().contains("cycle"));
+        assertThrows(IOException.class, () -> parse("digraph g { a [Weight=1]; a -> a [Weight=1] }"));
+    }
+
+    private SchedulingProblem parse(String text) throws IOException {
+        return DotParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the children of the task with their communication costs, in a fixed order.
+     */
+    private String sortedEdges(SchedulingProblem problem, int task) {
+        int[] children = problem.getChildren();
+        String[] edges = new String[problem.getOutDegree(task)];
+        for (int i = problem.getChildrenStart(task); i < problem.getChildrenEnd(task); i++) {
+            edges[i - problem.getChildrenStart(task)] = problem.getTaskId(children[i]) + "=" + problem.getChildEdgeCosts()[i];
+        }
+        Arrays.sort(edges);
+        return Arrays.toString(edges);
+    }
+}
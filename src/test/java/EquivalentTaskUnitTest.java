@@ -0,0 +1,174 @@
+import algorithm.AStar;
+import algorithm.AStarUtil;
+import algorithm.BranchAndBound;
+import algorithm.ClosedSet;
+import algorithm.IDAStar;
+import algorithm.ParallelAStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import algorithm.SolutionTreeNode;
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import models.SchedulingProblem;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the grouping of equivalent tasks, and that the searches only trying the first unscheduled task of each group
+ * still find the optimal makespans of an exhaustive search over all tasks.
+ */
+public class EquivalentTaskUnitTest {
+
+    /**
+     * a -> b, c, d -> e, where b and c have the same weight and edge costs, but d sends its data at a different cost.
+     */
+    @Test
+    public void Grouping() {
+        Digraph digraph = load(new String[]{"a", "b", "c", "d", "e"}, new int[]{1, 2, 2, 2, 3},
+                new int[]{0, 0, 0, 1, 2, 3}, new int[]{1, 2, 3, 4, 4, 4}, new int[]{3, 3, 3, 1, 1, 2});
+        SchedulingProblem problem = digraph.getProblem();
+        assertArrayEquals(new int[]{-1, -1, 1, -1, -1}, new int[]{problem.getPreviousEquivalentTask(0),
+                problem.getPreviousEquivalentTask(1), problem.getPreviousEquivalentTask(2),
+                problem.getPreviousEquivalentTask(3), problem.getPreviousEquivalentTask(4)});
+
+        InputLoader.setNumOfProcessors(2);
+        PartialSolution state = new PartialSolution(new PartialSolution(), 0, 1);
+        assertArrayEquals(new int[]{1, 3}, state.getAvailableNextTasks());
+        assertEquals(3, state.getAvailableNextNodes().size());
+        state = new PartialSolution(state, 1, 2);
+        assertArrayEquals(new int[]{2, 3}, state.getAvailableNextTasks());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6})
+    public void SameAsExhaustiveSearch(int seed) {
+        Digraph digraph = buildGraph(new Random(seed));
+
+        for (int numOfProcessors = 2; numOfProcessors <= 3; numOfProcessors++) {
+            InputLoader.setNumOfProcessors(numOfProcessors);
+            int expected = exhaustiveSearch();
+
+            assertEquals(expected, new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime());
+            assertEquals(expected, new IDAStar().build().calculateEndScheduleTime());
+            assertEquals(expected, new ParallelDFS(2).build().calculateEndScheduleTime());
+            assertEquals(expected, BranchAndBound.solve(nodeInfoOf(digraph), digraph.getNodeCount(),
+                    digraph.getProblem().getSumOfWeights(), 2));
+
+            AStarUtil aStarUtil = new AStarUtil();
+            assertTrue(aStarUtil.getBestPartialSolution().calculateEndScheduleTime() >= expected);
+            // ParallelAStar starts from the upper bound of `AStarUtil`, the way `FxMain` runs it.
+            assertEquals(expected, new ParallelAStar(2).build().calculateEndScheduleTime());
+        }
+    }
+
+    /**
+     * build a graph of a source, groups of 2 or 3 equivalent tasks depending on the source, a sink depending on all
+     * of them, and a task on its own.
+     */
+    private Digraph buildGraph(Random random) {
+        int numOfGroups = 2;
+        List<Integer> groupSizes = new ArrayList<>();
+        int numOfTasks = 3;
+        for (int i = 0; i < numOfGroups; i++) {
+            groupSizes.add(2 + random.nextInt(2));
+            numOfTasks += groupSizes.get(i);
+        }
+        String[] ids = new String[numOfTasks];
+        int[] weights = new int[numOfTasks];
+        List<int[]> edges = new ArrayList<>();
+        int task = 1;
+        for (int groupSize : groupSizes) {
+            int weight = 1 + random.nextInt(9);
+            int inCost = random.nextInt(10);
+            int outCost = random.nextInt(10);
+            for (int i = 0; i < groupSize; i++, task++) {
+                weights[task] = weight;
+                edges.add(new int[]{0, task, inCost});
+                edges.add(new int[]{task, numOfTasks - 2, outCost});
+            }
+        }
+        for (int i = 0; i < numOfTasks; i++) {
+            ids[i] = "t" + i;
+            if (weights[i] == 0) {
+                weights[i] = 1 + random.nextInt(9);
+            }
+        }
+
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        int[] costs = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            sources[i] = edges.get(i)[0];
+            targets[i] = edges.get(i)[1];
+            costs[i] = edges.get(i)[2];
+        }
+        return load(ids, weights, sources, targets, costs);
+    }
+
+    private Digraph load(String[] ids, int[] weights, int[] sources, int[] targets, int[] costs) {
+        return Digraph.fromProblem("test", new SchedulingProblem("test", ids, weights, sources, targets, costs));
+    }
+
+    private Map<Node, SolutionTreeNode> nodeInfoOf(Digraph digraph) {
+        Map<Node, SolutionTreeNode> nodeInfo = new HashMap<>();
+        for (Node node : digraph) {
+            int weight = (int) digraph.getNodeWeightById(node.getId());
+            nodeInfo.put(node, new SolutionTreeNode(node.getId(), weight, node.getInDegree()));
+        }
+        return nodeInfo;
+    }
+
+    private int best;
+    private ClosedSet seen;
+
+    /**
+     * @return the optimal makespan, found by trying every available task, equivalent or not, on every processor.
+     * Only partial schedules that have been seen before or can not beat the best schedule so far are skipped.
+     */
+    private int exhaustiveSearch() {
+        best = Integer.MAX_VALUE;
+        seen = new ClosedSet();
+        // no pruning by the guess cost inside PartialSolution
+        InputGraph.setMinimumGuessCost(0);
+        exhaustiveSearch(new PartialSolution());
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+        return best;
+    }
+
+    private void exhaustiveSearch(PartialSolution state) {
+        // the cost function is a lower bound of the makespan, and does not depend on equivalent tasks.
+        if (state.getCostFunction() >= best || !seen.add(state.calculateFingerprint())) {
+            return;
+        }
+        if (state.getNumOfScheduledTasks() == InputGraph.getProblem().getNumOfTasks()) {
+            best = state.calculateEndScheduleTime();
+            return;
+        }
+        for (Node node : state.getAvailableNextNodes()) {
+            boolean triedEmptyProcessor = false;
+            for (int p = 1; p <= InputLoader.getNumOfProcessors(); p++) {
+                // the processors are all the same, so only the first empty one is tried.
+                if (state.findLastFinishTime(p) == 0) {
+                    if (triedEmptyProcessor) {
+                        continue;
+                    }
+                    triedEmptyProcessor = true;
+                }
+                exhaustiveSearch(new PartialSolution(state, node, p));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import algorithm.AStar;
+import algorithm.ExternalMemoryAStar;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the external memory A star finds the optimal schedules of A star, with segments small enough that
+ * every bucket spans several of them, and that it cleans up its segment files.
+ */
+public class ExternalMemoryAStarUnitTest {
+
+    // a few partial solutions per segment.
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path tempDirectory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) throws IOException {
+        checkSameAsAStar(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) throws IOException {
+        checkSameAsAStar(graphName, 4);
+    }
+
+    private void checkSameAsAStar(String graphName, int numOfProcessors) throws IOException {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        int expected = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+
+        ExternalMemoryAStar externalMemoryAStar = new ExternalMemoryAStar(tempDirectory, SEGMENT_SIZE);
+        PartialSolution solution = externalMemoryAStar.build();
+
+        assertEquals(expected, solution.calculateEndScheduleTime());
+        assertTrue(externalMemoryAStar.getNumOfSegments() > 0);
+        assertTrue(externalMemoryAStar.getNumOfSpilledBytes() > 0);
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+import algorithm.AStar;
+import algorithm.ClosedSet;
+import algorithm.IDAStar;
+import algorithm.ParallelAStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import models.SchedulingProblem;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the fixed task order detection, and that the searches using it still find optimal schedules on
+ * fork, join, fork-join, independent and mixed task graphs, compared with an exhaustive search.
+ */
+public class FixedTaskOrderUnitTest {
+
+    /**
+     * a fork a -> b, c, d with different communication costs. Once a is scheduled, b, c and d are sorted by data
+     * ready time, i.e. by communication cost, which puts c (cost 1) first.
+     */
+    @Test
+    public void ForkOrderedByDataReadyTime() {
+        load(new String[]{"a", "b", "c", "d"}, new int[]{2, 3, 3, 3},
+                new int[]{0, 0, 0}, new int[]{1, 2, 3}, new int[]{5, 1, 3});
+        InputLoader.setNumOfProcessors(2);
+
+        PartialSolution state = new PartialSolution(new PartialSolution(), 0, 1);
+        assertEquals(2, state.findFixedOrderTask(state.getAvailableNextTasks()));
+    }
+
+    /**
+     * a join b, c -> d, where the task that has to send its data the furthest goes first.
+     */
+    @Test
+    public void JoinOrderedByOutEdgeCost() {
+        load(new String[]{"b", "c", "d"}, new int[]{3, 3, 2},
+                new int[]{0, 1}, new int[]{2, 2}, new int[]{1, 4});
+        InputLoader.setNumOfProcessors(2);
+
+        PartialSolution root = new PartialSolution();
+        assertEquals(1, root.findFixedOrderTask(root.getAvailableNextTasks()));
+    }
+
+    /**
+     * tasks with different children, or with more than one parent, never have a fixed task order.
+     */
+    @Test
+    public void NoFixedOrder() {
+        load(new String[]{"a", "b", "c", "d"}, new int[]{1, 1, 1, 1},
+                new int[]{0, 1}, new int[]{2, 3}, new int[]{1, 1});
+        InputLoader.setNumOfProcessors(2);
+        PartialSolution root = new PartialSolution();
+        assertEquals(-1, root.findFixedOrderTask(root.getAvailableNextTasks()));
+
+        // a fork whose data ready times and out edge costs are sorted in different directions.
+        load(new String[]{"a", "b", "c", "d"}, new int[]{1, 1, 1, 1},
+                new int[]{0, 0, 1, 2}, new int[]{1, 2, 3, 3}, new int[]{1, 2, 1, 5});
+        PartialSolution state = new PartialSolution(root, 0, 1);
+        assertEquals(-1, state.findFixedOrderTask(state.getAvailableNextTasks()));
+    }
+
+    /**
+     * a fork a -> b, c, d where c and d join at e but b has no child. b has the virtual sink as its child, so the
+     * tasks do not share a child, even though all of them tie on data ready time and out edge cost.
+     */
+    @Test
+    public void MixedChildren() {
+        load(new String[]{"a", "b", "c", "d", "e"}, new int[]{1, 6, 3, 3, 4},
+                new int[]{0, 0, 0, 2, 3}, new int[]{1, 2, 3, 4, 4}, new int[]{1, 1, 1, 0, 0});
+        InputLoader.setNumOfProcessors(2);
+
+        PartialSolution state = new PartialSolution(new PartialSolution(), 0, 1);
+        assertEquals(-1, state.findFixedOrderTask(state.getAvailableNextTasks()));
+        assertEquals(10, new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime());
+        assertEquals(10, new ParallelDFS(2).build().calculateEndScheduleTime());
+        assertEquals(10, new IDAStar().build().calculateEndScheduleTime());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10})
+    public void SameAsExhaustiveSearch(int seed) {
+        Random random = new Random(seed);
+        int numOfMiddleTasks = 4 + random.nextInt(3);
+        String shape = new String[]{"fork", "join", "forkjoin", "independent", "mixed"}[seed % 5];
+        buildGraph(shape, numOfMiddleTasks, random);
+
+        for (int numOfProcessors = 2; numOfProcessors <= 3; numOfProcessors++) {
+            InputLoader.setNumOfProcessors(numOfProcessors);
+            int expected = exhaustiveSearch();
+
+            AStar aStar = new AStar();
+            assertEquals(expected, aStar.buildTree(new PartialSolution()).calculateEndScheduleTime());
+            if (!shape.equals("mixed")) {
+                assertTrue(aStar.getNumOfFixedTaskOrderStates() > 0);
+            }
+            assertEquals(expected, new ParallelAStar(2).build().calculateEndScheduleTime());
+            assertEquals(expected, new IDAStar().build().calculateEndScheduleTime());
+            assertEquals(expected, new ParallelDFS(2).build().calculateEndScheduleTime());
+        }
+    }
+
+    private void buildGraph(String shape, int numOfMiddleTasks, Random random) {
+        boolean hasSource = shape.equals("fork") || shape.equals("forkjoin") || shape.equals("mixed");
+        boolean hasSink = shape.equals("join") || shape.equals("forkjoin") || shape.equals("mixed");
+        int numOfTasks = numOfMiddleTasks + (hasSource ? 1 : 0) + (hasSink ? 1 : 0);
+        String[] ids = new String[numOfTasks];
+        int[] weights = new int[numOfTasks];
+        for (int i = 0; i < numOfTasks; i++) {
+            ids[i] = "t" + i;
+            weights[i] = 1 + random.nextInt(9);
+        }
+
+        // only every other middle task of a mixed graph has the sink as its child.
+        int numOfJoinedTasks = shape.equals("mixed") ? (numOfMiddleTasks + 1) / 2 : numOfMiddleTasks;
+        int numOfEdges = (hasSource ? numOfMiddleTasks : 0) + (hasSink ? numOfJoinedTasks : 0);
+        int[] sources = new int[numOfEdges];
+        int[] targets = new int[numOfEdges];
+        int[] costs = new int[numOfEdges];
+        int firstMiddleTask = hasSource ? 1 : 0;
+        int edge = 0;
+        for (int i = 0; i < numOfMiddleTasks; i++) {
+            if (hasSource) {
+                sources[edge] = 0;
+                targets[edge] = firstMiddleTask + i;
+                costs[edge++] = random.nextInt(10);
+            }
+            if (hasSink && (!shape.equals("mixed") || i % 2 == 0)) {
+                sources[edge] = firstMiddleTask + i;
+                targets[edge] = numOfTasks - 1;
+                costs[edge++] = random.nextInt(10);
+            }
+        }
+        load(ids, weights, sources, targets, costs);
+    }
+
+    private void load(String[] ids, int[] weights, int[] sources, int[] targets, int[] costs) {
+        Digraph.fromProblem("test", new SchedulingProblem("test", ids, weights, sources, targets, costs));
+    }
+
+    private int best;
+    private ClosedSet seen;
+
+    /**
+     * @return the optimal makespan, found by trying every task on every processor in every order, only skipping
+     * partial schedules that have been seen before or already finish later than the best schedule so far.
+     */
+    private int exhaustiveSearch() {
+        best = Integer.MAX_VALUE;
+        seen = new ClosedSet();
+        // no pruning by the guess cost inside PartialSolution
+        InputGraph.setMinimumGuessCost(0);
+        exhaustiveSearch(new PartialSolution());
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+        return best;
+    }
+
+    private void exhaustiveSearch(PartialSolution state) {
+        if (state.calculateEndScheduleTime() >= best || !seen.add(state.calculateFingerprint())) {
+            return;
+        }
+        if (state.getNumOfScheduledTasks() == InputGraph.getProblem().getNumOfTasks()) {
+            best = state.calculateEndScheduleTime();
+            return;
+        }
+        for (Node node : state.getAvailableNextNodes()) {
+            for (int p = 1; p <= InputLoader.getNumOfProcessors(); p++) {
+                exhaustiveSearch(new PartialSolution(state, node, p));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import algorithm.AStar;
+import algorithm.IDAStar;
+import algorithm.PartialSolution;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.Digraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that IDA star finds schedules as good as A star does on the example graphs.
+ * g4 is left out since A star runs out of memory on it.
+ */
+public class IDAStarUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkSameAsAStar(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkSameAsAStar(graphName, 4);
+    }
+
+    /**
+     * once the threshold exceeds the minimum guess cost, every partial solution is pruned by it, so IDA star stops
+     * with the upper bound schedule rather than raising the threshold forever.
+     */
+    @Test
+    public void NothingWithinGuessCost() {
+        Digraph digraph = InputLoader.loadDotFile("g2");
+        SolverContext context = new SolverContext(digraph, 2);
+        IDAStar idaStar = new IDAStar(context);
+        int upperBound = context.getMinimumGuessCost();
+        // below the optimal makespan, 107.
+        context.setMinimumGuessCost(100);
+
+        assertEquals(upperBound, idaStar.build().calculateEndScheduleTime());
+    }
+
+    private void checkSameAsAStar(String graphName, int numOfProcessors) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+
+        PartialSolution aStarSolution = new AStar().buildTree(new PartialSolution());
+        PartialSolution idaStarSolution = new IDAStar().build();
+
+        assertEquals(aStarSolution.calculateEndScheduleTime(), idaStarSolution.calculateEndScheduleTime());
+    }
+}
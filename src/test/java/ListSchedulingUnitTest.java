@@ -0,0 +1,85 @@
+import algorithm.AStar;
+import algorithm.AStarUtil;
+import algorithm.ListScheduling;
+import algorithm.PartialSolution;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.InputGraph;
+import models.SchedulingProblem;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the list scheduling heuristics build valid complete schedules, and that the upper bound AStarUtil
+ * publishes is the finish time of its best schedule and is never below the optimal one.
+ */
+public class ListSchedulingUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkHeuristics(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkHeuristics(graphName, 4);
+    }
+
+    private void checkHeuristics(String graphName, int numOfProcessors) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        InputGraph.setMinimumGuessCost(0);
+
+        checkValidSchedule(ListScheduling.byPriority(SolverContext.global(), ListScheduling.upwardRanks(SolverContext.global()), null), numOfProcessors);
+        checkValidSchedule(ListScheduling.byPriority(SolverContext.global(), ListScheduling.criticalPathPriorities(SolverContext.global()), null), numOfProcessors);
+        checkValidSchedule(ListScheduling.byPriority(SolverContext.global(), ListScheduling.bottomLevels(SolverContext.global()), new Random(0)), numOfProcessors);
+        checkValidSchedule(ListScheduling.earliestStartTime(SolverContext.global()), numOfProcessors);
+
+        AStarUtil util = new AStarUtil();
+        PartialSolution best = util.getBestPartialSolution();
+        checkValidSchedule(best, numOfProcessors);
+        assertEquals(best.calculateEndScheduleTime(), InputGraph.getMinimumGuessCost());
+
+        // A star runs out of memory on g4.
+        if (!graphName.equals("g4")) {
+            int optimal = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+            assertTrue(best.calculateEndScheduleTime() >= optimal);
+        }
+    }
+
+    /**
+     * every task must be scheduled, after all its parents have finished (plus the communication cost if they are on
+     * different processors), and no two tasks may overlap on the same processor.
+     */
+    private void checkValidSchedule(PartialSolution solution, int numOfProcessors) {
+        SchedulingProblem problem = InputGraph.getProblem();
+        int numOfTasks = problem.getNumOfTasks();
+        assertEquals(numOfTasks, solution.getNumOfScheduledTasks());
+
+        int[] parents = problem.getParents();
+        int[] parentEdgeCosts = problem.getParentEdgeCosts();
+        for (int task = 0; task < numOfTasks; task++) {
+            int processorId = solution.getProcessorId(task);
+            assertTrue(processorId >= 1 && processorId <= numOfProcessors);
+            for (int i = problem.getParentsStart(task); i < problem.getParentsEnd(task); i++) {
+                int parent = parents[i];
+                int arrival = solution.getStartingTime(parent) + problem.getWeight(parent)
+                        + (solution.getProcessorId(parent) == processorId ? 0 : parentEdgeCosts[i]);
+                assertTrue(solution.getStartingTime(task) >= arrival);
+            }
+            for (int other = task + 1; other < numOfTasks; other++) {
+                if (solution.getProcessorId(other) == processorId) {
+                    assertTrue(solution.getStartingTime(task) + problem.getWeight(task) <= solution.getStartingTime(other)
+                            || solution.getStartingTime(other) + problem.getWeight(other) <= solution.getStartingTime(task));
+                }
+            }
+        }
+    }
+}
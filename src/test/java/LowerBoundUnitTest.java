@@ -0,0 +1,89 @@
+import algorithm.AStar;
+import algorithm.ClosedSet;
+import algorithm.LowerBound;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.InputGraph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import utils.GraphGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that A star finds the optimal schedule with any set of lower bounds, not just the ones whose cost function
+ * is exact one task before the end, compared with an exhaustive search on random task graphs.
+ */
+public class LowerBoundUnitTest {
+
+    private static final String DEFAULT_LOWER_BOUNDS = "idle,bl,drt";
+    private static final int NUM_OF_GRAPHS = 10;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void restoreLowerBounds() {
+        LowerBound.setEnabled(LowerBound.parse(DEFAULT_LOWER_BOUNDS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"idle", "bl", "idle,bl", "fbl", "drt", "idle,bl,fbl", "idle,bl,drt"})
+    public void SameAsExhaustiveSearch(String lowerBounds) throws IOException {
+        LowerBound.setEnabled(LowerBound.parse(lowerBounds));
+        for (int seed = 1; seed <= NUM_OF_GRAPHS; seed++) {
+            Path path = directory.resolve("random-8-" + seed + ".dot");
+            GraphGenerator.writeLargeDAG(8, 2, seed, path);
+            InputLoader.loadDotFileFromPath(path.toString());
+            for (int numOfProcessors = 2; numOfProcessors <= 3; numOfProcessors++) {
+                InputLoader.setNumOfProcessors(numOfProcessors);
+                int expected = exhaustiveSearch();
+
+                assertEquals(expected, new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime(),
+                        "seed " + seed + " on " + numOfProcessors + " processors");
+                AStar offHeapAStar = new AStar();
+                offHeapAStar.setOffHeapOpenListSize(1 << 20);
+                assertEquals(expected, offHeapAStar.buildTree(new PartialSolution()).calculateEndScheduleTime(),
+                        "seed " + seed + " on " + numOfProcessors + " processors off the heap");
+            }
+        }
+    }
+
+    private int best;
+    private ClosedSet seen;
+
+    /**
+     * @return the optimal makespan, found by trying every task on every processor in every order, only skipping
+     * partial schedules that have been seen before or already finish later than the best schedule so far.
+     */
+    private int exhaustiveSearch() {
+        best = Integer.MAX_VALUE;
+        seen = new ClosedSet();
+        // no pruning by the guess cost inside PartialSolution
+        InputGraph.setMinimumGuessCost(0);
+        exhaustiveSearch(new PartialSolution());
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+        return best;
+    }
+
+    private void exhaustiveSearch(PartialSolution state) {
+        if (state.calculateEndScheduleTime() >= best || !seen.add(state.calculateFingerprint())) {
+            return;
+        }
+        if (state.getNumOfScheduledTasks() == InputGraph.getProblem().getNumOfTasks()) {
+            best = state.calculateEndScheduleTime();
+            return;
+        }
+        for (Node node : state.getAvailableNextNodes()) {
+            for (int p = 1; p <= InputLoader.getNumOfProcessors(); p++) {
+                exhaustiveSearch(new PartialSolution(state, node, p));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import algorithm.AStar;
+import algorithm.MemoryBoundedAStar;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the memory bounded A star still finds the optimal schedules of A star when it has to evict and
+ * regenerate partial solutions, and that it stays within its budget.
+ * g4 is left out since A star runs out of memory on it.
+ */
+public class MemoryBoundedAStarUnitTest {
+
+    private static final int MAX_NUM_OF_STATES = 500;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkSameAsAStar(graphName, 2, MAX_NUM_OF_STATES);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkSameAsAStar(graphName, 4, MAX_NUM_OF_STATES);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {50, 100, 200})
+    public void Eviction(int maxNumOfStates) {
+        MemoryBoundedAStar memoryBoundedAStar = checkSameAsAStar("g5", 4, maxNumOfStates);
+        assertTrue(memoryBoundedAStar.getNumOfEvictedStates() > 0);
+        // the children of the partial solution being expanded are added before the worst leaves are evicted.
+        int maxNumOfChildren = InputGraph.getProblem().getNumOfTasks() * InputLoader.getNumOfProcessors();
+        assertTrue(memoryBoundedAStar.getPeakNumOfStates() <= maxNumOfStates + maxNumOfChildren);
+    }
+
+    /**
+     * when every partial solution is pruned by the minimum guess cost, A star and the memory bounded A star return the
+     * upper bound schedule rather than null.
+     */
+    @Test
+    public void NothingWithinGuessCost() {
+        Digraph digraph = InputLoader.loadDotFile("g2");
+        SolverContext context = new SolverContext(digraph, 2);
+
+        AStar aStar = new AStar(context, SearchLimit.none());
+        // below the optimal makespan, 107.
+        context.setMinimumGuessCost(100);
+        assertEquals(aStar.getUpperBoundSolution(), aStar.buildTree(new PartialSolution(context)));
+
+        MemoryBoundedAStar memoryBoundedAStar = new MemoryBoundedAStar(context, MAX_NUM_OF_STATES);
+        context.setMinimumGuessCost(100);
+        assertEquals(memoryBoundedAStar.getUpperBoundSolution(), memoryBoundedAStar.build());
+    }
+
+    private MemoryBoundedAStar checkSameAsAStar(String graphName, int numOfProcessors, int maxNumOfStates) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+        int expected = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+
+        MemoryBoundedAStar memoryBoundedAStar = new MemoryBoundedAStar(maxNumOfStates);
+        PartialSolution solution = memoryBoundedAStar.build();
+
+        assertEquals(expected, solution.calculateEndScheduleTime());
+        assertEquals(InputGraph.getProblem().getNumOfTasks(), solution.getNumOfScheduledTasks());
+        return memoryBoundedAStar;
+    }
+}
@@ -0,0 +1,109 @@
+import algorithm.BucketOpenList;
+import algorithm.MultiQueue;
+import algorithm.OffHeapOpenList;
+import algorithm.PartialSolution;
+import algorithm.SpillingOpenList;
+import io.InputLoader;
+import models.InputGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every partial solution offered to the MultiQueue by concurrent threads is polled exactly once, also
+ * with open queues off the heap.
+ */
+public class MultiQueueUnitTest {
+
+    private static final int NUM_OF_THREADS = 4;
+
+    @Test
+    public void ConcurrentOfferAndPoll() throws Exception {
+        InputLoader.loadDotFile("g5");
+        InputLoader.setNumOfProcessors(3);
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+
+        List<PartialSolution> states = generateStates();
+        MultiQueue multiQueue = new MultiQueue(NUM_OF_THREADS, BucketOpenList::new);
+        Map<PartialSolution, Boolean> polled = Collections.synchronizedMap(new IdentityHashMap<>());
+        ExecutorService executorService = Executors.newFixedThreadPool(NUM_OF_THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < NUM_OF_THREADS; t++) {
+                int thread = t;
+                futures.add(executorService.submit(() -> {
+                    int numOfDuplicates = 0;
+                    // every thread offers its share and polls about as many.
+                    for (int i = thread; i < states.size(); i += NUM_OF_THREADS) {
+                        multiQueue.offer(states.get(i));
+                        PartialSolution partialSolution = multiQueue.poll();
+                        if (partialSolution != null && polled.put(partialSolution, true) != null) {
+                            numOfDuplicates++;
+                        }
+                    }
+                    return numOfDuplicates;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(0, (int) future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        PartialSolution partialSolution;
+        while ((partialSolution = multiQueue.poll()) != null) {
+            assertNull(polled.put(partialSolution, true));
+        }
+        assertEquals(states.size(), polled.size());
+        assertTrue(multiQueue.isEmpty());
+    }
+
+    @Test
+    public void OffHeapQueues() {
+        InputLoader.loadDotFile("g5");
+        InputLoader.setNumOfProcessors(3);
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+
+        List<PartialSolution> states = generateStates();
+        // small arenas, so the queues spill to the heap too.
+        long maxNumOfBytes = PartialSolution.getRecordSize() * 64L;
+        MultiQueue multiQueue = new MultiQueue(NUM_OF_THREADS,
+                () -> new SpillingOpenList(new OffHeapOpenList(maxNumOfBytes)));
+        Map<Long, Integer> numOfOffered = new HashMap<>();
+        for (PartialSolution state : states) {
+            multiQueue.offer(state);
+            numOfOffered.merge(state.calculateFingerprint(), 1, Integer::sum);
+        }
+
+        PartialSolution partialSolution;
+        while ((partialSolution = multiQueue.poll()) != null) {
+            numOfOffered.merge(partialSolution.calculateFingerprint(), -1, Integer::sum);
+        }
+        for (int count : numOfOffered.values()) {
+            assertEquals(0, count);
+        }
+        assertTrue(multiQueue.isEmpty());
+    }
+
+    private List<PartialSolution> generateStates() {
+        List<PartialSolution> states = new ArrayList<>();
+        states.add(new PartialSolution());
+        for (int i = 0; states.size() < 4000 && i < states.size(); i++) {
+            states.addAll(states.get(i).getAllNextPartialSolution());
+        }
+        return states;
+    }
+}
@@ -0,0 +1,165 @@
+import algorithm.AStar;
+import algorithm.LowerBound;
+import algorithm.OffHeapOpenList;
+import algorithm.ParallelAStar;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.InputGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that partial solutions come out of the off-heap open list as they went in, in order of their cost function,
+ * and that A star finds the same schedules with it.
+ */
+public class OffHeapOpenListUnitTest {
+
+    private static final String DEFAULT_LOWER_BOUNDS = "idle,bl,drt";
+
+    @AfterEach
+    public void restoreLowerBounds() {
+        LowerBound.setEnabled(LowerBound.parse(DEFAULT_LOWER_BOUNDS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"idle,bl,drt", "idle,bl,fbl"})
+    public void RoundTrip(String lowerBounds) {
+        LowerBound.setEnabled(LowerBound.parse(lowerBounds));
+        InputLoader.loadDotFile("g2");
+        InputLoader.setNumOfProcessors(3);
+
+        OffHeapOpenList openList = new OffHeapOpenList(1 << 20);
+        Random random = new Random(1);
+        PartialSolution partialSolution = new PartialSolution();
+        while (partialSolution.getNumOfScheduledTasks() < InputGraph.getProblem().getNumOfTasks()) {
+            openList.offer(partialSolution);
+            PartialSolution read = openList.poll();
+            assertSameState(partialSolution, read);
+
+            int[] tasks = partialSolution.getAvailableNextTasks();
+            int task = tasks[random.nextInt(tasks.length)];
+            int processorId = 1 + random.nextInt(partialSolution.getMaxCanonicalProcessor());
+            // the child of the deserialized partial solution must be the same as the child of the original one.
+            assertSameState(new PartialSolution(partialSolution, task, processorId),
+                    new PartialSolution(read, task, processorId));
+            partialSolution = new PartialSolution(read, task, processorId);
+        }
+    }
+
+    @Test
+    public void PollOrder() {
+        InputLoader.loadDotFile("g5");
+        InputLoader.setNumOfProcessors(2);
+
+        OffHeapOpenList openList = new OffHeapOpenList(1 << 20);
+        List<PartialSolution> frontier = new ArrayList<>();
+        frontier.add(new PartialSolution());
+        // interleave offers and polls, so slots of polled partial solutions are reused.
+        for (int i = 0; i < 200 && !frontier.isEmpty(); i++) {
+            PartialSolution prev = frontier.remove(0);
+            for (PartialSolution child : prev.getAllNextPartialSolution()) {
+                openList.offer(child);
+                frontier.add(child);
+            }
+            if (i % 3 == 0) {
+                openList.poll();
+            }
+        }
+        assertTrue(openList.getPeakSize() >= openList.size());
+        assertEquals(openList.size() * (long) openList.getRecordSize(), openList.getUsedBytes());
+        assertTrue(openList.getOccupancy() > 0 && openList.getOccupancy() <= 1);
+
+        double costFunction = Double.NEGATIVE_INFINITY;
+        int size = openList.size();
+        for (int i = 0; i < size; i++) {
+            PartialSolution partialSolution = openList.poll();
+            assertTrue(partialSolution.getCostFunction() >= costFunction);
+            costFunction = partialSolution.getCostFunction();
+        }
+        assertNull(openList.poll());
+        assertEquals(0, openList.getUsedBytes());
+    }
+
+    @Test
+    public void Full() {
+        InputLoader.loadDotFile("g2");
+        InputLoader.setNumOfProcessors(2);
+
+        OffHeapOpenList openList = new OffHeapOpenList(PartialSolution.getRecordSize() * 2L);
+        openList.offer(new PartialSolution());
+        openList.offer(new PartialSolution());
+        assertFalse(openList.offer(new PartialSolution()));
+        assertEquals(2, openList.size());
+        // a polled slot can be used again.
+        openList.poll();
+        assertTrue(openList.offer(new PartialSolution()));
+        assertEquals(2, openList.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void SameAsAStar(String graphName) {
+        InputLoader.loadDotFile(graphName);
+        for (int numOfProcessors : new int[]{2, 4}) {
+            InputLoader.setNumOfProcessors(numOfProcessors);
+            int expected = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+
+            AStar aStar = new AStar();
+            aStar.setOffHeapOpenListSize(1 << 26);
+            assertEquals(expected, aStar.buildTree(new PartialSolution()).calculateEndScheduleTime());
+
+            ParallelAStar parallelAStar = new ParallelAStar(2);
+            parallelAStar.setOffHeapOpenListSize(1 << 26);
+            assertEquals(expected, parallelAStar.build().calculateEndScheduleTime());
+            assertTrue(parallelAStar.getOffHeapPeakUsedBytes() <= parallelAStar.getOffHeapCapacityInBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g2", "g11"})
+    public void SpillsToHeap(String graphName) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(2);
+        int expected = new AStar().buildTree(new PartialSolution()).calculateEndScheduleTime();
+        // room for a handful of partial solutions only, the rest go to the heap.
+        long maxNumOfBytes = PartialSolution.getRecordSize() * 4L;
+
+        AStar aStar = new AStar();
+        aStar.setOffHeapOpenListSize(maxNumOfBytes);
+        assertEquals(expected, aStar.buildTree(new PartialSolution()).calculateEndScheduleTime());
+        assertTrue(aStar.getNumOfSpilledStates() > 0);
+        assertEquals(maxNumOfBytes, aStar.getOffHeapCapacityInBytes());
+
+        for (boolean sharedFrontier : new boolean[]{false, true}) {
+            ParallelAStar parallelAStar = new ParallelAStar(2, sharedFrontier);
+            parallelAStar.setOffHeapOpenListSize(maxNumOfBytes);
+            assertEquals(expected, parallelAStar.build().calculateEndScheduleTime());
+            assertTrue(parallelAStar.getNumOfSpilledStates() > 0);
+        }
+    }
+
+    private void assertSameState(PartialSolution expected, PartialSolution actual) {
+        assertEquals(expected.calculateFingerprint(), actual.calculateFingerprint());
+        assertEquals(expected.getCostFunction(), actual.getCostFunction());
+        assertEquals(expected.getNumOfScheduledTasks(), actual.getNumOfScheduledTasks());
+        assertEquals(expected.getIdleTime(), actual.getIdleTime());
+        assertEquals(expected.calculateEndScheduleTime(), actual.calculateEndScheduleTime());
+        assertEquals(expected.getMaxCanonicalProcessor(), actual.getMaxCanonicalProcessor());
+        assertArrayEquals(expected.getAvailableNextTasks(), actual.getAvailableNextTasks());
+        if (expected.getNumOfScheduledTasks() > 0) {
+            assertEquals(expected.getLastScheduledTask(), actual.getLastScheduledTask());
+        }
+    }
+}
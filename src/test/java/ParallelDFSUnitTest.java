@@ -0,0 +1,39 @@
+import algorithm.AStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the parallel branch and bound finds schedules as good as A star does on the example graphs,
+ * with different numbers of threads.
+ * g4 is left out since A star runs out of memory on it.
+ */
+public class ParallelDFSUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkSameAsAStar(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkSameAsAStar(graphName, 4);
+    }
+
+    private void checkSameAsAStar(String graphName, int numOfProcessors) {
+        InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+
+        PartialSolution aStarSolution = new AStar().buildTree(new PartialSolution());
+        for (int numOfThreads : new int[]{1, 2, 4}) {
+            PartialSolution solution = new ParallelDFS(numOfThreads).build();
+            assertEquals(aStarSolution.calculateEndScheduleTime(), solution.calculateEndScheduleTime());
+        }
+    }
+}
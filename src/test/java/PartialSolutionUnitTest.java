@@ -0,0 +1,275 @@
+import algorithm.LowerBound;
+import algorithm.PartialSolution;
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the values PartialSolution keeps up to date incrementally match a full rescan of the schedule,
+ * computed the same way the original implementation did, for the first states of the solution tree of every example.
+ */
+public class PartialSolutionUnitTest {
+
+    private static final int MAX_STATES = 3000;
+    private static final Set<LowerBound> DEFAULT_LOWER_BOUNDS = LowerBound.getEnabled();
+
+    private Digraph digraph;
+
+    @BeforeEach
+    public void resetMinimumGuessCost() {
+        InputGraph.setMinimumGuessCost(0);
+        LowerBound.setEnabled(DEFAULT_LOWER_BOUNDS);
+    }
+
+    @AfterEach
+    public void resetLowerBounds() {
+        LowerBound.setEnabled(DEFAULT_LOWER_BOUNDS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void TwoProcessors(String graphName) {
+        checkSolutionTree(graphName, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FourProcessors(String graphName) {
+        checkSolutionTree(graphName, 4);
+    }
+
+    /**
+     * the cost function the way it was before the data ready time bound.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void FutureBottomLevel(String graphName) {
+        LowerBound.setEnabled(LowerBound.parse("idle,bl,fbl"));
+        checkSolutionTree(graphName, 3);
+    }
+
+    /**
+     * the data ready times are calculated when a task becomes available, which also has to work when the tasks are
+     * scheduled and unscheduled in place.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void InPlaceDataReadyTime(String graphName) {
+        digraph = InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(3);
+        LowerBound.setEnabled(LowerBound.parse("drt"));
+        checkInPlace(new PartialSolution(), 3, new int[]{0});
+    }
+
+    private void checkInPlace(PartialSolution state, int numOfProcessors, int[] count) {
+        if (count[0]++ >= MAX_STATES) {
+            return;
+        }
+        for (int task : state.getAvailableNextTasks()) {
+            for (int p = 1; p <= state.getMaxCanonicalProcessor(); p++) {
+                state.schedule(task, p);
+                assertEquals(rescanCostFunction(state, numOfProcessors), state.getCostFunction());
+                checkInPlace(state, numOfProcessors, count);
+                state.unschedule();
+            }
+        }
+    }
+
+    /**
+     * Breadth first expand the solution tree without any pruning and check every state that is generated.
+     */
+    private void checkSolutionTree(String graphName, int numOfProcessors) {
+        digraph = InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(numOfProcessors);
+
+        Queue<PartialSolution> queue = new ArrayDeque<>();
+        queue.add(new PartialSolution());
+        int count = 0;
+        while (!queue.isEmpty() && count < MAX_STATES) {
+            PartialSolution prev = queue.poll();
+            count++;
+            checkPartialSolution(prev, numOfProcessors);
+            for (int task : prev.getAvailableNextTasks()) {
+                for (int p = 1; p <= numOfProcessors; p++) {
+                    queue.add(new PartialSolution(prev, task, p));
+                }
+            }
+        }
+
+        // also follow a single path down to a complete schedule.
+        PartialSolution current = new PartialSolution();
+        while (current.getNumOfScheduledTasks() < digraph.getNodeCount()) {
+            int[] available = current.getAvailableNextTasks();
+            int task = available[available.length - 1];
+            current = new PartialSolution(current, task, 1 + current.getNumOfScheduledTasks() % numOfProcessors);
+            checkPartialSolution(current, numOfProcessors);
+        }
+        assertEquals(rescanEndScheduleTime(current), current.calculateEndScheduleTime());
+    }
+
+    private void checkPartialSolution(PartialSolution solution, int numOfProcessors) {
+        for (int p = 1; p <= numOfProcessors; p++) {
+            assertEquals(rescanLastFinishTime(solution, p), solution.findLastFinishTime(p));
+            for (Node node : solution.getAvailableNextNodes()) {
+                assertEquals(rescanStartingTime(solution, node, p), solution.calculateStartingTime(node, p));
+            }
+        }
+        assertEquals(rescanIdleTime(solution, numOfProcessors), solution.getIdleTime());
+        assertEquals(rescanEndScheduleTime(solution), solution.calculateEndScheduleTime());
+        assertEquals(rescanMaxCanonicalProcessor(solution, numOfProcessors), solution.getMaxCanonicalProcessor());
+        if (solution.getNumOfScheduledTasks() > 0) {
+            assertEquals(rescanCostFunction(solution, numOfProcessors), solution.getCostFunction());
+        }
+    }
+
+    /**
+     * The successors of the solution tree only use the processors in order, so that no two of them are the same
+     * schedule with the processors relabeled.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"g1", "g2", "g3", "g4", "g5", "g6", "g7", "g8", "g9", "g10", "g11"})
+    public void CanonicalSuccessors(String graphName) {
+        digraph = InputLoader.loadDotFile(graphName);
+        InputLoader.setNumOfProcessors(4);
+        InputGraph.setMinimumGuessCost(Integer.MAX_VALUE);
+
+        Queue<PartialSolution> queue = new ArrayDeque<>();
+        queue.add(new PartialSolution());
+        Set<Long> fingerprints = new HashSet<>();
+        int count = 0;
+        while (!queue.isEmpty() && count < MAX_STATES) {
+            PartialSolution prev = queue.poll();
+            count++;
+            for (PartialSolution next : prev.getAllNextPartialSolution()) {
+                boolean usedProcessorBefore = true;
+                for (int p = 1; p <= 4; p++) {
+                    boolean used = rescanLastFinishTime(next, p) > 0;
+                    assertTrue(usedProcessorBefore || !used);
+                    usedProcessorBefore = used;
+                }
+                if (fingerprints.add(next.calculateFingerprint())) {
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private int weight(Node node) {
+        return (int) digraph.getNodeWeightById(node.getId());
+    }
+
+    private int rescanLastFinishTime(PartialSolution solution, int processorId) {
+        int lastTime = 0;
+        for (Node node : solution.getNodesPath()) {
+            if (solution.getProcessorId(node.getIndex()) == processorId) {
+                lastTime = Math.max(lastTime, solution.getStartingTime(node.getIndex()) + weight(node));
+            }
+        }
+        return lastTime;
+    }
+
+    private int rescanStartingTime(PartialSolution solution, Node currentNode, int processorId) {
+        int startTime = 0;
+        for (Node node : solution.getNodesPath()) {
+            if (node.hasEdgeToward(currentNode)) {
+                int finishTime = solution.getStartingTime(node.getIndex()) + weight(node);
+                if (solution.getProcessorId(node.getIndex()) == processorId) {
+                    startTime = Math.max(startTime, finishTime);
+                } else {
+                    int communicationCost = digraph.getEdgeWeight(node.getId(), currentNode.getId()).intValue();
+                    startTime = Math.max(startTime, finishTime + communicationCost);
+                }
+            }
+        }
+        return Math.max(startTime, rescanLastFinishTime(solution, processorId));
+    }
+
+    /**
+     * the idle time is the time on each processor before its last finish time that is not spent on a task.
+     */
+    private int rescanIdleTime(PartialSolution solution, int numOfProcessors) {
+        int idleTime = 0;
+        for (int p = 1; p <= numOfProcessors; p++) {
+            idleTime += rescanLastFinishTime(solution, p);
+        }
+        for (Node node : solution.getNodesPath()) {
+            idleTime -= weight(node);
+        }
+        return idleTime;
+    }
+
+    private int rescanMaxCanonicalProcessor(PartialSolution solution, int numOfProcessors) {
+        int maxProcessorId = 0;
+        for (Node node : solution.getNodesPath()) {
+            maxProcessorId = Math.max(maxProcessorId, solution.getProcessorId(node.getIndex()));
+        }
+        return Math.min(maxProcessorId + 1, numOfProcessors);
+    }
+
+    private int rescanEndScheduleTime(PartialSolution solution) {
+        int finishingTime = 0;
+        for (Node node : solution.getNodesPath()) {
+            finishingTime = Math.max(finishingTime, solution.getStartingTime(node.getIndex()) + weight(node));
+        }
+        return finishingTime;
+    }
+
+    private double rescanCostFunction(PartialSolution solution, int numOfProcessors) {
+        List<Node> path = solution.getNodesPath();
+        if (path.size() == digraph.getNodeCount()) {
+            return rescanEndScheduleTime(solution);
+        }
+
+        double bottomLevel = 0;
+        for (Node node : path) {
+            bottomLevel = Math.max(bottomLevel, solution.getStartingTime(node.getIndex()) + digraph.getBottomLevel(node));
+        }
+
+        double loadBalance = (digraph.getSumWeightOfNodes() + rescanIdleTime(solution, numOfProcessors)) / (double) numOfProcessors;
+
+        int minStartingTime = Integer.MAX_VALUE;
+        int futureMinBottomLevel = 0;
+        int dataReadyTime = 0;
+        for (Node node : solution.getAvailableNextNodes()) {
+            int earliestStartingTime = Integer.MAX_VALUE;
+            for (int p = 1; p <= numOfProcessors; p++) {
+                int startingTime = rescanStartingTime(solution, node, p);
+                if (startingTime < minStartingTime) {
+                    minStartingTime = startingTime;
+                    futureMinBottomLevel = (int) (digraph.getBottomLevel(node) + startingTime);
+                }
+                earliestStartingTime = Math.min(earliestStartingTime, startingTime);
+            }
+            dataReadyTime = (int) Math.max(dataReadyTime, earliestStartingTime + digraph.getBottomLevel(node));
+        }
+
+        double costFunction = 0;
+        if (LowerBound.BOTTOM_LEVEL.isEnabled()) {
+            costFunction = Math.max(costFunction, bottomLevel);
+        }
+        if (LowerBound.IDLE_TIME.isEnabled()) {
+            costFunction = Math.max(costFunction, loadBalance);
+        }
+        if (LowerBound.FUTURE_BOTTOM_LEVEL.isEnabled()) {
+            costFunction = Math.max(costFunction, futureMinBottomLevel);
+        }
+        if (LowerBound.DATA_READY_TIME.isEnabled()) {
+            costFunction = Math.max(costFunction, dataReadyTime);
+        }
+        return costFunction;
+    }
+}
@@ -0,0 +1,145 @@
+import algorithm.AStar;
+import algorithm.AnytimeAStar;
+import algorithm.BranchAndBound;
+import algorithm.ExternalMemoryAStar;
+import algorithm.IDAStar;
+import algorithm.MemoryBoundedAStar;
+import algorithm.ParallelAStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SearchStatus;
+import algorithm.SolutionTreeNode;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.Digraph;
+import models.InputGraph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the searches stop once their search limit is reached, returning a complete schedule with the status
+ * that says why they stopped. g4 is used since none of them can prove its schedule optimal in time.
+ */
+public class SearchLimitUnitTest {
+
+    @Test
+    public void NoLimit() {
+        InputLoader.loadDotFile("g2");
+        InputLoader.setNumOfProcessors(2);
+
+        AStar aStar = new AStar();
+        assertEquals(107, aStar.buildTree(new PartialSolution()).calculateEndScheduleTime());
+        assertEquals(SearchStatus.OPTIMAL, aStar.getStatus());
+
+        ParallelAStar parallelAStar = new ParallelAStar(2, false, SearchLimit.ofSeconds(60));
+        assertEquals(107, parallelAStar.build().calculateEndScheduleTime());
+        assertEquals(SearchStatus.OPTIMAL, parallelAStar.getStatus());
+    }
+
+    @Test
+    public void AStarCancelled() {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        SearchLimit searchLimit = SearchLimit.none();
+        searchLimit.cancel();
+        AStar aStar = new AStar(searchLimit);
+        PartialSolution solution = aStar.buildTree(new PartialSolution());
+        assertEquals(SearchStatus.CANCELLED, aStar.getStatus());
+        assertComplete(solution);
+    }
+
+    @Test
+    public void ParallelAStarTimeout() {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        for (boolean sharedFrontier : new boolean[]{false, true}) {
+            ParallelAStar parallelAStar = new ParallelAStar(2, sharedFrontier, SearchLimit.ofSeconds(0.2));
+            PartialSolution solution = parallelAStar.build();
+            assertEquals(SearchStatus.TIMEOUT, parallelAStar.getStatus());
+            assertComplete(solution);
+        }
+    }
+
+    @Test
+    public void ParallelDFSCancelled() throws Exception {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        SearchLimit searchLimit = SearchLimit.none();
+        ParallelDFS parallelDFS = new ParallelDFS(2);
+        parallelDFS.setSearchLimit(searchLimit);
+        CompletableFuture<PartialSolution> future = CompletableFuture.supplyAsync(parallelDFS::build);
+        Thread.sleep(200);
+        searchLimit.cancel();
+        PartialSolution solution = future.get(10, TimeUnit.SECONDS);
+        assertEquals(SearchStatus.CANCELLED, parallelDFS.getStatus());
+        assertComplete(solution);
+    }
+
+    @Test
+    public void BranchAndBoundTimeout() {
+        Digraph digraph = InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        Map<Node, SolutionTreeNode> nodeInfo = new HashMap<>();
+        for (Node node : digraph) {
+            int weight = (int) digraph.getNodeWeightById(node.getId());
+            nodeInfo.put(node, new SolutionTreeNode(node.getId(), weight, node.getInDegree()));
+        }
+        BranchAndBound branchAndBound = new BranchAndBound(SolverContext.global());
+        int ans = branchAndBound.calculate(nodeInfo, 2, SearchLimit.ofSeconds(0.2));
+        assertEquals(SearchStatus.TIMEOUT, branchAndBound.getStatus());
+        assertEquals(nodeInfo.size(), branchAndBound.getSolution().size());
+        assertTrue(ans >= InputGraph.getProblem().getLowerBound(4));
+    }
+
+    @Test
+    public void OtherSearchesTimeout(@TempDir Path tempDirectory) {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+        SolverContext context = SolverContext.global();
+
+        IDAStar idaStar = new IDAStar(context, SearchLimit.ofSeconds(0.2));
+        assertComplete(idaStar.build());
+        assertEquals(SearchStatus.TIMEOUT, idaStar.getStatus());
+
+        MemoryBoundedAStar memoryBoundedAStar = new MemoryBoundedAStar(context, 10_000, SearchLimit.ofSeconds(0.2));
+        assertComplete(memoryBoundedAStar.build());
+        assertEquals(SearchStatus.TIMEOUT, memoryBoundedAStar.getStatus());
+
+        ExternalMemoryAStar externalMemoryAStar = new ExternalMemoryAStar(context, tempDirectory, 1 << 16,
+                SearchLimit.ofSeconds(0.2));
+        assertComplete(externalMemoryAStar.build());
+        assertEquals(SearchStatus.TIMEOUT, externalMemoryAStar.getStatus());
+    }
+
+    @Test
+    public void AnytimeAStarCancelled() {
+        InputLoader.loadDotFile("g4");
+        InputLoader.setNumOfProcessors(4);
+
+        SearchLimit searchLimit = SearchLimit.none();
+        AnytimeAStar anytimeAStar = new AnytimeAStar(searchLimit, null);
+        searchLimit.cancel();
+        assertComplete(anytimeAStar.build());
+        assertEquals(SearchStatus.CANCELLED, anytimeAStar.getStatus());
+    }
+
+    private void assertComplete(PartialSolution solution) {
+        assertEquals(InputGraph.getProblem().getNumOfTasks(), solution.getNumOfScheduledTasks());
+        assertTrue(solution.calculateEndScheduleTime() >= InputGraph.getProblem().getLowerBound(4));
+    }
+}
@@ -0,0 +1,94 @@
+import algorithm.SearchScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a SearchScope waits for all of its tasks, stops them when one fails or it is shut down, and reuses the
+ * threads of the shared pool.
+ */
+public class SearchScopeUnitTest {
+
+    @Test
+    public void JoinWaitsForAllTasks() throws Exception {
+        AtomicInteger numOfFinished = new AtomicInteger();
+        try (SearchScope scope = new SearchScope()) {
+            for (int i = 0; i < 4; i++) {
+                scope.fork(() -> {
+                    Thread.sleep(20);
+                    return numOfFinished.incrementAndGet();
+                });
+            }
+            scope.join();
+            assertEquals(4, numOfFinished.get());
+            assertFalse(scope.isShutdown());
+        }
+    }
+
+    @Test
+    public void FailureCancelsSiblings() throws Exception {
+        RuntimeException failure = new RuntimeException("failed");
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean siblingStopped = new AtomicBoolean();
+        try (SearchScope scope = new SearchScope()) {
+            scope.fork(() -> {
+                started.countDown();
+                // a search that never finishes on its own.
+                while (!scope.isShutdown()) {
+                    Thread.yield();
+                }
+                siblingStopped.set(true);
+                return null;
+            });
+            scope.fork(() -> {
+                assertTrue(started.await(10, TimeUnit.SECONDS));
+                throw failure;
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, scope::join);
+            assertSame(failure, e.getCause());
+        }
+        assertTrue(siblingStopped.get());
+    }
+
+    @Test
+    public void ShutdownInterruptsTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        try (SearchScope scope = new SearchScope()) {
+            scope.fork(() -> {
+                started.countDown();
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return null;
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            scope.shutdown();
+            // a task interrupted by the shut down has not failed.
+            scope.join();
+            assertTrue(scope.isShutdown());
+        }
+    }
+
+    @Test
+    public void ThreadsAreReused() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10; i++) {
+            try (SearchScope scope = new SearchScope()) {
+                scope.fork(() -> threads.add(Thread.currentThread()));
+                scope.join();
+            }
+        }
+        // the threads of the earlier scopes are idle by the time the next one forks.
+        assertTrue(threads.size() < 10);
+    }
+}
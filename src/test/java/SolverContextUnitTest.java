@@ -0,0 +1,77 @@
+import algorithm.AStar;
+import algorithm.ParallelAStar;
+import algorithm.ParallelDFS;
+import algorithm.PartialSolution;
+import algorithm.SearchLimit;
+import algorithm.SolverContext;
+import io.InputLoader;
+import models.Digraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that solves with their own contexts do not interfere with each other, or with the global context, when
+ * they run at the same time.
+ */
+public class SolverContextUnitTest {
+
+    private static final String[] GRAPHS = {"g2", "g11", "g5"};
+    private static final int[] NUM_OF_PROCESSORS = {2, 4, 2};
+    private static final int[] OPTIMAL = {107, 227, 22};
+
+    @Test
+    public void ConcurrentSolves() throws Exception {
+        List<SolverContext> contexts = new ArrayList<>();
+        for (int i = 0; i < GRAPHS.length; i++) {
+            Digraph digraph = InputLoader.loadDotFile(GRAPHS[i]);
+            contexts.add(new SolverContext(digraph, NUM_OF_PROCESSORS[i]));
+        }
+        // the global context is another graph on another number of processors.
+        InputLoader.loadDotFile("g8");
+        InputLoader.setNumOfProcessors(3);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(GRAPHS.length * 3);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int round = 0; round < 2; round++) {
+                for (SolverContext context : contexts) {
+                    futures.add(executorService.submit(() ->
+                            new AStar(context, SearchLimit.none()).buildTree(new PartialSolution(context))
+                                    .calculateEndScheduleTime()));
+                    futures.add(executorService.submit(() ->
+                            new ParallelAStar(context, 2, false, SearchLimit.none()).build()
+                                    .calculateEndScheduleTime()));
+                    futures.add(executorService.submit(() ->
+                            new ParallelDFS(context, 2).build().calculateEndScheduleTime()));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(OPTIMAL[i / 3 % GRAPHS.length], (int) futures.get(i).get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void SolutionBelongsToContext() {
+        Digraph digraph = InputLoader.loadDotFile("g2");
+        SolverContext context = new SolverContext(digraph, 2);
+        InputLoader.loadDotFile("g5");
+        InputLoader.setNumOfProcessors(4);
+
+        PartialSolution solution = new AStar(context, SearchLimit.none()).buildTree(new PartialSolution(context));
+        assertSame(context, solution.getContext());
+        assertSame(digraph, solution.getContext().getGraph());
+        assertEquals(digraph.getNodeCount(), solution.getNumOfScheduledTasks());
+        assertEquals(107, solution.calculateEndScheduleTime());
+    }
+}